@@ -0,0 +1,45 @@
+// represents an A* search through a MazeGrid, which always takes the cell
+// with the lowest distance from the start plus Manhattan distance to the
+// target next
+//
+// the worklist is a Heap of cell names ordered by that sum, which see
+// works out as each cell is first reached. Every maze is a spanning tree, so
+// a cell is only ever reached one way and its distance from the start never
+// changes after it is seen. The distance itself is not stored: it is the
+// priority of a cell less its estimate, so the heap is all the extra state
+// an A* search needs
+class AStarSearch extends Search {
+
+  // constructor: an A* search of the given grid from start to target
+  AStarSearch(MazeGrid grid, int start, int target) {
+    super(grid, new Heap(grid.size()), start, target);
+  }
+
+  // returns the name of the kind of search this is
+  String algorithm() {
+    return "A*";
+  }
+
+  // returns the Manhattan distance from the given cell to the target,
+  // which is never more than the length of the path between them
+  int estimate(int name) {
+    return Math.abs(this.grid.column(name) - this.grid.column(this.target))
+        + Math.abs(this.grid.row(name) - this.grid.row(this.target));
+  }
+
+  // EFFECT: marks the given cell as seen, reached from the cell from,
+  // and sets its priority for when it is added to the worklist
+  void see(int name, int from) {
+    super.see(name, from);
+    Heap heap = (Heap) this.worklist;
+
+    if (name == from) {
+      heap.priority[name] = this.estimate(name);
+    }
+    else {
+      int distance = heap.priority[from] - this.estimate(from) + 1;
+      heap.priority[name] = distance + this.estimate(name);
+    }
+  }
+
+}
@@ -0,0 +1,18 @@
+// represents the 3 states in our game
+abstract class AState implements IState {
+
+  // is this state auto?
+  public boolean isAuto() {
+    return false;
+  }
+
+  // is this state manual?
+  public boolean isManual() {
+    return false;
+  }
+
+  // is this state at rest?
+  public boolean isRest() {
+    return false;
+  }
+}
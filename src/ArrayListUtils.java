@@ -0,0 +1,109 @@
+import java.util.ArrayList;
+import java.awt.Color;
+
+// methods used to manipulate an ArrayList
+class ArrayListUtils {
+
+  // creates a grid of cells using the given size
+  ArrayList<Cell> initilizeBoard(int length, int height, int cellSize, int seed) {
+    return new ArrayListUtils().initilizeBoard(length, height, cellSize, seed,
+        new KruskalGenerator());
+  }
+
+  // creates a grid of cells using the given size, with walls from the given generator
+  ArrayList<Cell> initilizeBoard(int length, int height, int cellSize, int seed,
+      IGenerator generator) {
+    MazeGrid grid = new MazeGrid(length, height);
+    generator.generate(grid, seed);
+    return new ArrayListUtils().toBoard(grid, cellSize);
+  }
+
+  // returns the cells of the given grid, with the same walls
+  ArrayList<Cell> toBoard(MazeGrid grid, int cellSize) {
+    ArrayList<Cell> accum = new ArrayList<Cell>(grid.size());
+
+    for (int i = 0; i < grid.height; i = i + 1) {
+      for (int j = 0; j < grid.length; j = j + 1) {
+        int name = i * grid.length + j;
+        accum.add(new Cell(name, grid.x(name, cellSize), grid.y(name, cellSize)));
+        new ArrayListUtils().connectCells(accum, j, i, grid.length, name);
+      }
+    }
+
+    for (Cell c : accum) {
+      if (grid.hasRightEdge(c.name)) {
+        c.union(c.right);
+      }
+      if (grid.hasBottomEdge(c.name)) {
+        c.union(c.bottom);
+      }
+    }
+
+    accum.get(0).changeColor(Color.pink);
+    accum.get(accum.size() - 1).changeColor(Color.green);
+    return accum;
+  }
+
+  // returns the grid of the given board, with the same walls
+  MazeGrid toGrid(ArrayList<Cell> board) {
+    int length = new ArrayListUtils().rowLength(board);
+    MazeGrid grid = new MazeGrid(length, board.size() / length);
+
+    for (Cell c : board) {
+      if (c.rightEdge) {
+        grid.open((c.name << 1) | MazeGrid.RIGHT);
+      }
+      if (c.bottomEdge) {
+        grid.open((c.name << 1) | MazeGrid.DOWN);
+      }
+    }
+    return grid;
+  }
+
+  // EFFECT: connects the cells corresponding to the given parameters
+  // in the given grid of cells
+  void connectCells(ArrayList<Cell> board, int j, int i, int length, int place) {
+    if (j > 0) {
+      board.get(place).left = board.get(place - 1);
+      board.get(place - 1).right = board.get(place);
+    }
+    if (i > 0) {
+      board.get(place).top = board.get(place - length);
+      board.get(place - length).bottom = board.get(place);
+    }
+  }
+
+  // EFFECT: connects cells from this board in a such a way
+  // that represents a valid maze (minimum spanning tree)
+  void createMaze(ArrayList<Cell> board, int seed) {
+    int length = new ArrayListUtils().rowLength(board);
+    int height = board.size() / length;
+    KruskalGenerator kruskal = new KruskalGenerator();
+
+    for (int e : kruskal.spanningTree(length, height, seed)) {
+      Cell from = board.get(e >>> 1);
+      from.union(board.get(kruskal.to(e, length)));
+    }
+  }
+
+  // EFFECT: colors the cells of this board with the given names,
+  // such as a path found by a Search
+  void colorPath(ArrayList<Cell> board, int[] path, Color color) {
+    for (int name : path) {
+      board.get(name).changeColor(color);
+    }
+  }
+
+  // returns the number of cells in each row of this board
+  int rowLength(ArrayList<Cell> board) {
+    int length = 1;
+    Cell c = board.get(0);
+
+    while (c.right != null) {
+      c = c.right;
+      length = length + 1;
+    }
+    return length;
+  }
+
+}
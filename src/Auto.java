@@ -0,0 +1,11 @@
+// represents an automatic solution
+class Auto extends AState {
+  Auto() {
+  }
+
+  // is this auto state auto?
+  public boolean isAuto() {
+    return true;
+  }
+
+}
@@ -0,0 +1,55 @@
+import java.util.SplittableRandom;
+
+// generates mazes with the recursive backtracker: a random walk that only
+// steps into cells it has not been to, and backs up when it is stuck, until
+// it has backed all the way up to where it started
+//
+// the walk never recurses and keeps no stack. A cell has been visited when it
+// is open to a neighbor, which the grid already records, and the way back out
+// of each cell is kept in two bits per cell, so the only memory beyond the
+// grid itself is another quarter byte per cell
+class BacktrackerGenerator implements IGenerator {
+
+  // returns the MazeFile id of the recursive backtracker
+  public int algorithm() {
+    return MazeFile.BACKTRACKER;
+  }
+
+  // EFFECT: opens the edges of a random spanning tree of the given grid
+  public void generate(MazeGrid grid, long seed) {
+    GenerationEvent event = new GenerationEvent();
+    event.begin();
+    SplittableRandom random = new SplittableRandom(seed);
+    long[] back = MazeGrid.ways(grid.size());
+    int[] ways = new int[4];
+    int start = random.nextInt(grid.size());
+    int current = start;
+
+    while (true) {
+      int count = 0;
+      for (int way = 0; way < 4; way = way + 1) {
+        int next = grid.toward(current, way);
+        if (next != -1 && next != start && !grid.isJoined(next)) {
+          ways[count] = way;
+          count = count + 1;
+        }
+      }
+
+      if (count > 0) {
+        int way = ways[random.nextInt(count)];
+        int next = grid.toward(current, way);
+        grid.openToward(current, way);
+        MazeGrid.setWay(back, next, (way + 2) & 3);
+        current = next;
+      }
+      else if (current == start) {
+        event.record(this.algorithm(), grid.length, grid.height, seed, 0);
+        return;
+      }
+      else {
+        current = grid.toward(current, MazeGrid.wayOf(back, current));
+      }
+    }
+  }
+
+}
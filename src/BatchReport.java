@@ -0,0 +1,23 @@
+// represents how long it took to produce a number of mazes
+class BatchReport {
+  long mazes;
+  long nanos;
+
+  // constructor
+  BatchReport(long mazes, long nanos) {
+    this.mazes = mazes;
+    this.nanos = nanos;
+  }
+
+  // returns how many mazes were produced per second
+  double mazesPerSecond() {
+    return this.mazes / Math.max(this.nanos / 1e9, 1e-9);
+  }
+
+  // returns a one line summary of this report
+  public String toString() {
+    return String.format("%d mazes in %.3f s (%.1f mazes/s)", this.mazes, this.nanos / 1e9,
+        this.mazesPerSecond());
+  }
+
+}
@@ -0,0 +1,141 @@
+// represents a breadth first search through a MazeGrid that goes out from
+// the start and from the target at once, a step from each in turn, until the
+// two meet in the middle
+//
+// both halves share the seen marks and cameFrom of a Search: cells reached
+// from the start lead back to the start and cells reached from the target
+// lead back to the target, and fromTarget tells them apart. Every maze is a
+// spanning tree, so the first edge found between a cell of one half and a
+// cell of the other is on the only path between start and target, and the
+// path is the two halves read back from either end of that edge
+class BidirectionalSearch extends Search {
+  ICollection backward; // the worklist of cells reached from the target
+  long[] fromTarget;
+  boolean forward; // is the next step taken from the start?
+  int meetFrom; // where the halves met: a cell reached from the start,
+  int meetTo; // and the cell reached from the target next to it
+
+  // constructor: a bidirectional search of the given grid between start and target
+  BidirectionalSearch(MazeGrid grid, int start, int target) {
+    super(grid, new Queue(grid.size()), start, target);
+    this.backward = new Queue(grid.size());
+    this.fromTarget = new long[this.seen.length];
+    this.forward = true;
+
+    if (start == target) {
+      this.found = true;
+      this.meetFrom = start;
+      this.meetTo = start;
+    }
+    else {
+      this.seeFromTarget(target, target);
+      this.backward.add(target);
+    }
+    this.afterStep();
+  }
+
+  // returns the name of the kind of search this is
+  String algorithm() {
+    return "bidirectional";
+  }
+
+  // returns how many cells are waiting to be looked at by either half
+  int frontier() {
+    return this.worklist.size() + this.backward.size();
+  }
+
+  // returns how many cells are on the solution, or 0 if it has not been found
+  int pathLength() {
+    if (!this.found) {
+      return 0;
+    }
+    else if (this.meetFrom == this.meetTo) {
+      return 1;
+    }
+    else {
+      return this.countTo(this.meetFrom, this.start) + this.countTo(this.meetTo, this.target);
+    }
+  }
+
+  // was the given seen cell reached from the target?
+  boolean isFromTarget(int name) {
+    return (this.fromTarget[name >>> 6] & (1L << name)) != 0;
+  }
+
+  // EFFECT: marks the given cell as seen, reached from the target by way of
+  // the cell from
+  void seeFromTarget(int name, int from) {
+    this.see(name, from);
+    this.fromTarget[name >>> 6] = this.fromTarget[name >>> 6] | (1L << name);
+  }
+
+  // is this search over, because the halves met or one ran out of cells?
+  boolean isDone() {
+    return this.found || this.worklist.isEmpty() || this.backward.isEmpty();
+  }
+
+  // returns the cell looked at in this step
+  // EFFECT: takes that cell off the worklist of the half whose turn it is,
+  // adds every neighbor of it not yet seen to that worklist, and stops the
+  // search if a neighbor was seen by the other half
+  int step() {
+    ICollection worklist = this.worklist;
+    if (!this.forward) {
+      worklist = this.backward;
+    }
+    int name = worklist.remove();
+    this.expanded = this.expanded + 1;
+
+    int count = this.grid.neighbors(name, this.neighbors);
+    for (int k = 0; k < count; k = k + 1) {
+      int next = this.neighbors[k];
+      if (!this.isSeen(next)) {
+        if (this.forward) {
+          this.see(next, name);
+        }
+        else {
+          this.seeFromTarget(next, name);
+        }
+        worklist.add(next);
+      }
+      else if (this.isFromTarget(next) == this.forward) {
+        this.found = true;
+        this.meetFrom = name;
+        this.meetTo = next;
+        if (!this.forward) {
+          this.meetFrom = next;
+          this.meetTo = name;
+        }
+      }
+    }
+    this.forward = !this.forward;
+    this.afterStep();
+    return name;
+  }
+
+  // returns the names of the cells on the solution, from start to target:
+  // the half from the start to meetFrom, then the half from meetTo to the target
+  int[] path() {
+    if (!this.found) {
+      throw new IllegalArgumentException("Cell " + this.target + " has not been reached");
+    }
+    if (this.meetFrom == this.meetTo) {
+      return new int[] { this.start };
+    }
+    int head = this.countTo(this.meetFrom, this.start);
+    int[] path = new int[this.pathLength()];
+
+    int c = this.meetFrom;
+    for (int k = head - 1; k >= 0; k = k - 1) {
+      path[k] = c;
+      c = this.cameFrom[c];
+    }
+    c = this.meetTo;
+    for (int k = head; k < path.length; k = k + 1) {
+      path[k] = c;
+      c = this.cameFrom[c];
+    }
+    return path;
+  }
+
+}
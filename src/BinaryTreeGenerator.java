@@ -0,0 +1,55 @@
+import java.util.SplittableRandom;
+
+// generates mazes with the binary tree algorithm: every cell opens either its
+// right or its bottom edge, at random, except in the last column, where cells
+// can only open down, and the last row, where they can only open right. The
+// mazes are poor, with two long corridors along the bottom and right sides,
+// but no cell depends on any other, so they are as fast to make as mazes get
+//
+// the edges of 32 cells share a long of MazeGrid, a right bit then a down bit
+// for each cell, so one random long decides 32 cells at once: its down bits
+// are opened as they are, and each right bit is opened exactly when the down
+// bit next to it is not. The random longs come from a counter based stream,
+// a hash of the seed and the index of the long, so any part of the grid can
+// be made without making the rest
+class BinaryTreeGenerator implements IGenerator {
+  // returns the MazeFile id of the binary tree algorithm
+  public int algorithm() {
+    return MazeFile.BINARY_TREE;
+  }
+
+  // EFFECT: opens the edges of a random spanning tree of the given grid
+  public void generate(MazeGrid grid, long seed) {
+    GenerationEvent event = new GenerationEvent();
+    event.begin();
+    long key = new SplittableRandom(seed).nextLong();
+    int words = MazeGrid.words(grid.length, grid.height);
+
+    for (int w = 0; w < words; w = w + 1) {
+      long random = BinaryTreeGenerator.bits(key, w);
+      grid.setWord(w, (random & MazeGrid.DOWNS) | (~random >>> 1 & MazeGrid.RIGHTS));
+    }
+    grid.clearPast();
+
+    int last = grid.size() - 1;
+    for (int name = grid.length - 1; name < last; name = name + grid.length) {
+      grid.setEdges(name, 1 << KruskalGenerator.DOWN);
+    }
+    for (int name = last - grid.length + 1; name < last; name = name + 1) {
+      grid.setEdges(name, 1 << KruskalGenerator.RIGHT);
+    }
+    grid.setEdges(last, 0);
+    event.record(this.algorithm(), grid.length, grid.height, seed, 0);
+  }
+
+  // returns 64 random bits for the given counter of the stream with the
+  // given key, which are the same for the same key and counter (the
+  // SplitMix64 finalizer of their sum)
+  static long bits(long key, long counter) {
+    long z = key + counter * 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+}
@@ -0,0 +1,118 @@
+// represents which cells of a length x height maze are on screen, and how
+// many pixels wide each of them is drawn
+//
+// the camera shows a window of at most VIEW_LENGTH x VIEW_HEIGHT pixels,
+// starting from the cell in the given column and row. It never looks past the
+// edge of the maze, so while the whole maze does not fit, the window is
+// always full. Which cells are in it is worked out from their names, so
+// nothing ever has to look at the cells outside it
+//
+// zoomed out past MIN_CELL_SIZE, the window is cut into tiles of cellSize
+// pixels that each stand for a square of 2^level x 2^level cells, and the
+// camera only stops on tile boundaries. Below detail pixels per cell, walls
+// are too small to see, and a MazePyramid draws the tiles instead of cells
+class Camera {
+  static final int VIEW_LENGTH = 1000; // pixels
+  static final int VIEW_HEIGHT = 600;
+  static final int MIN_CELL_SIZE = 2; // a pixel of color and a pixel of wall
+  static final int MAX_CELL_SIZE = 128;
+  static final int DETAIL_SIZE = 4;
+
+  int length;
+  int height;
+  int cellSize; // how many pixels wide a tile is
+  int level; // a tile is 2^level cells wide
+  int detail; // the smallest cell size cells are drawn one by one at
+  int column; // the column of the leftmost cells shown
+  int row; // the row of the topmost cells shown
+
+  // constructor: a camera at the top left of the maze
+  Camera(int length, int height, int cellSize) {
+    if (cellSize < 1) {
+      throw new IllegalArgumentException("Cells must be at least one pixel, given " + cellSize);
+    }
+    this.length = length;
+    this.height = height;
+    this.cellSize = cellSize;
+    this.detail = DETAIL_SIZE;
+  }
+
+  // returns how many columns of cells are shown, counting ones that are
+  // partly cut off
+  int columns() {
+    return (int) Math.min(this.length,
+        (long) ((VIEW_LENGTH + this.cellSize - 1) / this.cellSize) << this.level);
+  }
+
+  // returns how many rows of cells are shown, counting ones that are
+  // partly cut off
+  int rows() {
+    return (int) Math.min(this.height,
+        (long) ((VIEW_HEIGHT + this.cellSize - 1) / this.cellSize) << this.level);
+  }
+
+  // is every cell of the maze shown?
+  boolean showsAll() {
+    return this.columns() == this.length && this.rows() == this.height;
+  }
+
+  // are cells drawn one by one, walls and all, rather than as tiles
+  // of a MazePyramid?
+  boolean isDetailed() {
+    return this.level == 0 && this.cellSize >= this.detail;
+  }
+
+  // is the cell with the given name shown?
+  boolean shows(int name) {
+    int column = name % this.length;
+    int row = name / this.length;
+    return column >= this.column && column < this.column + this.columns() && row >= this.row
+        && row < this.row + this.rows();
+  }
+
+  // EFFECT: moves this camera so the given column and row are at its top
+  // left, or as close as it can without looking past the edge of the maze,
+  // on a tile boundary
+  void moveTo(long column, long row) {
+    int tile = -(1 << this.level);
+    this.column = (int) Math.max(0, Math.min(this.length - this.columns(), column)) & tile;
+    this.row = (int) Math.max(0, Math.min(this.height - this.rows(), row)) & tile;
+  }
+
+  // EFFECT: moves this camera the given number of columns right and rows down
+  void pan(int columns, int rows) {
+    this.moveTo((long) this.column + columns, (long) this.row + rows);
+  }
+
+  // EFFECT: doubles the size cells are drawn at if in is true, and halves
+  // it otherwise, up to MAX_CELL_SIZE and down to MIN_CELL_SIZE, then
+  // twice as many cells per tile until the whole maze is shown, keeping the
+  // cell in the middle of the window where it is
+  void zoom(boolean in) {
+    int middleColumn = this.column + this.columns() / 2;
+    int middleRow = this.row + this.rows() / 2;
+
+    if (in && this.level > 0) {
+      this.level = this.level - 1;
+    }
+    else if (in && this.cellSize < MAX_CELL_SIZE) {
+      this.cellSize = Math.min(MAX_CELL_SIZE, this.cellSize * 2);
+    }
+    else if (!in && this.cellSize > MIN_CELL_SIZE) {
+      this.cellSize = Math.max(MIN_CELL_SIZE, this.cellSize / 2);
+    }
+    else if (!in && !this.showsAll()) {
+      this.level = this.level + 1;
+    }
+    this.moveTo(middleColumn - this.columns() / 2, middleRow - this.rows() / 2);
+  }
+
+  // EFFECT: moves this camera to put the cell with the given name in the
+  // middle of the window, if it is not shown already
+  void follow(int name) {
+    if (!this.shows(name)) {
+      this.moveTo(name % this.length - this.columns() / 2, name / this.length - this.rows() / 2);
+    }
+  }
+
+}
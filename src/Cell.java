@@ -0,0 +1,148 @@
+import java.util.ArrayList;
+import javalib.impworld.*;
+import java.awt.Color;
+import javalib.worldimages.*;
+
+//Represents a single square of the game area
+class Cell {
+  int name;
+  int x;
+  int y;
+  Color color;
+  Cell left;
+  Cell top;
+  Cell right;
+  Cell bottom;
+  boolean leftEdge;
+  boolean topEdge;
+  boolean rightEdge;
+  boolean bottomEdge;
+
+  // constructor
+  Cell(int name, int x, int y, Color color, Cell left, Cell top, Cell right, Cell bottom,
+      boolean leftEdge, boolean topEdge, boolean rightEdge, boolean bottomEdge) {
+    this.name = name;
+    this.x = x;
+    this.y = y;
+    this.color = color;
+    this.left = left;
+    this.top = top;
+    this.right = right;
+    this.bottom = bottom;
+    this.leftEdge = leftEdge;
+    this.topEdge = topEdge;
+    this.rightEdge = rightEdge;
+    this.bottomEdge = bottomEdge;
+  }
+
+  // convenience constructor
+  Cell(int name, int x, int y) {
+    this.name = name;
+    this.x = x;
+    this.y = y;
+    this.color = Color.gray;
+    this.left = null;
+    this.top = null;
+    this.right = null;
+    this.bottom = null;
+    this.leftEdge = false;
+    this.topEdge = false;
+    this.rightEdge = false;
+    this.bottomEdge = false;
+  }
+
+  // EFFECT: draws this single cell
+  void drawCell(WorldScene ws, int cellSize) {
+    WorldImage cellImage = new RectangleImage(cellSize, cellSize, OutlineMode.SOLID, this.color);
+    cellImage = cellImage.movePinholeTo(new Posn(0, 0));
+    if (!leftEdge) {
+      cellImage = new OverlayImage(new LineImage(new Posn(0, cellSize), Color.BLACK)
+          .movePinholeTo(new Posn(cellSize / 2, 0)), cellImage);
+    }
+    if (!topEdge) {
+      cellImage = new OverlayImage(
+          new LineImage(new Posn(cellSize, 0), Color.BLACK).movePinhole(0, cellSize / 2),
+          cellImage);
+    }
+    if (!rightEdge) {
+      cellImage = new OverlayImage(
+          new LineImage(new Posn(0, cellSize), Color.BLACK).movePinhole(-cellSize / 2 + 1, 0),
+          cellImage);
+    }
+    if (!bottomEdge) {
+      cellImage = new OverlayImage(
+          new LineImage(new Posn(cellSize, 0), Color.BLACK).movePinhole(0, -cellSize / 2 + 1),
+          cellImage);
+    }
+    ws.placeImageXY(cellImage, this.x, this.y);
+  }
+
+  // EFFECT: changes color field of this Cell to that Color
+  void changeColor(Color that) {
+    this.color = that;
+  }
+
+  // EFFECT: opens the border between this cell and the given cell
+  // assume "to cell" is either to the right or below this cell
+  void union(Cell to) {
+    if (this.right == to) {
+      this.rightEdge = true;
+      to.leftEdge = true;
+    }
+    else {
+      this.bottomEdge = true;
+      to.topEdge = true;
+    }
+  }
+
+  // returns the cells that is possible to travel to from this cell
+  ArrayList<Cell> neighbors() {
+    ArrayList<Cell> listOfNeighbors = new ArrayList<Cell>();
+
+    if (this.topEdge) {
+      listOfNeighbors.add(this.top);
+    }
+    if (this.leftEdge) {
+      listOfNeighbors.add(this.left);
+    }
+    if (this.bottomEdge) {
+      listOfNeighbors.add(this.bottom);
+    }
+    if (this.rightEdge) {
+      listOfNeighbors.add(this.right);
+    }
+    return listOfNeighbors;
+  }
+
+  // returns the cell in the direction indicated by the key
+  Cell findNext(String key) {
+    Cell next = null;
+
+    if ("left".equals(key)) {
+      next = this.left;
+    }
+    else if ("right".equals(key)) {
+      next = this.right;
+    }
+    else if ("up".equals(key)) {
+      next = this.top;
+    }
+    else if ("down".equals(key)) {
+      next = this.bottom;
+    }
+    if (this.isOpenTo(next)) {
+      return next;
+    }
+    else {
+      return null;
+    }
+  }
+
+  // is it possible to travel from this cell to the given cell?
+  boolean isOpenTo(Cell that) {
+    return that != null
+        && ((that == this.top && this.topEdge) || (that == this.left && this.leftEdge)
+            || (that == this.bottom && this.bottomEdge) || (that == this.right && this.rightEdge));
+  }
+
+}
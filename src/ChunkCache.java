@@ -0,0 +1,155 @@
+// a map from the positions of chunks to their walls that holds at most
+// capacity of them, and forgets the one used longest ago when it would
+// hold more
+//
+// the chunks are kept in slots 0 to capacity - 1 of parallel arrays, which
+// also link them into a list from the one used most recently to the one used
+// longest ago. A table of twice capacity, or more, finds the slot of a
+// position by open addressing: it holds slot + 1 at the first free place
+// from the position's hash, and 0 where it is free, so positions stay longs
+// and nothing is made per lookup
+class ChunkCache {
+  static final long SPREAD = 0x9E3779B97F4A7C15L; // 2^64 over the golden ratio
+
+  int capacity;
+  int evicted; // how many chunks have been forgotten
+  int count; // how many slots are in use
+  long[] positions; // by slot
+  MazeGrid[] grids;
+  int[] newer; // the slot used just after each slot, or -1
+  int[] older; // the slot used just before each slot, or -1
+  int newest; // the slot used most recently, or -1 when empty
+  int oldest; // the slot used longest ago, or -1 when empty
+  int[] table;
+  int mask; // table.length - 1
+
+  // constructor
+  ChunkCache(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive, given " + capacity);
+    }
+    this.capacity = capacity;
+    this.positions = new long[capacity];
+    this.grids = new MazeGrid[capacity];
+    this.newer = new int[capacity];
+    this.older = new int[capacity];
+    this.newest = -1;
+    this.oldest = -1;
+    int places = Integer.highestOneBit(capacity) * 4;
+    this.table = new int[places];
+    this.mask = places - 1;
+  }
+
+  // returns how many chunks are held
+  int size() {
+    return this.count;
+  }
+
+  // returns the place in the table the search for the given position starts at
+  int home(long position) {
+    return (int) ((position * SPREAD) >>> 32) & this.mask;
+  }
+
+  // returns the place in the table of the given position, or of the free
+  // place where it would go if it is not held
+  int placeOf(long position) {
+    int place = this.home(position);
+    while (this.table[place] != 0 && this.positions[this.table[place] - 1] != position) {
+      place = (place + 1) & this.mask;
+    }
+    return place;
+  }
+
+  // is the chunk at the given position held?
+  boolean containsKey(long position) {
+    return this.table[this.placeOf(position)] != 0;
+  }
+
+  // returns the walls of the chunk at the given position, or null if it
+  // is not held
+  // EFFECT: makes it the chunk used most recently
+  MazeGrid get(long position) {
+    int slot = this.table[this.placeOf(position)] - 1;
+    if (slot == -1) {
+      return null;
+    }
+    this.unlink(slot);
+    this.linkNewest(slot);
+    return this.grids[slot];
+  }
+
+  // EFFECT: holds the given walls for the chunk at the given position, as
+  // the chunk used most recently, forgetting the one used longest ago if
+  // this cache is full
+  void put(long position, MazeGrid grid) {
+    int place = this.placeOf(position);
+    int slot = this.table[place] - 1;
+
+    if (slot != -1) {
+      this.unlink(slot);
+    }
+    else if (this.count < this.capacity) {
+      slot = this.count;
+      this.count = this.count + 1;
+      this.table[place] = slot + 1;
+    }
+    else {
+      slot = this.oldest;
+      this.unlink(slot);
+      this.free(this.placeOf(this.positions[slot]));
+      this.evicted = this.evicted + 1;
+      this.table[this.placeOf(position)] = slot + 1;
+    }
+    this.positions[slot] = position;
+    this.grids[slot] = grid;
+    this.linkNewest(slot);
+  }
+
+  // EFFECT: frees the given place in the table, moving back the places after
+  // it that could not go where they belong while it was taken, so every
+  // search still reaches its position before a free place
+  void free(int place) {
+    int hole = place;
+    int next = (hole + 1) & this.mask;
+
+    while (this.table[next] != 0) {
+      int home = this.home(this.positions[this.table[next] - 1]);
+      if (((next - home) & this.mask) >= ((next - hole) & this.mask)) {
+        this.table[hole] = this.table[next];
+        hole = next;
+      }
+      next = (next + 1) & this.mask;
+    }
+    this.table[hole] = 0;
+  }
+
+  // EFFECT: takes the given slot out of the list from newest to oldest
+  void unlink(int slot) {
+    if (this.newer[slot] == -1) {
+      this.newest = this.older[slot];
+    }
+    else {
+      this.older[this.newer[slot]] = this.older[slot];
+    }
+    if (this.older[slot] == -1) {
+      this.oldest = this.newer[slot];
+    }
+    else {
+      this.newer[this.older[slot]] = this.newer[slot];
+    }
+  }
+
+  // EFFECT: puts the given slot, which is in no list, at the newest end
+  void linkNewest(int slot) {
+    this.newer[slot] = -1;
+    this.older[slot] = this.newest;
+    if (this.newest == -1) {
+      this.oldest = slot;
+    }
+    else {
+      this.newer[this.newest] = slot;
+    }
+    this.newest = slot;
+  }
+
+}
@@ -0,0 +1,75 @@
+import java.io.IOException;
+import java.io.OutputStream;
+
+// writes rows to an OutputStream as one continuous stream of edge bits,
+// two per cell, least significant bit first, which is the bytes of the
+// longs of a MazeGrid written in little-endian order
+class EdgeStreamWriter implements IRowSink {
+  OutputStream out;
+  int length;
+  byte[] buffer;
+  int buffered; // bytes in the buffer
+  long bits; // bits not yet in the buffer
+  int bitCount;
+
+  // constructor
+  EdgeStreamWriter(OutputStream out, int length) {
+    this.out = out;
+    this.length = length;
+    this.buffer = new byte[1 << 16];
+  }
+
+  // EFFECT: writes the edge bits of the given row
+  public void acceptRow(long row, long[] rowEdges) throws IOException {
+    int remaining = 2 * this.length;
+
+    for (int k = 0; remaining > 0; k = k + 1) {
+      int count = Math.min(64, remaining);
+      this.writeBits(rowEdges[k], count);
+      remaining = remaining - count;
+    }
+  }
+
+  // EFFECT: writes the lowest count bits of the given word
+  void writeBits(long word, int count) throws IOException {
+    if (count < 64) {
+      word = word & ((1L << count) - 1);
+    }
+    this.bits = this.bits | (word << this.bitCount);
+    int taken = Math.min(count, 64 - this.bitCount);
+    this.bitCount = this.bitCount + taken;
+
+    if (this.bitCount == 64) {
+      this.writeLong(this.bits);
+      // the bits of word that did not fit
+      this.bits = taken == 64 ? 0 : word >>> taken;
+      this.bitCount = count - taken;
+    }
+  }
+
+  // EFFECT: writes the given long in little-endian order
+  void writeLong(long word) throws IOException {
+    if (this.buffered + 8 > this.buffer.length) {
+      this.out.write(this.buffer, 0, this.buffered);
+      this.buffered = 0;
+    }
+    for (int b = 0; b < 8; b = b + 1) {
+      this.buffer[this.buffered] = (byte) (word >>> (8 * b));
+      this.buffered = this.buffered + 1;
+    }
+  }
+
+  // EFFECT: writes out the last partial long, padded with zeros, and
+  // everything still buffered, then flushes the stream
+  void finish() throws IOException {
+    if (this.bitCount > 0) {
+      this.writeLong(this.bits);
+      this.bits = 0;
+      this.bitCount = 0;
+    }
+    this.out.write(this.buffer, 0, this.buffered);
+    this.buffered = 0;
+    this.out.flush();
+  }
+
+}
@@ -0,0 +1,134 @@
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// generates mazes one row at a time with Eller's algorithm, so only the
+// current row is ever in memory and the height of the maze is unlimited
+//
+// the cells of the current row that are connected through the rows above
+// form sets. Each set is kept as a circular list of its columns in
+// increasing order, through the arrays left and right. Sets in a row never
+// cross each other, so two neighboring columns j and j + 1 are in the same
+// set exactly when right[j] == j + 1, and joining or leaving a set only
+// relinks a couple of entries
+//
+// finished rows are handed to an IRowSink as a long[] with the same packing
+// as MazeGrid, for a grid that is one row tall
+//
+//   java EllerGenerator <length> <height> <seed> <outputFile>
+//
+// streams a maze of any height straight to a file in the MazeFile format
+class EllerGenerator {
+  static final int RIGHT = MazeGrid.RIGHT;
+  static final int DOWN = MazeGrid.DOWN;
+
+  int length;
+  int[] left;
+  int[] right;
+  long[] rowEdges;
+
+  // constructor
+  EllerGenerator(int length) {
+    if (length < 1 || length > Integer.MAX_VALUE / 2) {
+      throw new IllegalArgumentException("A row needs between 1 and " + Integer.MAX_VALUE / 2
+          + " cells, given " + length);
+    }
+    this.length = length;
+    this.left = new int[length];
+    this.right = new int[length];
+    this.rowEdges = new long[(int) ((2L * length + 63) >>> 6)];
+  }
+
+  // EFFECT: generates a perfect maze of the given height and passes its rows
+  // to the given sink, top to bottom, the same rows for the same seed
+  void generate(long height, long seed, IRowSink sink) throws IOException {
+    GenerationEvent event = new GenerationEvent();
+    event.begin();
+    SplittableRandom rand = new SplittableRandom(seed);
+
+    // every cell of the first row starts in a set of its own
+    for (int j = 0; j < this.length; j = j + 1) {
+      this.left[j] = j;
+      this.right[j] = j;
+    }
+
+    for (long row = 0; row < height; row = row + 1) {
+      Arrays.fill(this.rowEdges, 0L);
+
+      if (row < height - 1) {
+        this.joinRow(rand, false);
+        this.carveDown(rand);
+      }
+      else {
+        // the last row joins every set that is left
+        this.joinRow(rand, true);
+      }
+      sink.acceptRow(row, this.rowEdges);
+    }
+    event.record(MazeFile.ELLER, this.length, height, seed, 0);
+  }
+
+  // EFFECT: opens the right edges of some cells in the current row whose
+  // neighbor is in a different set, or all of them if everything is true
+  void joinRow(SplittableRandom rand, boolean everything) {
+    for (int j = 0; j < this.length - 1; j = j + 1) {
+      if (this.right[j] != j + 1 && (everything || rand.nextBoolean())) {
+        // splice the two circular lists together
+        this.right[this.left[j + 1]] = this.right[j];
+        this.left[this.right[j]] = this.left[j + 1];
+        this.right[j] = j + 1;
+        this.left[j + 1] = j;
+        this.open(j, EllerGenerator.RIGHT);
+      }
+    }
+  }
+
+  // EFFECT: opens the bottom edges of some cells in the current row, at
+  // least one in every set, and puts the cells below the closed ones
+  // in sets of their own
+  void carveDown(SplittableRandom rand) {
+    for (int j = 0; j < this.length; j = j + 1) {
+      // a cell that is alone in its set is the last chance to carve that set down
+      if (this.right[j] != j && rand.nextBoolean()) {
+        this.left[this.right[j]] = this.left[j];
+        this.right[this.left[j]] = this.right[j];
+        this.left[j] = j;
+        this.right[j] = j;
+      }
+      else {
+        this.open(j, EllerGenerator.DOWN);
+      }
+    }
+  }
+
+  // EFFECT: opens the edge of the given column of the current row
+  // in the given direction
+  void open(int column, int direction) {
+    int edge = (column << 1) | direction;
+    this.rowEdges[edge >>> 6] = this.rowEdges[edge >>> 6] | (1L << edge);
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 4) {
+      System.err.println("usage: java EllerGenerator <length> <height> <seed> <outputFile>");
+      System.exit(2);
+    }
+    int length = Integer.parseInt(args[0]);
+    long height = Long.parseLong(args[1]);
+    long start = System.nanoTime();
+
+    long seed = Long.parseLong(args[2]);
+
+    try (FileOutputStream out = new FileOutputStream(args[3])) {
+      new MazeFile().writeHeader(out, length, height, seed, MazeFile.ELLER);
+      EdgeStreamWriter writer = new EdgeStreamWriter(out, length);
+      new EllerGenerator(length).generate(height, seed, writer);
+      writer.finish();
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    System.out.println(String.format("%d x %d cells in %.3f s (%.1f Mcells/s)", length, height,
+        seconds, length * (double) height / seconds / 1e6));
+  }
+
+}
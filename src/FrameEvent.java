@@ -0,0 +1,15 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// records building one frame of the game
+@Name("maze.Frame")
+@Label("Maze Frame")
+@Category("Maze")
+@Description("Building the scene for one frame")
+class FrameEvent extends Event {
+  @Label("Cells Drawn")
+  int cellsDrawn;
+}
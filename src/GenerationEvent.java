@@ -0,0 +1,53 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// the Java Flight Recorder events of making, solving and drawing mazes are
+// this GenerationEvent, SolveEvent and FrameEvent
+//
+//   java -XX:StartFlightRecording=filename=maze.jfr Maze...
+//   jfr print --events maze.Generation,maze.Solve,maze.Frame maze.jfr
+//
+// each event times itself from begin to commit. An event is one small object
+// for a whole maze, search or frame, never one per cell or step, and when no
+// recording is running commit returns at once, so they are always on
+
+// records making one maze
+@Name("maze.Generation")
+@Label("Maze Generation")
+@Category("Maze")
+@Description("Making one maze with one of the generators")
+class GenerationEvent extends Event {
+  @Label("Algorithm")
+  @Description("The MazeFile id of the way the maze was made")
+  int algorithm;
+
+  @Label("Length")
+  int length;
+
+  @Label("Height")
+  long height;
+
+  @Label("Seed")
+  long seed;
+
+  @Label("Edges Rejected")
+  @Description("Edges union-find turned down because they joined connected cells, "
+      + "or 0 for generators that never turn an edge down")
+  int rejected;
+
+  // EFFECT: ends this event for making a maze of the given dimensions with
+  // the given algorithm and seed, and commits it if it is being recorded
+  void record(int algorithm, int length, long height, long seed, int rejected) {
+    if (this.shouldCommit()) {
+      this.algorithm = algorithm;
+      this.length = length;
+      this.height = height;
+      this.seed = seed;
+      this.rejected = rejected;
+      this.commit();
+    }
+  }
+}
@@ -0,0 +1,24 @@
+// copies rows into a MazeGrid
+class GridRowSink implements IRowSink {
+  MazeGrid grid;
+
+  // constructor
+  GridRowSink(MazeGrid grid) {
+    this.grid = grid;
+  }
+
+  // EFFECT: opens the edges of the given row in the grid
+  public void acceptRow(long row, long[] rowEdges) {
+    int first = (int) row * this.grid.length;
+
+    for (int j = 0; j < this.grid.length; j = j + 1) {
+      for (int direction = 0; direction < 2; direction = direction + 1) {
+        int edge = (j << 1) | direction;
+        if ((rowEdges[edge >>> 6] & (1L << edge)) != 0) {
+          this.grid.open(((first + j) << 1) | direction);
+        }
+      }
+    }
+  }
+
+}
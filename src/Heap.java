@@ -0,0 +1,102 @@
+import java.util.NoSuchElementException;
+
+// represents a binary min-heap of the names below capacity, ordered by the
+// priority set for each name before it is added
+//
+// slots records where each name is in contents, so a name already in
+// the heap whose priority was lowered moves up when it is added again,
+// and the heap never holds more than capacity names
+class Heap implements ICollection {
+  int[] contents; // no name has a lower priority than the name at (k - 1) / 2
+  int[] slots; // one more than the index of each name in contents, or 0
+  int[] priority;
+  int size;
+
+  Heap(int capacity) {
+    this.contents = new int[capacity];
+    this.slots = new int[capacity];
+    this.priority = new int[capacity];
+  }
+
+  // is this heap empty?
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  // returns how many names are in the heap
+  public int size() {
+    return this.size;
+  }
+
+  // Returns the name with the lowest priority in the heap
+  // EFFECT: removes that name
+  public int remove() {
+    if (this.size == 0) {
+      throw new NoSuchElementException("The heap is empty");
+    }
+    int name = this.contents[0];
+    this.slots[name] = 0;
+    this.size = this.size - 1;
+
+    if (this.size > 0) {
+      this.place(this.contents[this.size], 0);
+      this.siftDown(0);
+    }
+    return name;
+  }
+
+  // EFFECT: adds the name to the heap, or moves it up if it is already there
+  public void add(int name) {
+    if (this.slots[name] != 0) {
+      this.siftUp(this.slots[name] - 1);
+    }
+    else {
+      this.place(name, this.size);
+      this.size = this.size + 1;
+      this.siftUp(this.size - 1);
+    }
+  }
+
+  // EFFECT: puts the given name at the given index of contents
+  void place(int name, int index) {
+    this.contents[index] = name;
+    this.slots[name] = index + 1;
+  }
+
+  // EFFECT: swaps the name at the given index with its parent
+  // until its parent has no higher priority
+  void siftUp(int index) {
+    int name = this.contents[index];
+
+    while (index > 0) {
+      int parent = (index - 1) >>> 1;
+      if (this.priority[this.contents[parent]] <= this.priority[name]) {
+        break;
+      }
+      this.place(this.contents[parent], index);
+      index = parent;
+    }
+    this.place(name, index);
+  }
+
+  // EFFECT: swaps the name at the given index with its lower child
+  // until neither child has a lower priority
+  void siftDown(int index) {
+    int name = this.contents[index];
+
+    while (2 * index + 1 < this.size) {
+      int child = 2 * index + 1;
+      if (child + 1 < this.size
+          && this.priority[this.contents[child + 1]] < this.priority[this.contents[child]]) {
+        child = child + 1;
+      }
+      if (this.priority[name] <= this.priority[this.contents[child]]) {
+        break;
+      }
+      this.place(this.contents[child], index);
+      index = child;
+    }
+    this.place(name, index);
+  }
+
+}
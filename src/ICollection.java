@@ -0,0 +1,16 @@
+//Represents a mutable collection of cell names
+interface ICollection {
+  // Is this collection empty?
+  boolean isEmpty();
+
+  // EFFECT: adds the name to the collection
+  void add(int name);
+
+  // Returns the first name of the collection
+  // EFFECT: removes that first name
+  int remove();
+
+  // returns how many names are in the collection
+  int size();
+
+}
@@ -0,0 +1,10 @@
+// a way of opening the edges of a random spanning tree of a MazeGrid
+interface IGenerator {
+  // EFFECT: opens the edges of a random spanning tree of the given grid,
+  // whose walls are all closed, the same edges for the same seed
+  void generate(MazeGrid grid, long seed);
+
+  // returns the MazeFile id of this way of making mazes
+  int algorithm();
+
+}
@@ -0,0 +1,7 @@
+import java.io.IOException;
+
+// something that takes mazes as they are generated
+interface IMazeSink {
+  // EFFECT: takes the maze generated from the given seed
+  void accept(long seed, MazeGrid grid) throws IOException;
+}
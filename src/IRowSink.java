@@ -0,0 +1,8 @@
+import java.io.IOException;
+
+// something that takes the rows of a maze as they are generated
+interface IRowSink {
+  // EFFECT: takes the given row, whose edges are packed like a MazeGrid
+  // one row tall; the array is reused for the next row
+  void acceptRow(long row, long[] rowEdges) throws IOException;
+}
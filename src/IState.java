@@ -0,0 +1,13 @@
+// represents the 3 states in our game
+interface IState {
+
+  // is this state auto?
+  boolean isAuto();
+
+  // is this state manual?
+  boolean isManual();
+
+  // is this state at rest?
+  boolean isRest();
+
+}
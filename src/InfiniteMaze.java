@@ -0,0 +1,205 @@
+import java.util.SplittableRandom;
+
+// represents a maze that covers the whole plane, made a chunk at a time as
+// it is looked at and forgotten again when it has not been for a while
+//
+// the plane is cut into chunks of chunkSize x chunkSize cells, and the cell
+// in column x and row y, either of which can be negative, is in chunk
+// (floor(x / chunkSize), floor(y / chunkSize)). Each chunk is its own perfect
+// maze, made by the generator from a hash of the seed and the chunk's
+// position, so it comes out the same every time it is made
+//
+// chunks are joined by doors, each one cell wide, through the walls between
+// them, and which walls have a door, and where, are hashes of the seed too,
+// so doors are worked out and never stored. The chunks are grouped into
+// blocks of 2 x 2 chunks, those into blocks of 2 x 2 blocks, and so on,
+// with chunk columns and rows counted from -2^31 so that one block of
+// 2^32 x 2^32 chunks covers them all. The four quarters of every block are
+// joined by doors through three of the four walls between them, one door
+// each, which is a spanning tree of the quarters. By induction every block
+// is a perfect maze, the whole plane too, and the way between two cells
+// never leaves the smallest block that holds them both
+//
+// made chunks are kept in a ChunkCache of at most capacity chunks, which
+// forgets the one used longest ago to make room for another
+class InfiniteMaze {
+  static final int CHUNK_SIZE = 64;
+  static final int CAPACITY = 256; // 1 MB of chunks of CHUNK_SIZE
+
+  long seed;
+  long key; // where the hashes of chunks start, made from the seed
+  long doorKey; // where the hashes of blocks start
+  int chunkSize;
+  IGenerator generator;
+  ChunkCache chunks;
+  int generated; // how many chunks have been made, counting ones made again
+  long lastChunk; // the position of the chunk asked for last
+  MazeGrid lastGrid; // its walls, or null before any chunk is asked for
+
+  // constructor: the plane with the given seed, with chunks of CHUNK_SIZE
+  // made by Kruskal's algorithm
+  InfiniteMaze(long seed) {
+    this(seed, CHUNK_SIZE, CAPACITY, new KruskalGenerator());
+  }
+
+  // constructor
+  InfiniteMaze(long seed, int chunkSize, int capacity, IGenerator generator) {
+    if (chunkSize < 1 || capacity < 1) {
+      throw new IllegalArgumentException("Chunk size and capacity must be positive, given "
+          + chunkSize + " and " + capacity);
+    }
+    this.seed = seed;
+    SplittableRandom random = new SplittableRandom(seed);
+    this.key = random.nextLong();
+    this.doorKey = random.nextLong();
+    this.chunkSize = chunkSize;
+    this.generator = generator;
+    this.chunks = new ChunkCache(capacity);
+  }
+
+  // returns the given chunk column and row packed into one long
+  static long position(int cx, int cy) {
+    return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+  }
+
+  // returns the column or row of the chunk the given cell column or row is in
+  int chunkOf(long xy) {
+    return (int) Math.floorDiv(xy, (long) this.chunkSize);
+  }
+
+  // returns where in its chunk the given cell column or row is
+  int within(long xy) {
+    return (int) Math.floorMod(xy, (long) this.chunkSize);
+  }
+
+  // returns the seed the given chunk is made from
+  long chunkSeed(int cx, int cy) {
+    return BinaryTreeGenerator.bits(this.key, InfiniteMaze.position(cx, cy));
+  }
+
+  // does the given wall of the block in column bx and row by of blocks
+  // 2^(level + 1) chunks on a side have its door at the given number of
+  // chunks along it? The walls are between the two top quarters, 0, the two
+  // bottom quarters, 1, the two left quarters, 2, and the two right
+  // quarters, 3; one of them, picked by the block's hash, has no door
+  boolean isDoor(int level, long bx, long by, int wall, long along) {
+    long hash = BinaryTreeGenerator.bits(BinaryTreeGenerator.bits(this.doorKey, level),
+        (bx << 32) | by);
+    if ((hash & 3) == wall) {
+      return false;
+    }
+    return (BinaryTreeGenerator.bits(hash, wall) & ((1L << level) - 1)) == along;
+  }
+
+  // returns the column, within the given chunk, of the door in its bottom
+  // wall, or -1 if it has none
+  int bottomDoor(int cx, int cy) {
+    long ux = cx + (1L << 31);
+    long uy = cy + (1L << 31);
+    // the rows of chunks on either side first meet in a block of level + 1
+    int level = Long.numberOfTrailingZeros(uy + 1);
+    if (level >= 32
+        || !this.isDoor(level, ux >>> (level + 1), uy >>> (level + 1),
+            2 + (int) ((ux >>> level) & 1), ux & ((1L << level) - 1))) {
+      return -1;
+    }
+    long random = BinaryTreeGenerator.bits(this.chunkSeed(cx, cy), 1) >>> 32;
+    return (int) ((random * this.chunkSize) >>> 32);
+  }
+
+  // returns the row, within the given chunk, of the door in its right
+  // wall, or -1 if it has none
+  int rightDoor(int cx, int cy) {
+    long ux = cx + (1L << 31);
+    long uy = cy + (1L << 31);
+    int level = Long.numberOfTrailingZeros(ux + 1);
+    if (level >= 32
+        || !this.isDoor(level, ux >>> (level + 1), uy >>> (level + 1),
+            (int) ((uy >>> level) & 1), uy & ((1L << level) - 1))) {
+      return -1;
+    }
+    long random = BinaryTreeGenerator.bits(this.chunkSeed(cx, cy), 1) & 0xFFFFFFFFL;
+    return (int) ((random * this.chunkSize) >>> 32);
+  }
+
+  // returns the walls inside the given chunk, made again if it has
+  // been forgotten
+  // EFFECT: makes it the chunk used most recently
+  MazeGrid chunk(int cx, int cy) {
+    long position = InfiniteMaze.position(cx, cy);
+    if (this.lastGrid != null && position == this.lastChunk) {
+      return this.lastGrid;
+    }
+
+    MazeGrid grid = this.chunks.get(position);
+    if (grid == null) {
+      grid = new MazeGrid(this.chunkSize, this.chunkSize);
+      this.generator.generate(grid, this.chunkSeed(cx, cy));
+      this.generated = this.generated + 1;
+      this.chunks.put(position, grid);
+    }
+    this.lastChunk = position;
+    this.lastGrid = grid;
+    return grid;
+  }
+
+  // can you travel from the given cell to the cell on its right?
+  boolean hasRightEdge(long x, long y) {
+    int lx = this.within(x);
+    int ly = this.within(y);
+
+    if (lx < this.chunkSize - 1) {
+      return this.chunk(this.chunkOf(x), this.chunkOf(y)).hasRightEdge(ly * this.chunkSize
+          + lx);
+    }
+    else {
+      return this.rightDoor(this.chunkOf(x), this.chunkOf(y)) == ly;
+    }
+  }
+
+  // can you travel from the given cell to the cell below it?
+  boolean hasBottomEdge(long x, long y) {
+    int lx = this.within(x);
+    int ly = this.within(y);
+
+    if (ly < this.chunkSize - 1) {
+      return this.chunk(this.chunkOf(x), this.chunkOf(y)).hasBottomEdge(ly * this.chunkSize
+          + lx);
+    }
+    else {
+      return this.bottomDoor(this.chunkOf(x), this.chunkOf(y)) == lx;
+    }
+  }
+
+  // can you travel from the given cell to the cell on its left?
+  boolean hasLeftEdge(long x, long y) {
+    return this.hasRightEdge(x - 1, y);
+  }
+
+  // can you travel from the given cell to the cell above it?
+  boolean hasTopEdge(long x, long y) {
+    return this.hasBottomEdge(x, y - 1);
+  }
+
+  // returns the length x height part of the plane whose top left cell is in
+  // column x and row y, as a grid whose cell in column j of row i is the
+  // cell in column x + j of row y + i of the plane. Walls leading out of
+  // the part are left closed, so it can come apart into several pieces
+  MazeGrid region(long x, long y, int length, int height) {
+    MazeGrid region = new MazeGrid(length, height);
+
+    for (int i = 0; i < height; i = i + 1) {
+      for (int j = 0; j < length; j = j + 1) {
+        int name = i * length + j;
+        if (j < length - 1 && this.hasRightEdge(x + j, y + i)) {
+          region.open((name << 1) | MazeGrid.RIGHT);
+        }
+        if (i < height - 1 && this.hasBottomEdge(x + j, y + i)) {
+          region.open((name << 1) | MazeGrid.DOWN);
+        }
+      }
+    }
+    return region;
+  }
+
+}
@@ -0,0 +1,112 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// generates mazes with Kruskal's algorithm over a grid of cells
+// named row by row, so the cell in column j of row i is named i * length + j
+//
+// every edge is packed into a single int as (name << 1) | direction, where
+// direction RIGHT joins a cell to the cell on its right and direction DOWN
+// joins it to the cell below it
+class KruskalGenerator implements IGenerator {
+  static final int RIGHT = 0;
+  static final int DOWN = 1;
+
+  int rejected; // how many edges the last chooseEdges turned down
+
+  // returns the packed edges of a random spanning tree of a grid
+  // with the given dimensions, the same edges for the same seed
+  int[] spanningTree(int length, int height, long seed) {
+    GenerationEvent event = new GenerationEvent();
+    event.begin();
+    int[] edges = this.allEdges(length, height);
+    this.shuffle(edges, new SplittableRandom(seed));
+    int[] tree = Arrays.copyOf(edges, this.chooseEdges(edges, length, height));
+    event.record(this.algorithm(), length, height, seed, this.rejected);
+    return tree;
+  }
+
+  // EFFECT: opens the edges of a random spanning tree of the given grid,
+  // the same edges as spanningTree for the same seed
+  public void generate(MazeGrid grid, long seed) {
+    GenerationEvent event = new GenerationEvent();
+    event.begin();
+    int[] edges = this.allEdges(grid.length, grid.height);
+    this.shuffle(edges, new SplittableRandom(seed));
+    int numEdges = this.chooseEdges(edges, grid.length, grid.height);
+
+    for (int k = 0; k < numEdges; k = k + 1) {
+      grid.open(edges[k]);
+    }
+    event.record(this.algorithm(), grid.length, grid.height, seed, this.rejected);
+  }
+
+  // returns the MazeFile id of Kruskal's algorithm
+  public int algorithm() {
+    return MazeFile.KRUSKAL;
+  }
+
+  // returns how many of the given edges, in order, join cells that were not
+  // yet connected, which are the edges of a spanning tree
+  // EFFECT: moves those edges to the front of the array as they are found,
+  // and sets rejected to how many were looked at and turned down
+  int chooseEdges(int[] edges, int length, int height) {
+    UnionFind representatives = new UnionFind(length * height);
+    int numNodesMinus1 = length * height - 1;
+    int numEdges = 0; // edges used
+    int k = 0;
+
+    for (; k < edges.length && numEdges < numNodesMinus1; k = k + 1) {
+      int e = edges[k];
+      if (representatives.union(e >>> 1, this.to(e, length))) {
+        edges[numEdges] = e;
+        numEdges = numEdges + 1;
+      }
+    }
+    this.rejected = k - numEdges;
+    return numEdges;
+  }
+
+  // returns every edge of a grid with the given dimensions,
+  // in order of the name of the cell they start from
+  int[] allEdges(int length, int height) {
+    int[] edges = new int[(length - 1) * height + length * (height - 1)];
+    int count = 0;
+
+    for (int i = 0; i < height; i = i + 1) {
+      for (int j = 0; j < length; j = j + 1) {
+        int name = i * length + j;
+        if (j < length - 1) {
+          edges[count] = (name << 1) | RIGHT;
+          count = count + 1;
+        }
+        if (i < height - 1) {
+          edges[count] = (name << 1) | DOWN;
+          count = count + 1;
+        }
+      }
+    }
+    return edges;
+  }
+
+  // EFFECT: puts the given edges in a random order (Fisher-Yates)
+  void shuffle(int[] edges, SplittableRandom rand) {
+    for (int i = edges.length - 1; i > 0; i = i - 1) {
+      int j = rand.nextInt(i + 1);
+      int temp = edges[i];
+      edges[i] = edges[j];
+      edges[j] = temp;
+    }
+  }
+
+  // returns the name of the cell the given packed edge leads to
+  int to(int edge, int length) {
+    int from = edge >>> 1;
+    if ((edge & 1) == RIGHT) {
+      return from + 1;
+    }
+    else {
+      return from + length;
+    }
+  }
+
+}
@@ -0,0 +1,10 @@
+// represents a manual solution
+class Manual extends AState {
+  Manual() {
+  }
+
+  // is this manual state manual?
+  public boolean isManual() {
+    return true;
+  }
+}
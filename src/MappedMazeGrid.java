@@ -0,0 +1,73 @@
+import java.nio.LongBuffer;
+
+// represents a maze whose edges live in a memory-mapped file, until the
+// first edge is opened, when they are copied onto the heap
+class MappedMazeGrid extends MazeGrid {
+  long seed;
+  int algorithm;
+  LongBuffer mapped;
+
+  // constructor
+  MappedMazeGrid(int length, int height, long seed, int algorithm, LongBuffer mapped) {
+    super(length, height, null);
+    this.seed = seed;
+    this.algorithm = algorithm;
+    this.mapped = mapped;
+  }
+
+  // returns the long of edges with the given index
+  long word(int index) {
+    if (this.edges == null) {
+      return this.mapped.get(index);
+    }
+    return this.edges[index];
+  }
+
+  // is the given packed edge open?
+  boolean isOpen(int edge) {
+    return (this.word(edge >>> 6) & (1L << edge)) != 0;
+  }
+
+  // EFFECT: opens the given packed edge, in memory only
+  void open(int edge) {
+    this.copyOnWrite();
+    super.open(edge);
+  }
+
+  // EFFECT: opens the given packed edge, in memory only
+  void openAtomically(int edge) {
+    this.copyOnWrite();
+    super.openAtomically(edge);
+  }
+
+  // EFFECT: sets the long of edges with the given index, in memory only
+  void setWord(int index, long word) {
+    this.copyOnWrite();
+    super.setWord(index, word);
+  }
+
+  // EFFECT: copies the edges onto the heap, the first time only
+  synchronized void copyOnWrite() {
+    if (this.edges == null) {
+      this.edges = this.copyEdges();
+    }
+  }
+
+  // returns a copy of the edges of this maze
+  long[] copyEdges() {
+    long[] edges = new long[MazeGrid.words(this.length, this.height)];
+    if (this.edges == null) {
+      this.mapped.get(0, edges);
+    }
+    else {
+      System.arraycopy(this.edges, 0, edges, 0, edges.length);
+    }
+    return edges;
+  }
+
+  // returns a copy of this maze on the heap
+  MazeGrid toHeap() {
+    return new MazeGrid(this.length, this.height, this.copyEdges());
+  }
+
+}
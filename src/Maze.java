@@ -1,12 +1,25 @@
-import java.util.ArrayDeque;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Deque;
-import java.util.HashMap;
+import java.util.BitSet;
+import java.util.NoSuchElementException;
 import java.util.Random;
+import java.util.List;
+import java.util.SplittableRandom;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import tester.*;
 import javalib.impworld.*;
 import java.awt.Color;
+import java.awt.image.BufferedImage;
+import javax.imageio.ImageIO;
 import javalib.worldimages.*;
 
 
@@ -15,11 +28,20 @@ import javalib.worldimages.*;
  * 
  * pressing "b" will start the breadth-first search
  * 
+ * pressing "a" will start the A* search, which heads
+ * for the bottom right corner first
+ * 
+ * pressing "m" will start a breadth-first search from both
+ * corners at once, which stops where they meet in the middle
+ * 
  * pressing the arrow keys will allow the user to manually 
  * traverse the maze 
  * 
  * pressing "r" will display a new maze 
  * 
+ * pressing "h" will show or hide the frame time, ticks per
+ * second, steps per tick and size of the search in the corner
+ * 
  * if you have already run the dfs, bfs, or manual on this maze 
  * and want to try dfs, bfs, or manaul on this maze again,
  * just press the corresponding key again 
@@ -27,392 +49,267 @@ import javalib.worldimages.*;
  */
 
 
-//Represents a single square of the game area
-class Cell {
-  int name;
-  int x;
-  int y;
-  Color color;
-  Cell left;
-  Cell top;
-  Cell right;
-  Cell bottom;
-  boolean leftEdge;
-  boolean topEdge;
-  boolean rightEdge;
-  boolean bottomEdge;
+// represents a maze game
+//
+// a search animates stepsPerTick steps every tick. That starts out at
+// enough steps to search the whole board in about FINISH_SECONDS, however
+// big it is, and ] and [ double and halve it. Pressing t switches to a time
+// budget instead: every tick takes as many steps as fit in tickBudget
+// nanoseconds, which ] and [ then double and halve
+class Maze extends World {
+  static final double TICK_SECONDS = 0.01; // as passed to bigBang
+  static final int FINISH_SECONDS = 10;
+  static final long MIN_BUDGET = 100000; // 0.1 ms
+  static final long MAX_BUDGET = (long) (TICK_SECONDS * 1e9);
+
+  ArrayList<Cell> board;
+  int length;
+  int height;
+  int cellSize;
+  IState state;
+  IGenerator generator; // makes the walls of every new board
+  MazeGrid grid; // the walls of board, made again for every search
+  Search search; // the search being animated, or the moves made by hand
+  MazeCanvas canvas; // made by the first frame, and again for a new board
+  int stepsPerTick;
+  long tickBudget; // in nanoseconds, or 0 to take stepsPerTick steps
+  MazeHud hud;
+  Camera camera; // which cells are drawn, and how big
+  MazePyramid pyramid; // made by the first frame too zoomed out to draw cells
+  PyramidCanvas overview; // draws pyramid instead of canvas then
+  InfiniteMaze plane; // the plane this maze is a window onto, or null
+  long planeX; // the column of the plane at the left of the window
+  long planeY; // the row of the plane at the top of the window
+  int planeTarget; // the cell searches of the window look for
 
   // constructor
-  Cell(int name, int x, int y, Color color, Cell left, Cell top, Cell right, Cell bottom,
-      boolean leftEdge, boolean topEdge, boolean rightEdge, boolean bottomEdge) {
-    this.name = name;
-    this.x = x;
-    this.y = y;
-    this.color = color;
-    this.left = left;
-    this.top = top;
-    this.right = right;
-    this.bottom = bottom;
-    this.leftEdge = leftEdge;
-    this.topEdge = topEdge;
-    this.rightEdge = rightEdge;
-    this.bottomEdge = bottomEdge;
+  Maze(ArrayList<Cell> board, int length, int height, int cellSize) {
+    this.board = board;
+    this.length = length;
+    this.height = height;
+    this.cellSize = cellSize;
+    this.generator = new KruskalGenerator();
+    this.state = new Rest();
+    this.stepsPerTick = this.stepsToFinish();
+    this.hud = new MazeHud();
+    this.camera = new Camera(length, height, this.cellSize);
+    // add others?
   }
 
   // convenience constructor
-  Cell(int name, int x, int y) {
-    this.name = name;
-    this.x = x;
-    this.y = y;
-    this.color = Color.gray;
-    this.left = null;
-    this.top = null;
-    this.right = null;
-    this.bottom = null;
-    this.leftEdge = false;
-    this.topEdge = false;
-    this.rightEdge = false;
-    this.bottomEdge = false;
+  Maze(int length, int height) {
+    this(length, height, new KruskalGenerator());
   }
 
-  // EFFECT: draws this single cell
-  void drawCell(WorldScene ws, int cellSize) {
-    WorldImage cellImage = new RectangleImage(cellSize, cellSize, OutlineMode.SOLID, this.color);
-    cellImage = cellImage.movePinholeTo(new Posn(0, 0));
-
-    if (!leftEdge) {
-      cellImage = new OverlayImage(new LineImage(new Posn(0, cellSize), Color.BLACK)
-          .movePinholeTo(new Posn(cellSize / 2, 0)), cellImage);
-    }
-    if (!topEdge) {
-      cellImage = new OverlayImage(
-          new LineImage(new Posn(cellSize, 0), Color.BLACK).movePinhole(0, cellSize / 2),
-          cellImage);
-    }
-    if (!rightEdge) {
-      cellImage = new OverlayImage(
-          new LineImage(new Posn(0, cellSize), Color.BLACK).movePinhole(-cellSize / 2 + 1, 0),
-          cellImage);
-    }
-    if (!bottomEdge) {
-      cellImage = new OverlayImage(
-          new LineImage(new Posn(cellSize, 0), Color.BLACK).movePinhole(0, -cellSize / 2 + 1),
-          cellImage);
-    }
-
-    ws.placeImageXY(cellImage, this.x, this.y);
+  // convenience constructor: a maze whose boards are made by the given generator
+  Maze(int length, int height, IGenerator generator) {
+    this.length = length;
+    this.height = height;
+    this.cellSize = this.fitCellSize();
+    this.generator = generator;
+    this.board = new ArrayListUtils().initilizeBoard(length, height, cellSize,
+        new Random().nextInt(9999), generator);
+    this.state = new Rest();
+    this.stepsPerTick = this.stepsToFinish();
+    this.hud = new MazeHud();
+    this.camera = new Camera(length, height, this.cellSize);
+    // add others?
   }
 
-  // EFFECT: creates an Edge fron the name of this cell to
-  // the name of that cell
-  void makeEdge(Cell that, ArrayList<Edge> worklist) {
-    if (that != null) {
-      worklist.add(new Edge(that.name, this.name));
-    }
+  // convenience constructor: plays the given maze, for example one
+  // opened with MazeFile.read
+  Maze(MazeGrid grid) {
+    this.length = grid.length;
+    this.height = grid.height;
+    this.cellSize = this.fitCellSize();
+    this.generator = new KruskalGenerator();
+    this.board = new ArrayListUtils().toBoard(grid, cellSize);
+    this.state = new Rest();
+    this.stepsPerTick = this.stepsToFinish();
+    this.hud = new MazeHud();
+    this.camera = new Camera(length, height, this.cellSize);
   }
 
-  // EFFECT: changes color field of this Cell to that Color
-  void changeColor(Color that) {
-    this.color = that;
+  // convenience constructor: a length x height window onto the given plane,
+  // at its top left corner to start with
+  Maze(InfiniteMaze plane, int length, int height) {
+    this.length = length;
+    this.height = height;
+    this.cellSize = this.fitCellSize();
+    this.generator = plane.generator;
+    this.plane = plane;
+    this.scroll(0, 0);
+    this.state = new Rest();
+    this.stepsPerTick = this.stepsToFinish();
+    this.hud = new MazeHud();
+    this.camera = new Camera(length, height, this.cellSize);
+  }
+
+  // EFFECT: moves the window onto the plane the given number of columns
+  // right and rows down, back to the corner of the chunk it lands in, and
+  // shows what it is over now
+  void scroll(long columns, long rows) {
+    long chunk = this.plane.chunkSize;
+    this.planeX = Math.floorDiv(this.planeX + columns, chunk) * chunk;
+    this.planeY = Math.floorDiv(this.planeY + rows, chunk) * chunk;
+    MazeGrid region = this.plane.region(this.planeX, this.planeY, this.length, this.height);
+    this.board = new ArrayListUtils().toBoard(region, this.cellSize);
+    this.planeTarget = this.lastReachable(region);
+    this.board.get(this.board.size() - 1).changeColor(Color.gray);
+    this.board.get(this.planeTarget).changeColor(Color.green);
+    this.state = new Rest();
   }
 
-  // EFFECT: opens the border between this cell and the given cell
-  // assume "to cell" is either to the right or below this cell
-  void union(Cell to) {
-    if (this.right == to) {
-      this.rightEdge = true;
-      to.leftEdge = true;
-    }
-    else {
-      this.bottomEdge = true;
-      to.topEdge = true;
-    }
+  // returns how far the window scrolls for the given number of cells
+  // across it: half of them, in whole chunks, and at least one chunk
+  long scrollStep(int cells) {
+    return Math.max(1, cells / 2 / this.plane.chunkSize) * (long) this.plane.chunkSize;
   }
 
-  // returns the cells that is possible to travel to from this cell
-  ArrayList<Cell> neighbors() {
-    ArrayList<Cell> listOfNeighbors = new ArrayList<Cell>();
-
-    if (this.topEdge) {
-      listOfNeighbors.add(this.top);
-    }
-    if (this.leftEdge) {
-      listOfNeighbors.add(this.left);
-    }
-    if (this.bottomEdge) {
-      listOfNeighbors.add(this.bottom);
+  // returns the cell with the highest name, the one nearest the bottom
+  // right, that the first cell of the given grid can reach
+  int lastReachable(MazeGrid grid) {
+    UnionFind sets = new UnionFind(grid.size());
+    for (int name = 0; name < grid.size(); name = name + 1) {
+      if (grid.hasRightEdge(name)) {
+        sets.union(name, name + 1);
+      }
+      if (grid.hasBottomEdge(name)) {
+        sets.union(name, name + grid.length);
+      }
     }
-    if (this.rightEdge) {
-      listOfNeighbors.add(this.right);
+    int last = grid.size() - 1;
+    while (!sets.connected(0, last)) {
+      last = last - 1;
     }
-    return listOfNeighbors;
+    return last;
   }
 
-  // returns the cell in the direction indicated by the key
-  Cell findNext(String key) {
-    Cell next = null;
-
-    if ("left".equals(key)) {
-      next = this.left;
-    }
-    else if ("right".equals(key)) {
-      next = this.right;
-    }
-    else if ("up".equals(key)) {
-      next = this.top;
-    }
-    else if ("down".equals(key)) {
-      next = this.bottom;
-    }
-    if (this.neighbors().contains(next)) {
-      return next;
+  // returns the name of the cell searches look for: the last cell, or on a
+  // plane, where the edges of the window can cut the way to it, the last
+  // cell the first one can still reach
+  int target() {
+    if (this.plane == null) {
+      return this.board.size() - 1;
     }
     else {
-      return null;
+      return this.planeTarget;
     }
   }
 
-}
+  // returns the size cells are drawn at to fit this whole maze in the window,
+  // or Camera.MIN_CELL_SIZE if it is too big for that and has to be panned around
+  int fitCellSize() {
+    return Math.max(Camera.MIN_CELL_SIZE, Math.min(Camera.VIEW_LENGTH / this.length,
+        Camera.VIEW_HEIGHT / this.height));
+  }
 
-// methods used to manipulate an ArrayList
-class ArrayListUtils {
+  // returns how many steps a tick has to take for a search of this board
+  // to finish within FINISH_SECONDS; a search takes at most one step per
+  // cell plus one per edge, about twice as many steps as there are cells
+  int stepsToFinish() {
+    double ticks = FINISH_SECONDS / TICK_SECONDS;
+    return (int) Math.max(1, Math.ceil(2.0 * this.length * this.height / ticks));
+  }
 
-  // creates a grid of cells using the given size
-  ArrayList<Cell> initilizeBoard(int length, int height, int cellSize, int seed) {
-    ArrayList<Cell> accum = new ArrayList<Cell>();
+  // draws this maze
+  // EFFECT: repaints the cells that changed since the last frame
+  public WorldScene makeScene() {
+    long start = System.nanoTime();
+    FrameEvent event = new FrameEvent();
+    event.begin();
+    int sceneLength = 1000;
+    int sceneHeight = 600;
+    WorldScene ws = new WorldScene(sceneLength, sceneHeight);
+    int drawn = 0;
 
-    for (int i = 0; i < height; i = i + 1) {
-      for (int j = 0; j < length; j = j + 1) {
-        accum.add(
-            new Cell(i * length + j, cellSize * j + cellSize / 2, cellSize * i + cellSize / 2));
-        new ArrayListUtils().connectCells(accum, j, i, length, i * length + j);
+    if (this.camera.isDetailed()) {
+      if (this.canvas == null || this.canvas.board != this.board) {
+        this.canvas = new MazeCanvas(this.board, this.camera);
+        drawn = this.canvas.dirty.length;
       }
+      drawn = drawn + this.canvas.flush();
+      ws.placeImageXY(this.canvas.image, this.canvas.image.width / 2,
+          this.canvas.image.height / 2);
     }
+    else {
+      if (this.pyramid == null || this.pyramid.board != this.board) {
+        this.pyramid = new MazePyramid(this.board, this.length, this.height);
+        this.overview = new PyramidCanvas(this.pyramid, this.camera);
+        drawn = this.overview.dirty.length;
+      }
+      drawn = drawn + this.overview.flush();
+      ws.placeImageXY(this.overview.image, this.overview.image.width / 2,
+          this.overview.image.height / 2);
+    }
+    this.hud.draw(ws, this.search, this.board.size());
 
-    accum.get(0).changeColor(Color.pink);
-    accum.get(accum.size() - 1).changeColor(Color.green);
-
-    new ArrayListUtils().createMaze(accum, seed);
-    return accum;
+    if (event.shouldCommit()) {
+      event.cellsDrawn = drawn;
+      event.commit();
+    }
+    this.hud.frame(System.nanoTime() - start);
+    return ws;
   }
 
-  // EFFECT: connects the cells corresponding to the given parameters
-  // in the given grid of cells
-  void connectCells(ArrayList<Cell> board, int j, int i, int length, int place) {
-    if (j > 0) {
-      board.get(place).left = board.get(place - 1);
-      board.get(place - 1).right = board.get(place);
+  // EFFECT: marks the given cell to be repainted in the next frame
+  void markDirty(Cell c) {
+    // without a canvas the next frame paints every cell anyway
+    if (this.canvas != null) {
+      this.canvas.markDirty(c);
     }
-    if (i > 0) {
-      board.get(place).top = board.get(place - length);
-      board.get(place - length).bottom = board.get(place);
+    // the pyramid is kept up to date even while cells are drawn one by one
+    if (this.pyramid != null && this.pyramid.board == this.board) {
+      this.pyramid.update(c);
+      this.overview.markDirty(c);
     }
   }
 
-  // EFFECT: connects cells from this board in a such a way
-  // that represents a valid maze (minimum spanning tree)
-  void createMaze(ArrayList<Cell> board, int seed) {
-    HashMap<Integer, Integer> representatives = new HashMap<Integer, Integer>();
-    ArrayList<Edge> worklist = new ArrayList<Edge>(); // all edges in graph
+  // runs stepsPerTick steps in the maze for each tick during dfs and bfs,
+  // or as many as fit in tickBudget nanoseconds when that is set
+  public void onTick() {
+    long start = System.nanoTime();
+    int steps = 0;
 
-    for (Cell c : board) {
-      // add cell to hashmap of cells (represented by ints)
-      representatives.put(c.name, c.name);
-      // add cell's edges to list of edges
-      for (Cell neighbor : new ArrayList<Cell>(Arrays.asList(c.left, c.top))) {
-        c.makeEdge(neighbor, worklist);
+    if (this.tickBudget > 0) {
+      while (this.state.isAuto() && System.nanoTime() - start < this.tickBudget) {
+        this.mazeStep();
+        steps = steps + 1;
       }
     }
-
-    int numEdges = 0; // edges used
-    int numNodesMinus1 = board.size() - 1;
-    Random rand = new Random(seed);
-
-    while (numEdges < numNodesMinus1) {
-      Edge e = worklist.get(rand.nextInt(worklist.size() - 1));
-
-      int fromRep = new HashMapUtils().find(representatives, e.from);
-      int toRep = new HashMapUtils().find(representatives, e.to);
-      if (fromRep != toRep) {
-        representatives.replace(toRep, fromRep); // union
-        e.unionCells(board);
-        worklist.remove(e);
-        numEdges = numEdges + 1;
+    else {
+      for (; steps < this.stepsPerTick && this.state.isAuto(); steps = steps + 1) {
+        this.mazeStep();
       }
     }
+    this.hud.tick(start, steps);
   }
 
-}
-
-//Represents a mutable collection of items
-interface ICollection<T> {
-  // Is this collection empty?
-  boolean isEmpty();
-
-  // EFFECT: adds the item to the collection
-  void add(T item);
-
-  // Returns the first item of the collection
-  // EFFECT: removes that first item
-  T remove();
-
-}
-
-// represents a stack, first in last out
-class Stack<T> implements ICollection<T> {
-  Deque<T> contents;
-
-  Stack() {
-    this.contents = new ArrayDeque<T>();
-  }
-
-  // is this stack empty?
-  public boolean isEmpty() {
-    return this.contents.isEmpty();
-  }
-
-  // Returns the first item of the stack
-  // EFFECT: removes that first item
-  public T remove() {
-    return this.contents.removeFirst();
-  }
-
-  // EFFECT: adds the item to the stack
-  public void add(T item) {
-    this.contents.addFirst(item);
-  }
-
-}
-
-//represents a queue, first in first out
-class Queue<T> implements ICollection<T> {
-  Deque<T> contents;
-
-  Queue() {
-    this.contents = new ArrayDeque<T>();
-  }
-
-  // is this queue empty?
-  public boolean isEmpty() {
-    return this.contents.isEmpty();
-  }
-
-  // Returns the first item of the queue
-  // EFFECT: removes that first item
-  public T remove() {
-    return this.contents.removeFirst();
-  }
-
-  // EFFECT: adds the item to the queue
-  public void add(T item) {
-    this.contents.addLast(item); // NOTE: Different from Stack!
-  }
-
-}
-
-// methods used to manipulate a HashMap
-class HashMapUtils {
-
-  // finds the representative of the given name in the HashMap
-  Integer find(HashMap<Integer, Integer> representatives, int name) {
-    if (representatives.get(name) == name) {
-      return name;
+  // EFFECT: changes how fast searches are animated: doubles the speed if
+  // faster is true and halves it otherwise
+  void changeSpeed(boolean faster) {
+    if (this.tickBudget > 0 && faster) {
+      this.tickBudget = Math.min(MAX_BUDGET, this.tickBudget * 2);
     }
-    else {
-      return find(representatives, representatives.get(name));
+    else if (this.tickBudget > 0) {
+      this.tickBudget = Math.max(MIN_BUDGET, this.tickBudget / 2);
     }
-  }
-
-  // returns the path back from current to start
-  // EFFECT: changes colors of the cells in the path
-  Deque<Cell> findCorrectPath(HashMap<Cell, Cell> cameFrom, Cell start, Cell current) {
-    if (current == start) {
-      Deque<Cell> temp = new ArrayDeque<Cell>();
-      start.changeColor(Color.green);
-      temp.addFirst(start);
-      return temp;
+    else if (faster) {
+      this.stepsPerTick = (int) Math.min(Integer.MAX_VALUE, this.stepsPerTick * 2L);
     }
     else {
-      Deque<Cell> temp = new HashMapUtils().findCorrectPath(cameFrom, start, cameFrom.get(current));
-      current.changeColor(Color.green);
-      temp.addFirst(current);
-      return temp;
+      this.stepsPerTick = Math.max(1, this.stepsPerTick / 2);
     }
   }
 
-}
-
-// represents an Edge between two Cells 
-// represented by ints (cell's name)
-class Edge {
-  int from;
-  int to;
-
-  // constructor
-  Edge(int from, int to) {
-    this.from = from;
-    this.to = to;
-  }
-
-  // EFFECT: opens the border represented by this edge
-  void unionCells(ArrayList<Cell> board) {
-    Cell fromCell = board.get(this.from);
-    Cell toCell = board.get(this.to);
-
-    fromCell.union(toCell);
-  }
-
-}
-
-// represents a maze game
-class Maze extends World {
-  ArrayList<Cell> board;
-  int length;
-  int height;
-  int cellSize;
-  IState state;
-  ICollection<Cell> worklist;
-  HashMap<Cell, Boolean> visited;
-  HashMap<Cell, Cell> cameFrom;
-  Cell target;
-
-  // constructor
-  Maze(ArrayList<Cell> board, int length, int height, int cellSize) {
-    this.board = board;
-    this.length = length;
-    this.height = height;
-    this.cellSize = cellSize;
-    this.state = new Rest();
-    // add others?
-  }
-
-  // convenience constructor
-  Maze(int length, int height) {
-    this.length = length;
-    this.height = height;
-    this.cellSize = Math.min(1000 / length, 600 / height);
-    this.board = new ArrayListUtils().initilizeBoard(length, height, cellSize,
-        new Random().nextInt(9999));
-    this.state = new Rest();
-    // add others?
-  }
-
-  // draws this maze
-  public WorldScene makeScene() {
-    int sceneLength = 1000;
-    int sceneHeight = 600;
-    WorldScene ws = new WorldScene(sceneLength, sceneHeight);
-
-    for (Cell c : this.board) {
-      c.drawCell(ws, this.cellSize);
+  // EFFECT: switches between taking stepsPerTick steps every tick
+  // and filling a time budget, which starts at half a tick
+  void toggleBudget() {
+    if (this.tickBudget > 0) {
+      this.tickBudget = 0;
     }
-    return ws;
-  }
-
-  // runs a step in the maze for each tick during dfs and bfs
-  public void onTick() {
-    if (this.state.isAuto()) {
-      this.mazeStep();
+    else {
+      this.tickBudget = MAX_BUDGET / 2;
     }
   }
 
@@ -420,15 +317,72 @@ class Maze extends World {
   public void onKeyEvent(String key) {
     if ("d".equals(key)) {
       this.state = new Auto();
-      resetSolution(new Stack<Cell>());
+      resetSolution(new Stack(this.board.size()));
     }
     else if ("b".equals(key)) {
       this.state = new Auto();
-      resetSolution(new Queue<Cell>());
+      resetSolution(new Queue(this.board.size()));
+    }
+    else if ("a".equals(key)) {
+      this.state = new Auto();
+      resetSolution(new AStarSearch(new ArrayListUtils().toGrid(this.board), 0,
+          this.target()));
+    }
+    else if ("m".equals(key)) {
+      this.state = new Auto();
+      resetSolution(new BidirectionalSearch(new ArrayListUtils().toGrid(this.board), 0,
+          this.target()));
+    }
+    else if ("]".equals(key)) {
+      this.changeSpeed(true);
+    }
+    else if ("[".equals(key)) {
+      this.changeSpeed(false);
+    }
+    else if ("t".equals(key)) {
+      this.toggleBudget();
+    }
+    else if ("h".equals(key)) {
+      this.hud.toggle();
+    }
+    else if ("r".equals(key) && this.plane != null) {
+      this.plane = new InfiniteMaze(new Random().nextInt(9999), this.plane.chunkSize,
+          this.plane.chunks.capacity, this.generator);
+      this.scroll(0, 0);
+    }
+    else if ("j".equals(key) && this.plane != null) {
+      this.scroll(-this.scrollStep(this.length), 0);
+    }
+    else if ("j".equals(key)) {
+      this.camera.pan(-this.camera.columns() / 2, 0);
+    }
+    else if ("l".equals(key) && this.plane != null) {
+      this.scroll(this.scrollStep(this.length), 0);
+    }
+    else if ("l".equals(key)) {
+      this.camera.pan(this.camera.columns() / 2, 0);
+    }
+    else if ("i".equals(key) && this.plane != null) {
+      this.scroll(0, -this.scrollStep(this.height));
+    }
+    else if ("i".equals(key)) {
+      this.camera.pan(0, -this.camera.rows() / 2);
+    }
+    else if ("k".equals(key) && this.plane != null) {
+      this.scroll(0, this.scrollStep(this.height));
+    }
+    else if ("k".equals(key)) {
+      this.camera.pan(0, this.camera.rows() / 2);
+    }
+    else if ("=".equals(key) || "+".equals(key)) {
+      this.camera.zoom(true);
+    }
+    else if ("-".equals(key)) {
+      this.camera.zoom(false);
     }
     else if ("r".equals(key)) {
       this.board = new ArrayListUtils().initilizeBoard(length, height, cellSize,
-          new Random().nextInt(9999));
+          new Random().nextInt(9999), this.generator);
       this.state = new Rest();
 
     }
@@ -451,155 +405,105 @@ class Maze extends World {
   // EFFECT: performs one step in this maze
   // by evaluating one cell off the worklist
   void mazeStep() {
-    if (!this.state.isRest()) {
-      Cell c = worklist.remove();
+    if (this.state.isAuto()) {
+      Cell c = this.board.get(this.search.step());
 
-      if (visited.get(c)) {
-        // do nothing
-      }
-      else if (c == target) {
-        new HashMapUtils().findCorrectPath(cameFrom, board.get(0), target);
-        this.state = new Rest();
+      if (this.search.found) {
+        this.showSolution();
       }
       else {
-        visited.put(c, true);
         c.changeColor(Color.pink);
-
-        for (Cell n : c.neighbors()) {
-          if (!visited.get(n)) {
-            cameFrom.putIfAbsent(n, c);
-            if (this.state.isAuto()) {
-              worklist.add(n);
-            }
-          }
+        this.markDirty(c);
+        if (this.search.isDone()) {
+          this.state = new Rest();
         }
       }
     }
   }
 
+  // EFFECT: colors the path the search found back to the start,
+  // and stops the search
+  void showSolution() {
+    int[] path = this.search.path();
+    new ArrayListUtils().colorPath(this.board, path, Color.green);
+    for (int name : path) {
+      this.markDirty(this.board.get(name));
+    }
+    this.state = new Rest();
+  }
+
   // EFFECT: evaluates the press of an arrow key
-  // and changes color if moved and prepares for and
-  // initiates the next step in the maze
+  // and changes color if moved; the worklist of a manual search
+  // only ever holds the cell the user is on
   void arrowPress(String key) {
     if (this.state.isManual()) {
-      Cell prev = this.worklist.remove();
-      Cell c = prev.findNext(key);
-
-      if (c != null) {
-        prev.changeColor(new Color(255, 141, 161));
-        c.changeColor(Color.pink);
-
-        this.cameFrom.putIfAbsent(c, prev);
-        this.worklist.add(c);
-        this.worklist.add(c);
-        // adding twice is the most efficient way to
-        // keep c on the worklist after calling mazeStep
+      int prev = this.search.worklist.remove();
+      int next = this.grid.findNext(prev, key);
+
+      if (next != -1) {
+        this.board.get(prev).changeColor(new Color(255, 141, 161));
+        this.board.get(next).changeColor(Color.pink);
+        this.markDirty(this.board.get(prev));
+        this.markDirty(this.board.get(next));
+        this.camera.follow(next);
+
+        // stepping onto a new cell leaves the last one behind, as a step of
+        // a search takes a cell, so the HUD counts it as visited
+        if (!this.search.isSeen(next)) {
+          this.search.see(next, prev);
+          this.search.expanded = this.search.expanded + 1;
+        }
+        this.search.worklist.add(next);
 
-        this.mazeStep();
+        if (next == this.search.target) {
+          this.showSolution();
+        }
       }
       else {
-        this.worklist.add(prev);
+        this.search.worklist.add(prev);
       }
     }
     // can interrupt auto to start manual; resets solve
     else {
       this.state = new Manual();
-      resetSolution(new Queue<Cell>());
+      resetSolution(new Queue(1));
+      this.camera.follow(0);
     }
   }
 
-  // EFFECT: resets the board and solution related fields in this maze game
-  void resetSolution(ICollection<Cell> worklist) {
-    this.worklist = worklist;
-    this.visited = new HashMap<Cell, Boolean>();
-    this.cameFrom = new HashMap<Cell, Cell>();
-    this.target = board.get(board.size() - 1);
+  // EFFECT: resets the board and solution related fields in this maze game,
+  // starting a search from the first cell to the last that uses the given worklist
+  void resetSolution(ICollection worklist) {
+    this.resetSolution(new Search(new ArrayListUtils().toGrid(this.board), worklist, 0,
+        this.target()));
+  }
+
+  // EFFECT: resets the board and solution related fields in this maze game,
+  // starting the given search of its grid
+  void resetSolution(Search search) {
+    this.grid = search.grid;
+    this.search = search;
 
     for (Cell c : board) {
-      visited.put(c, false);
       c.changeColor(Color.gray);
     }
 
-    this.worklist.add(board.get(0));
-    cameFrom.put(board.get(0), board.get(0));
-
     board.get(0).changeColor(Color.pink);
-    board.get(board.size() - 1).changeColor(Color.green);
-
-  }
+    board.get(this.target()).changeColor(Color.green);
 
-}
-
-// represents the 3 states in our game
-interface IState {
-
-  // is this state auto?
-  boolean isAuto();
-
-  // is this state manual?
-  boolean isManual();
-
-  // is this state at rest?
-  boolean isRest();
-
-}
-
-// represents the 3 states in our game
-abstract class AState implements IState {
-
-  // is this state auto?
-  public boolean isAuto() {
-    return false;
-  }
-
-  // is this state manual?
-  public boolean isManual() {
-    return false;
-  }
-
-  // is this state at rest?
-  public boolean isRest() {
-    return false;
-  }
-}
-
-// represents an automatic solution
-class Auto extends AState {
-  Auto() {
-  }
-
-  // is this auto state auto?
-  public boolean isAuto() {
-    return true;
-  }
-
-}
-
-// represents a manual solution
-class Manual extends AState {
-  Manual() {
-  }
-
-  // is this manual state manual?
-  public boolean isManual() {
-    return true;
-  }
-}
-
-// Represents when our maze game is at rest
-class Rest extends AState {
-  Rest() {
+    if (this.canvas != null) {
+      this.canvas.markAll();
+    }
+    if (this.pyramid != null && this.pyramid.board == this.board) {
+      this.pyramid.recolor();
+      this.overview.markAll();
+    }
   }
 
-  // is this rest state at rest?
-  public boolean isRest() {
-    return true;
-  }
 }
 
 class ExamplesMaze {
 
-  HashMapUtils HMU = new HashMapUtils();
   ArrayListUtils ALU = new ArrayListUtils();
 
   Maze maze1 = new Maze(3, 3);
@@ -607,22 +511,6 @@ class ExamplesMaze {
   Maze maze3 = new Maze(20, 12);
   Maze maze4 = new Maze(100, 60);
 
-  Edge edge1 = new Edge(0, 1);
-  Edge edge2 = new Edge(1, 2);
-  Edge edge3 = new Edge(3, 4);
-  Edge edge4 = new Edge(4, 5);
-  Edge edge5 = new Edge(6, 7);
-  Edge edge6 = new Edge(7, 8);
-  Edge edge7 = new Edge(0, 3);
-  Edge edge8 = new Edge(1, 4);
-  Edge edge9 = new Edge(2, 5);
-  Edge edge10 = new Edge(3, 6);
-  Edge edge11 = new Edge(4, 7);
-  Edge edge12 = new Edge(5, 8);
-  ArrayList<Edge> listEdge;
-
-  HashMap<Integer, Integer> rep1 = new HashMap<Integer, Integer>();
-
   Cell cell0;
   Cell cell1;
   Cell cell2;
@@ -640,12 +528,10 @@ class ExamplesMaze {
   Cell c3;
   ArrayList<Cell> list2x2;
 
-  ArrayDeque<Cell> deq1;
-  ArrayDeque<Cell> deq2;
-  ICollection<Cell> stack1;
-  ICollection<Cell> stack2;
-  ICollection<Cell> queue1;
-  ICollection<Cell> queue2;
+  ICollection stack1;
+  ICollection stack2;
+  ICollection queue1;
+  ICollection queue2;
 
   IState manual1 = new Manual();
   IState rest1 = new Rest();
@@ -663,11 +549,6 @@ class ExamplesMaze {
 
   void initData() {
 
-    rep1.clear();
-    for (int i = 0; i < 9; i = i + 1) {
-      rep1.put(i, i);
-    }
-
     this.cell0 = new Cell(0, 100, 100);
     this.cell0.color = Color.pink;
     this.cell1 = new Cell(1, 300, 100);
@@ -690,9 +571,6 @@ class ExamplesMaze {
     ALU.connectCells(list123456789, 1, 2, 3, 7);
     ALU.connectCells(list123456789, 2, 2, 3, 8);
 
-    listEdge = new ArrayList<Edge>(Arrays.asList(edge1, edge2, edge3, edge4, edge5, edge6, edge7,
-        edge8, edge9, edge10, edge11, edge12));
-
     this.c0 = new Cell(0, 150, 150);
     this.c0.color = Color.pink;
     this.c1 = new Cell(1, 450, 150);
@@ -704,41 +582,61 @@ class ExamplesMaze {
     ALU.connectCells(list2x2, 0, 1, 2, 2);
     ALU.connectCells(list2x2, 1, 1, 2, 3);
 
-    deq1 = new ArrayDeque<Cell>(Arrays.asList(cell0, cell1, cell2));
-    deq2 = new ArrayDeque<Cell>(Arrays.asList(cell2, cell4, cell6));
-    stack1 = new Stack<Cell>();
-    ((Stack<Cell>) stack1).contents = deq1;
-    stack2 = new Stack<Cell>();
-    ((Stack<Cell>) stack2).contents = deq2;
-    queue1 = new Queue<Cell>();
-    ((Queue<Cell>) queue1).contents = deq1;
-    queue2 = new Queue<Cell>();
-    ((Queue<Cell>) queue2).contents = deq2;
+    // stacks are added to bottom first, so 0 and 2 come off first
+    stack1 = new Stack(3);
+    stack1.add(2);
+    stack1.add(1);
+    stack1.add(0);
+    stack2 = new Stack(3);
+    stack2.add(6);
+    stack2.add(4);
+    stack2.add(2);
+    queue1 = new Queue(3);
+    queue1.add(0);
+    queue1.add(1);
+    queue1.add(2);
+    queue2 = new Queue(3);
+    queue2.add(2);
+    queue2.add(4);
+    queue2.add(6);
 
   }
 
   void testOnKeyEvent(Tester t) {
     Maze exMaze = new Maze(5, 3);
     exMaze.board = ALU.initilizeBoard(5, 3, 200, 444);
-    exMaze.resetSolution(new Queue<Cell>());
+    exMaze.resetSolution(new Queue(15));
 
     exMaze.onKeyEvent("b");
 
     t.checkExpect(exMaze.state, new Auto());
-    ICollection<Cell> exQueue = new Queue<Cell>();
-    exQueue.add(exMaze.board.get(0));
-    t.checkExpect(exMaze.worklist, exQueue);
+    ICollection exQueue = new Queue(15);
+    exQueue.add(0);
+    t.checkExpect(exMaze.search.worklist, exQueue);
 
     exMaze.onKeyEvent("d");
 
     t.checkExpect(exMaze.state, new Auto());
-    ICollection<Cell> exStack = new Stack<Cell>();
-    exStack.add(exMaze.board.get(0));
-    t.checkExpect(exMaze.worklist, exStack);
+    ICollection exStack = new Stack(15);
+    exStack.add(0);
+    t.checkExpect(exMaze.search.worklist, exStack);
+
+    exMaze.onKeyEvent("a");
+
+    t.checkExpect(exMaze.state, new Auto());
+    t.checkExpect(exMaze.search instanceof AStarSearch, true);
+    t.checkExpect(exMaze.search.target, 14);
+    t.checkExpect(exMaze.grid, ALU.toGrid(exMaze.board));
+
+    exMaze.onKeyEvent("m");
+
+    t.checkExpect(exMaze.state, new Auto());
+    t.checkExpect(exMaze.search instanceof BidirectionalSearch, true);
+    t.checkExpect(exMaze.search.isSeen(14), true);
 
     Maze exMaze2 = new Maze(5, 3);
     exMaze2.board = ALU.initilizeBoard(5, 3, 200, 444);
-    exMaze2.resetSolution(new Queue<Cell>());
+    exMaze2.resetSolution(new Queue(15));
 
     exMaze.onKeyEvent("up");
     exMaze2.arrowPress("up");
@@ -771,10 +669,10 @@ class ExamplesMaze {
 
     Maze exMaze1 = new Maze(5, 3);
     exMaze1.board = ALU.initilizeBoard(5, 3, 200, 476);
-    exMaze1.resetSolution(new Queue<Cell>());
+    exMaze1.resetSolution(new Queue(15));
     Maze exMaze2 = new Maze(5, 3);
     exMaze2.board = ALU.initilizeBoard(5, 3, 200, 476);
-    exMaze2.resetSolution(new Queue<Cell>());
+    exMaze2.resetSolution(new Queue(15));
 
     t.checkExpect(exMaze1.board, exMaze2.board);
 
@@ -794,30 +692,86 @@ class ExamplesMaze {
     exMaze2.mazeStep();
     t.checkFail(exMaze1.board, exMaze2.board);
 
+    // several steps per tick
+    exMaze1.state = new Auto();
+    exMaze1.stepsPerTick = 3;
+    exMaze2.mazeStep();
+    exMaze2.mazeStep();
+    exMaze1.onTick();
+    t.checkExpect(exMaze1.board, exMaze2.board);
+    t.checkExpect(exMaze1.search.worklist, exMaze2.search.worklist);
+
+    // stops once the search is done
+    exMaze1.stepsPerTick = 1000;
+    exMaze1.onTick();
+    t.checkExpect(exMaze1.state, new Rest());
+    t.checkExpect(exMaze1.board.get(14).color, Color.green);
+
+    // a time budget runs the whole search when it has time
+    exMaze2.tickBudget = 1000000000;
+    exMaze2.onTick();
+    t.checkExpect(exMaze2.state, new Rest());
+    t.checkExpect(exMaze2.board, exMaze1.board);
+  }
+
+  void testStepsToFinish(Tester t) {
+    t.checkExpect(new Maze(5, 3).stepsToFinish(), 1);
+    t.checkExpect(maze4.stepsToFinish(), 12);
+    t.checkExpect(new Maze(1000, 600).stepsToFinish(), 1200);
+    t.checkExpect(maze4.stepsPerTick, 12);
+    t.checkExpect(maze4.tickBudget, 0L);
+  }
+
+  void testChangeSpeed(Tester t) {
+    Maze maze = new Maze(100, 60);
+
+    maze.onKeyEvent("]");
+    t.checkExpect(maze.stepsPerTick, 24);
+    maze.onKeyEvent("[");
+    maze.onKeyEvent("[");
+    maze.onKeyEvent("[");
+    maze.onKeyEvent("[");
+    t.checkExpect(maze.stepsPerTick, 1);
+    maze.onKeyEvent("[");
+    t.checkExpect(maze.stepsPerTick, 1);
+    maze.stepsPerTick = Integer.MAX_VALUE;
+    maze.changeSpeed(true);
+    t.checkExpect(maze.stepsPerTick, Integer.MAX_VALUE);
+
+    maze.onKeyEvent("t");
+    t.checkExpect(maze.tickBudget, 5000000L);
+    maze.onKeyEvent("]");
+    t.checkExpect(maze.tickBudget, Maze.MAX_BUDGET);
+    maze.onKeyEvent("]");
+    t.checkExpect(maze.tickBudget, Maze.MAX_BUDGET);
+    for (int k = 0; k < 10; k = k + 1) {
+      maze.changeSpeed(false);
+    }
+    t.checkExpect(maze.tickBudget, Maze.MIN_BUDGET);
+    maze.toggleBudget();
+    t.checkExpect(maze.tickBudget, 0L);
+    t.checkExpect(maze.stepsPerTick, Integer.MAX_VALUE);
   }
 
   void testResetSolution(Tester t) {
     initData();
 
-    t.checkExpect(maze2.worklist, null);
-    t.checkExpect(maze2.visited, null);
-    t.checkExpect(maze2.cameFrom, null);
-    t.checkExpect(maze2.target, null);
+    t.checkExpect(maze2.search, null);
+    t.checkExpect(maze2.grid, null);
 
-    ICollection<Cell> mtStack = new Stack<Cell>();
+    ICollection mtStack = new Stack(100);
     maze2.resetSolution(mtStack);
 
-    mtStack.add(maze2.board.get(0));
-    t.checkExpect(maze2.worklist, mtStack);
-    HashMap<Cell, Boolean> mtHashMap = new HashMap<Cell, Boolean>();
-    for (Cell c : maze2.board) {
-      mtHashMap.put(c, false);
-    }
-    t.checkExpect(maze2.visited, mtHashMap);
-    HashMap<Cell, Cell> mtCameFrom = new HashMap<Cell, Cell>();
-    mtCameFrom.put(maze2.board.get(0), maze2.board.get(0));
-    t.checkExpect(maze2.cameFrom, mtCameFrom);
-    t.checkExpect(maze2.target, maze2.board.get(99));
+    t.checkExpect(maze2.grid, ALU.toGrid(maze2.board));
+    t.checkExpect(maze2.search.worklist, mtStack);
+    ICollection startStack = new Stack(100);
+    startStack.add(0);
+    t.checkExpect(mtStack, startStack);
+    t.checkExpect(maze2.search.isSeen(0), true);
+    t.checkExpect(maze2.search.isSeen(1), false);
+    t.checkExpect(maze2.search.cameFrom[0], 0);
+    t.checkExpect(maze2.search.start, 0);
+    t.checkExpect(maze2.search.target, 99);
     t.checkExpect(maze2.board.get(99).color, Color.green);
     t.checkExpect(maze2.board.get(0).color, Color.pink);
     // all others gray
@@ -834,19 +788,10 @@ class ExamplesMaze {
     Cell m1 = maze1.board.get(1);
     Cell m2 = maze1.board.get(2);
     Cell m3 = maze1.board.get(3);
-    Cell m4 = maze1.board.get(4);
-    Cell m5 = maze1.board.get(5);
-    Cell m7 = maze1.board.get(7);
+    Cell m8 = maze1.board.get(8);
 
     maze1.state = new Manual();
-    maze1.worklist = new Queue<Cell>();
-    maze1.worklist.add(m0);
-    maze1.visited = new HashMap<Cell, Boolean>();
-    for (Cell c : maze1.board) {
-      maze1.visited.put(c, false);
-    }
-    maze1.cameFrom = new HashMap<Cell, Cell>();
-    maze1.cameFrom.put(m0, m0);
+    maze1.resetSolution(new Queue(1));
 
     t.checkExpect(m0.color, Color.pink);
     t.checkExpect(m1.color, Color.gray);
@@ -854,27 +799,44 @@ class ExamplesMaze {
     maze1.arrowPress("left");
 
     t.checkExpect(m0.color, Color.pink);
-    t.checkExpect(((Queue<Cell>) maze1.worklist).contents, new ArrayDeque<Cell>(Arrays.asList(m0)));
+    t.checkExpect(((Queue) maze1.search.worklist).contents, new int[] { 0 });
 
     maze1.arrowPress("right");
 
     t.checkExpect(m0.color, new Color(255, 141, 161));
     t.checkExpect(m1.color, Color.pink);
-    t.checkExpect(((Queue<Cell>) maze1.worklist).contents, new ArrayDeque<Cell>(Arrays.asList(m1)));
-    t.checkExpect(maze1.visited.get(m1), true);
-    t.checkExpect(maze1.cameFrom.get(m1), m0);
-    t.checkExpect(maze1.cameFrom.get(m2), m1);
-    t.checkExpect(maze1.cameFrom.get(m4), m1);
+    t.checkExpect(((Queue) maze1.search.worklist).contents, new int[] { 1 });
+    t.checkExpect(maze1.search.isSeen(1), true);
+    t.checkExpect(maze1.search.cameFrom[1], 0);
+    // only the cells moved to are seen
+    t.checkExpect(maze1.search.isSeen(2), false);
 
     maze1.arrowPress("right");
 
     t.checkExpect(m0.color, new Color(255, 141, 161));
     t.checkExpect(m1.color, new Color(255, 141, 161));
     t.checkExpect(m2.color, Color.pink);
-    t.checkExpect(((Queue<Cell>) maze1.worklist).contents, new ArrayDeque<Cell>(Arrays.asList(m2)));
-    t.checkExpect(maze1.visited.get(m2), true);
-    t.checkExpect(maze1.cameFrom.get(m2), m1);
+    t.checkExpect(((Queue) maze1.search.worklist).contents, new int[] { 2 });
+    t.checkExpect(maze1.search.isSeen(2), true);
+    t.checkExpect(maze1.search.cameFrom[2], 1);
+
+    // going back keeps the way a cell was first reached
+    maze1.arrowPress("left");
+    t.checkExpect(((Queue) maze1.search.worklist).contents, new int[] { 1 });
+    t.checkExpect(maze1.search.cameFrom[1], 0);
 
+    // reaching the target shows the solution
+    maze1.arrowPress("left");
+    maze1.arrowPress("down");
+    maze1.arrowPress("down");
+    maze1.arrowPress("right");
+    t.checkExpect(maze1.state, new Manual());
+    maze1.arrowPress("right");
+    t.checkExpect(maze1.state, new Rest());
+    t.checkExpect(m0.color, Color.green);
+    t.checkExpect(m3.color, Color.green);
+    t.checkExpect(m8.color, Color.green);
+    t.checkExpect(m1.color, new Color(255, 141, 161));
   }
 
   void testMazeStep(Tester t) {
@@ -891,33 +853,29 @@ class ExamplesMaze {
     Cell m7 = maze1.board.get(7);
     Cell m8 = maze1.board.get(8);
     maze1.state = new Auto();
-    maze1.worklist = new Queue<Cell>();
-    maze1.worklist.add(m0);
-    maze1.visited = new HashMap<Cell, Boolean>();
-    for (Cell c : maze1.board) {
-      maze1.visited.put(c, false);
-    }
-    maze1.cameFrom = new HashMap<Cell, Cell>();
-    maze1.cameFrom.put(m0, m0);
-    maze1.target = m8;
+    maze1.resetSolution(new Queue(9));
+    Queue worklist = (Queue) maze1.search.worklist;
 
     maze1.mazeStep();
 
-    t.checkExpect(((Queue<Cell>) maze1.worklist).contents, new ArrayDeque<Cell>(Arrays.asList(m1)));
-    t.checkExpect(maze1.visited.get(m0), true);
+    t.checkExpect(worklist.contents, new int[] { 0, 3, 1, 0, 0, 0, 0, 0, 0 });
+    t.checkExpect(worklist.head, 1);
+    t.checkExpect(worklist.size, 2);
     t.checkExpect(m0.color, Color.pink);
-    t.checkExpect(maze1.cameFrom.get(m1), m0);
+    t.checkExpect(maze1.search.cameFrom[1], 0);
+    t.checkExpect(maze1.search.cameFrom[3], 0);
+    t.checkExpect(maze1.search.isSeen(3), true);
 
-    t.checkExpect(m1.color, Color.gray);
+    t.checkExpect(m3.color, Color.gray);
 
     maze1.mazeStep();
 
-    t.checkExpect(((Queue<Cell>) maze1.worklist).contents,
-        new ArrayDeque<Cell>(Arrays.asList(m4, m2)));
-    t.checkExpect(maze1.visited.get(m1), true);
-    t.checkExpect(m1.color, Color.pink);
-    t.checkExpect(maze1.cameFrom.get(m4), m1);
-    t.checkExpect(maze1.cameFrom.get(m2), m1);
+    t.checkExpect(worklist.contents, new int[] { 0, 3, 1, 6, 4, 0, 0, 0, 0 });
+    t.checkExpect(worklist.head, 2);
+    t.checkExpect(worklist.size, 3);
+    t.checkExpect(m3.color, Color.pink);
+    t.checkExpect(maze1.search.cameFrom[6], 3);
+    t.checkExpect(maze1.search.cameFrom[4], 3);
 
     maze1.mazeStep();
     maze1.mazeStep();
@@ -925,65 +883,72 @@ class ExamplesMaze {
     maze1.mazeStep();
     maze1.mazeStep();
     maze1.mazeStep();
+    t.checkExpect(maze1.state, new Auto());
     maze1.mazeStep();
-    // brings us to the end of the maze
-
+    // brings us to the end of the maze; every cell was taken once
     t.checkExpect(maze1.state, new Rest());
+    t.checkExpect(worklist.isEmpty(), true);
     // part of solution
-    t.checkExpect(m1.color, Color.green);
+    t.checkExpect(m3.color, Color.green);
     t.checkExpect(m8.color, Color.green);
     t.checkExpect(m0.color, Color.green);
     t.checkExpect(m7.color, Color.green);
-    t.checkExpect(m4.color, Color.green);
+    t.checkExpect(m6.color, Color.green);
     // not part of solution
-    t.checkExpect(m6.color, Color.pink);
+    t.checkExpect(m1.color, Color.pink);
     t.checkExpect(m2.color, Color.pink);
     t.checkExpect(m5.color, Color.pink);
-    t.checkExpect(m3.color, Color.pink);
+    t.checkExpect(m4.color, Color.pink);
 
+    // steps are only taken automatically
     maze1.state = new Manual();
-    // same but the worklist works differently!
-
-    maze1.board = ALU.initilizeBoard(3, 3, 200, 4632);
-    m0 = maze1.board.get(0);
-    m1 = maze1.board.get(1);
-    m2 = maze1.board.get(2);
-    m3 = maze1.board.get(3);
-    m4 = maze1.board.get(4);
-    m5 = maze1.board.get(5);
-    m6 = maze1.board.get(6);
-    m7 = maze1.board.get(7);
-    m8 = maze1.board.get(8);
-    maze1.worklist = new Queue<Cell>();
-    maze1.worklist.add(m0);
-    maze1.worklist.add(m0);
-    maze1.visited = new HashMap<Cell, Boolean>();
-    for (Cell c : maze1.board) {
-      maze1.visited.put(c, false);
-    }
-    maze1.cameFrom = new HashMap<Cell, Cell>();
-    maze1.cameFrom.put(m0, m0);
-    maze1.target = m8;
-
+    maze1.resetSolution(new Queue(9));
     maze1.mazeStep();
-
-    t.checkExpect(((Queue<Cell>) maze1.worklist).contents, new ArrayDeque<Cell>(Arrays.asList(m0)));
-    t.checkExpect(maze1.visited.get(m0), true);
     t.checkExpect(m0.color, Color.pink);
-    t.checkExpect(maze1.cameFrom.get(m1), m0);
-
-    t.checkExpect(m1.color, Color.gray);
-    maze1.worklist.remove();
-    maze1.worklist.add(m1);
-    maze1.worklist.add(m1);
-    maze1.mazeStep();
-
-    t.checkExpect(((Queue<Cell>) maze1.worklist).contents, new ArrayDeque<Cell>(Arrays.asList(m1)));
-    t.checkExpect(maze1.visited.get(m1), true);
-    t.checkExpect(m1.color, Color.pink);
-    t.checkExpect(maze1.cameFrom.get(m4), m1);
-    t.checkExpect(maze1.cameFrom.get(m2), m1);
-
+    t.checkExpect(maze1.search.isSeen(3), false);
+  }
+
+  void testSearch(Tester t) {
+    MazeGrid grid = ALU.toGrid(ALU.initilizeBoard(3, 3, 200, 4632));
+    Search bfs = new Search(grid, new Queue(9), 0, 8);
+
+    t.checkExpect(bfs.seen, new long[] { 1L });
+    t.checkExpect(bfs.isDone(), false);
+    t.checkExpect(bfs.step(), 0);
+    t.checkExpect(bfs.step(), 3);
+    t.checkExpect(bfs.step(), 1);
+    t.checkExpect(bfs.expanded, 3);
+    t.checkExpect(bfs.solve(), true);
+    t.checkExpect(bfs.isDone(), true);
+    t.checkExpect(bfs.expanded, 9);
+    t.checkExpect(bfs.cameFrom[8], 7);
+    t.checkExpect(bfs.cameFrom[7], 6);
+    t.checkExpect(bfs.cameFrom[6], 3);
+
+    Search dfs = new Search(grid, new Stack(9), 0, 8);
+    t.checkExpect(dfs.step(), 0);
+    // the last neighbor added is taken first
+    t.checkExpect(dfs.step(), 1);
+    t.checkExpect(dfs.solve(), true);
+    t.checkExpect(dfs.cameFrom[8], 7);
+
+    // a target that cannot be reached runs out of cells
+    MazeGrid walls = new MazeGrid(2, 1);
+    Search none = new Search(walls, new Queue(2), 0, 1);
+    t.checkExpect(none.solve(), false);
+    t.checkExpect(none.isDone(), true);
+    t.checkExpect(none.isSeen(1), false);
+
+    // cells past the first long of seen marks
+    MazeGrid row = new MazeGrid(100, 1);
+    for (int i = 0; i < 99; i = i + 1) {
+      row.open((i << 1) | MazeGrid.RIGHT);
+    }
+    Search far = new Search(row, new Queue(100), 0, 99);
+    t.checkExpect(far.solve(), true);
+    t.checkExpect(far.isSeen(70), true);
+    t.checkExpect(far.cameFrom[99], 98);
+    t.checkExpect(far.seen, new long[] { -1L, (1L << 36) - 1 });
   }
 
   void testIsAuto(Tester t) {
@@ -1005,36 +970,417 @@ class ExamplesMaze {
     t.checkExpect(rest1.isRest(), true);
   }
 
-  void testFindCorrectPath(Tester t) {
+  void testAStarSearch(Tester t) {
+    MazeGrid grid = ALU.toGrid(ALU.initilizeBoard(3, 3, 200, 4632));
+    AStarSearch astar = new AStarSearch(grid, 0, 8);
+
+    t.checkExpect(astar.estimate(0), 4);
+    t.checkExpect(astar.estimate(5), 1);
+    t.checkExpect(astar.estimate(8), 0);
+    t.checkExpect(((Heap) astar.worklist).priority[0], 4);
+
+    t.checkExpect(astar.step(), 0);
+    // 3 and 1 are both one step from the start and three from the target
+    t.checkExpect(((Heap) astar.worklist).priority[3], 4);
+    t.checkExpect(((Heap) astar.worklist).priority[1], 4);
+    t.checkExpect(astar.solve(), true);
+    t.checkExpect(astar.path(), new int[] { 0, 3, 6, 7, 8 });
+    t.checkExpect(((Heap) astar.worklist).priority[8], 4);
+    t.checkExpect(astar.expanded <= 9, true);
+
+    // A* finds the same path as breadth first search, taking fewer steps
+    MazeGrid big = ALU.toGrid(ALU.initilizeBoard(100, 60, 10, 7));
+    Search bfs = new Search(big, new Queue(6000), 0, 5999);
+    AStarSearch fast = new AStarSearch(big, 0, 5999);
+    t.checkExpect(bfs.solve(), true);
+    t.checkExpect(fast.solve(), true);
+    t.checkExpect(fast.path(), bfs.path());
+    t.checkExpect(fast.expanded <= bfs.expanded, true);
+    t.checkExpect(fast.expanded >= fast.path().length, true);
+  }
+
+  void testBidirectionalSearch(Tester t) {
+    MazeGrid grid = ALU.toGrid(ALU.initilizeBoard(3, 3, 200, 4632));
+    BidirectionalSearch both = new BidirectionalSearch(grid, 0, 8);
+
+    t.checkExpect(both.isSeen(0), true);
+    t.checkExpect(both.isSeen(8), true);
+    t.checkExpect(both.isFromTarget(0), false);
+    t.checkExpect(both.isFromTarget(8), true);
+    t.checkException(new IllegalArgumentException("Cell 8 has not been reached"), both, "path");
+
+    // the halves take turns
+    t.checkExpect(both.step(), 0);
+    t.checkExpect(both.step(), 8);
+    t.checkExpect(both.isFromTarget(7), true);
+    t.checkExpect(both.cameFrom[7], 8);
+    t.checkExpect(both.isFromTarget(3), false);
+    t.checkExpect(both.step(), 3);
+    t.checkExpect(both.isDone(), false);
+    t.checkExpect(both.solve(), true);
+    t.checkExpect(both.meetFrom, 6);
+    t.checkExpect(both.meetTo, 7);
+    t.checkExpect(both.path(), new int[] { 0, 3, 6, 7, 8 });
+    t.checkExpect(both.expanded < 9, true);
+
+    // the same path as breadth first search on a bigger maze, in fewer steps
+    MazeGrid big = ALU.toGrid(ALU.initilizeBoard(100, 60, 10, 7));
+    Search bfs = new Search(big, new Queue(6000), 0, 5999);
+    BidirectionalSearch meet = new BidirectionalSearch(big, 0, 5999);
+    bfs.solve();
+    t.checkExpect(meet.solve(), true);
+    t.checkExpect(meet.path(), bfs.path());
+    t.checkExpect(meet.expanded < bfs.expanded, true);
+
+    // a search from a cell to itself is already over
+    BidirectionalSearch self = new BidirectionalSearch(grid, 4, 4);
+    t.checkExpect(self.isDone(), true);
+    t.checkExpect(self.path(), new int[] { 4 });
+
+    // halves that cannot meet run out of cells
+    BidirectionalSearch none = new BidirectionalSearch(new MazeGrid(2, 1), 0, 1);
+    t.checkExpect(none.solve(), false);
+  }
+
+  void testMazeIndex(Tester t) {
+    MazeGrid grid = ALU.toGrid(ALU.initilizeBoard(3, 3, 200, 4632));
+    MazeIndex index = new MazeIndex(grid);
+
+    // 0 - 1 - 2
+    // |       |
+    // 3 - 4   5
+    // |
+    // 6 - 7 - 8
+    t.checkExpect(index.parent, new int[] { 0, 0, 1, 0, 3, 2, 3, 6, 7 });
+    t.checkExpect(index.depth, new int[] { 0, 1, 2, 1, 2, 3, 2, 3, 4 });
+    t.checkExpect(index.tour, new int[] { 0, 3, 6, 7, 8, 7, 6, 3, 4, 3, 0, 1, 2, 5, 2, 1, 0 });
+    t.checkExpect(index.first[5], 13);
+    t.checkExpect(index.next(0, 0), -1);
+    t.checkExpect(index.next(0, 2), 3);
+    t.checkExpect(index.next(4, 1), 3);
+
+    t.checkExpect(index.lca(8, 5), 0);
+    t.checkExpect(index.lca(8, 4), 3);
+    t.checkExpect(index.lca(6, 8), 6);
+    t.checkExpect(index.lca(2, 2), 2);
+    t.checkExpect(index.distance(8, 5), 7);
+    t.checkExpect(index.distance(4, 4), 0);
+    t.checkExpect(index.path(8, 5), new int[] { 8, 7, 6, 3, 0, 1, 2, 5 });
+    t.checkExpect(index.path(0, 8), new int[] { 0, 3, 6, 7, 8 });
+    t.checkExpect(index.path(4, 4), new int[] { 4 });
+    t.checkExpect(index.distances(new int[] { 8, 5, 4, 4, 0, 8 }), new int[] { 7, 0, 4 });
+    t.checkExpect(index.paths(new int[] { 4, 6, 1, 0 }),
+        new int[][] { new int[] { 4, 3, 6 }, new int[] { 1, 0 } });
+    t.checkException(new IllegalArgumentException("Need an even number of cells, given 3"),
+        index, "paths", new int[] { 1, 2, 3 });
+    t.checkException(
+        new IllegalArgumentException("Need an even number of cells and room for 1 distances,"
+            + " given 2 and 0"),
+        index, "distances", new int[] { 1, 2 }, new int[0]);
+
+    // queries that span many blocks agree with searching
+    MazeGrid big = ALU.toGrid(ALU.initilizeBoard(100, 60, 10, 7));
+    MazeIndex bigIndex = new MazeIndex(big);
+    t.checkExpect(bigIndex.table.length, 9);
+    SplittableRandom random = new SplittableRandom(3);
+    for (int k = 0; k < 20; k = k + 1) {
+      int a = random.nextInt(6000);
+      int b = random.nextInt(6000);
+      Search search = new Search(big, new Queue(6000), a, b);
+      search.solve();
+      t.checkExpect(bigIndex.path(a, b), search.path());
+      t.checkExpect(bigIndex.distance(a, b), search.path().length - 1);
+    }
+
+    // a one cell maze
+    MazeIndex one = new MazeIndex(new MazeGrid(1, 1));
+    t.checkExpect(one.distance(0, 0), 0);
+
+    // mazes that are not spanning trees
+    t.checkConstructorException(
+        new IllegalArgumentException(
+            "The maze is not connected: only 1 of 2 cells can be reached from cell 0"),
+        "MazeIndex", new MazeGrid(2, 1));
+    MazeGrid loop = new MazeGrid(2, 2);
+    loop.open((0 << 1) | MazeGrid.RIGHT);
+    loop.open((0 << 1) | MazeGrid.DOWN);
+    loop.open((1 << 1) | MazeGrid.DOWN);
+    loop.open((2 << 1) | MazeGrid.RIGHT);
+    t.checkConstructorException(
+        new IllegalArgumentException("The maze has a loop through cell 0"), "MazeIndex", loop);
+  }
+
+  void testEvents(Tester t) throws IOException {
+    Recording recording = new Recording();
+    recording.enable("maze.Generation");
+    recording.enable("maze.Solve");
+    recording.enable("maze.Frame");
+    recording.start();
+
+    MazeGrid grid = new MazeGrid(5, 3);
+    KruskalGenerator kruskal = new KruskalGenerator();
+    kruskal.generate(grid, 444);
+    Search bfs = new Search(grid, new Queue(15), 0, 14);
+    bfs.solve();
+    Search astar = new AStarSearch(grid, 0, 14);
+    astar.solve();
+    new Search(new MazeGrid(2, 1), new Stack(2), 0, 1).solve();
+    IGenerator[] others = new IGenerator[] { new TiledKruskalGenerator(4, 2),
+        new BacktrackerGenerator(), new PrimGenerator(), new WilsonGenerator(),
+        new BinaryTreeGenerator(), new SidewinderGenerator() };
+    for (IGenerator other : others) {
+      other.generate(new MazeGrid(6, 4), 9);
+    }
+    new EllerGenerator(7).generate(3, 10, new IRowSink() {
+      public void acceptRow(long row, long[] edges) {
+        // throws the rows away
+      }
+    });
+    Maze maze = new Maze(grid);
+    maze.makeScene();
+    maze.markDirty(maze.board.get(3));
+    maze.makeScene();
+
+    recording.stop();
+    File file = File.createTempFile("maze", ".jfr");
+    file.deleteOnExit();
+    recording.dump(file.toPath());
+    recording.close();
+    List<RecordedEvent> events = RecordingFile.readAllEvents(file.toPath());
+
+    ArrayList<RecordedEvent> generations = new ArrayList<RecordedEvent>();
+    ArrayList<RecordedEvent> solves = new ArrayList<RecordedEvent>();
+    ArrayList<RecordedEvent> frames = new ArrayList<RecordedEvent>();
+    for (RecordedEvent e : events) {
+      if (e.getEventType().getName().equals("maze.Generation")) {
+        generations.add(e);
+      }
+      else if (e.getEventType().getName().equals("maze.Solve")) {
+        solves.add(e);
+      }
+      else if (e.getEventType().getName().equals("maze.Frame")) {
+        frames.add(e);
+      }
+    }
+
+    // Maze(grid) plays the maze it is given, so only the generators made one
+    t.checkExpect(generations.size(), 8);
+    t.checkExpect(generations.get(0).getInt("algorithm"), MazeFile.KRUSKAL);
+    t.checkExpect(generations.get(0).getInt("length"), 5);
+    t.checkExpect(generations.get(0).getLong("height"), 3L);
+    t.checkExpect(generations.get(0).getLong("seed"), 444L);
+    t.checkExpect(generations.get(0).getInt("rejected"), kruskal.rejected);
+    for (int k = 0; k < others.length; k = k + 1) {
+      t.checkExpect(generations.get(k + 1).getInt("algorithm"), others[k].algorithm());
+      t.checkExpect(generations.get(k + 1).getInt("length"), 6);
+      t.checkExpect(generations.get(k + 1).getLong("height"), 4L);
+      t.checkExpect(generations.get(k + 1).getLong("seed"), 9L);
+      t.checkExpect(generations.get(k + 1).getInt("rejected"), 0);
+    }
+    t.checkExpect(generations.get(7).getInt("algorithm"), MazeFile.ELLER);
+    t.checkExpect(generations.get(7).getInt("length"), 7);
+    t.checkExpect(generations.get(7).getLong("height"), 3L);
+
+    t.checkExpect(solves.size(), 3);
+    t.checkExpect(solves.get(0).getString("algorithm"), "breadth first");
+    t.checkExpect(solves.get(0).getInt("cells"), 15);
+    t.checkExpect(solves.get(0).getInt("expanded"), bfs.expanded);
+    t.checkExpect(solves.get(0).getInt("maxFrontier"), bfs.maxFrontier);
+    t.checkExpect(solves.get(0).getInt("pathLength"), bfs.path().length);
+    t.checkExpect(solves.get(1).getString("algorithm"), "A*");
+    t.checkExpect(solves.get(2).getString("algorithm"), "depth first");
+    t.checkExpect(solves.get(2).getInt("pathLength"), 0);
+
+    t.checkExpect(frames.size(), 2);
+    t.checkExpect(frames.get(0).getInt("cellsDrawn"), 15);
+    t.checkExpect(frames.get(1).getInt("cellsDrawn"), 1);
+  }
+
+  void testSearchStats(Tester t) {
+    MazeGrid grid = ALU.toGrid(ALU.initilizeBoard(3, 3, 200, 4632));
+    Search bfs = new Search(grid, new Queue(9), 0, 8);
+
+    t.checkExpect(bfs.maxFrontier, 1);
+    t.checkExpect(bfs.frontier(), 1);
+    t.checkExpect(bfs.pathLength(), 0);
+    bfs.step();
+    bfs.step();
+    t.checkExpect(bfs.frontier(), 3);
+    t.checkExpect(bfs.maxFrontier, 3);
+    t.checkExpect(bfs.event == null, false);
+    bfs.solve();
+    t.checkExpect(bfs.event, null);
+    t.checkExpect(bfs.frontier(), 0);
+    t.checkExpect(bfs.maxFrontier, 3);
+    t.checkExpect(bfs.pathLength(), 5);
+    t.checkExpect(bfs.algorithm(), "breadth first");
+    t.checkExpect(new Search(grid, new Stack(9), 0, 8).algorithm(), "depth first");
+    t.checkExpect(new AStarSearch(grid, 0, 8).algorithm(), "A*");
+
+    BidirectionalSearch both = new BidirectionalSearch(grid, 0, 8);
+    t.checkExpect(both.algorithm(), "bidirectional");
+    t.checkExpect(both.frontier(), 2);
+    t.checkExpect(both.maxFrontier, 2);
+    both.solve();
+    t.checkExpect(both.pathLength(), 5);
+    t.checkExpect(new BidirectionalSearch(grid, 4, 4).pathLength(), 1);
+
+    KruskalGenerator kruskal = new KruskalGenerator();
+    int[] edges = kruskal.allEdges(3, 3);
+    t.checkExpect(kruskal.chooseEdges(edges, 3, 3), 8);
+    t.checkExpect(kruskal.rejected >= 0 && kruskal.rejected <= 4, true);
+    t.checkExpect(kruskal.chooseEdges(kruskal.allEdges(2, 2), 2, 2), 3);
+    // in order, the first three edges of a 2 x 2 grid join every cell
+    t.checkExpect(kruskal.rejected, 0);
+  }
+
+  void testMazeHud(Tester t) {
+    MazeHud hud = new MazeHud();
+
+    t.checkExpect(hud.shown, false);
+    hud.toggle();
+    t.checkExpect(hud.shown, true);
+    hud.toggle();
+    t.checkExpect(hud.shown, false);
+
+    // ticks per second is only worked out once a second has passed
+    hud.tick(5000000000L, 3);
+    t.checkExpect(hud.windowStart, 5000000000L);
+    t.checkExpect(hud.stepsLastTick, 3);
+    hud.tick(5500000000L, 4);
+    t.checkExpect(hud.ticksPerSecond, 0.0);
+    hud.tick(6000000000L, 7);
+    t.checkExpect(hud.ticksPerSecond, 3.0);
+    t.checkExpect(hud.windowTicks, 0);
+    t.checkExpect(hud.windowStart, 6000000000L);
+    t.checkExpect(hud.stepsLastTick, 7);
+    hud.frame(1250000);
+
+    t.checkExpect(hud.lines(null, 15), new ArrayList<String>(Arrays.asList("frame 1.25 ms",
+        "ticks/s 3.0", "steps/tick 7", "visited 0 / 15", "frontier 0")));
+    MazeGrid grid = ALU.toGrid(ALU.initilizeBoard(3, 3, 200, 4632));
+    Search bfs = new Search(grid, new Queue(9), 0, 8);
+    bfs.step();
+    bfs.step();
+    t.checkExpect(hud.lines(bfs, 9).get(3), "visited 2 / 9");
+    t.checkExpect(hud.lines(bfs, 9).get(4), "frontier 3");
+
+    // the game feeds it real figures
+    Maze maze = new Maze(5, 3);
+    maze.onKeyEvent("h");
+    t.checkExpect(maze.hud.shown, true);
+    maze.onKeyEvent("b");
+    maze.stepsPerTick = 2;
+    maze.onTick();
+    t.checkExpect(maze.hud.stepsLastTick, 2);
+    t.checkExpect(maze.hud.windowTicks, 1);
+    maze.makeScene();
+    t.checkExpect(maze.hud.frameNanos > 0, true);
+    maze.state = new Rest();
+    maze.onTick();
+    t.checkExpect(maze.hud.stepsLastTick, 0);
+    maze.tickBudget = Maze.MAX_BUDGET;
+    maze.state = new Auto();
+    maze.onTick();
+    t.checkExpect(maze.hud.stepsLastTick, maze.search.expanded - 2);
+
+    // moves made by hand count as visited cells too, but going back over a
+    // cell does not count it again
+    MazeGrid line = new MazeGrid(3, 1);
+    line.open(0 << 1 | MazeGrid.RIGHT);
+    line.open(1 << 1 | MazeGrid.RIGHT);
+    Maze walk = new Maze(line);
+    walk.onKeyEvent("right");
+    t.checkExpect(walk.hud.lines(walk.search, 3).get(3), "visited 0 / 3");
+    walk.onKeyEvent("right");
+    t.checkExpect(walk.hud.lines(walk.search, 3).get(3), "visited 1 / 3");
+    t.checkExpect(walk.hud.lines(walk.search, 3).get(4), "frontier 1");
+    walk.onKeyEvent("left");
+    walk.onKeyEvent("right");
+    t.checkExpect(walk.hud.lines(walk.search, 3).get(3), "visited 1 / 3");
+  }
+
+  void testHeap(Tester t) {
+    Heap heap = new Heap(5);
+    heap.priority[0] = 7;
+    heap.priority[1] = 3;
+    heap.priority[2] = 5;
+    heap.priority[3] = 1;
+    heap.priority[4] = 9;
+
+    t.checkExpect(heap.isEmpty(), true);
+    t.checkException(new NoSuchElementException("The heap is empty"), heap, "remove");
+    heap.add(0);
+    heap.add(1);
+    heap.add(2);
+    heap.add(3);
+    heap.add(4);
+    t.checkExpect(heap.isEmpty(), false);
+    t.checkExpect(heap.contents, new int[] { 3, 1, 2, 0, 4 });
+    t.checkExpect(heap.slots, new int[] { 4, 2, 3, 1, 5 });
+    heap.add(0);
+    t.checkExpect(heap.size, 5);
+
+    // lowering the priority of a name in the heap and adding it again
+    heap.priority[4] = 2;
+    heap.add(4);
+    t.checkExpect(heap.size, 5);
+
+    t.checkExpect(heap.remove(), 3);
+    t.checkExpect(heap.slots[3], 0);
+    t.checkExpect(heap.remove(), 4);
+    t.checkExpect(heap.remove(), 1);
+    t.checkExpect(heap.remove(), 2);
+    t.checkExpect(heap.remove(), 0);
+    t.checkExpect(heap.isEmpty(), true);
+    t.checkExpect(heap.slots, new int[] { 0, 0, 0, 0, 0 });
+  }
+
+  void testColorPath(Tester t) {
     initData();
-    ALU.createMaze(list123456789, 4632);
-    HashMap<Cell, Cell> cameFrom1 = new HashMap<Cell, Cell>();
-    cameFrom1.put(cell0, cell0);
-    cameFrom1.put(cell1, cell0);
-    cameFrom1.put(cell2, cell1);
-    cameFrom1.put(cell4, cell1);
-    cameFrom1.put(cell3, cell4);
-    cameFrom1.put(cell5, cell4);
-    cameFrom1.put(cell7, cell4);
-    cameFrom1.put(cell6, cell7);
-    cameFrom1.put(cell8, cell7);
-    // cameFrom1 represents the cameFrom map that would be produced during the
-    // process of solving the maze of list123456789
 
     t.checkExpect(cell0.color, Color.pink);
-    t.checkExpect(cell1.color, Color.gray);
-    t.checkExpect(cell4.color, Color.gray);
-    t.checkExpect(cell7.color, Color.gray);
-    t.checkExpect(cell8.color, Color.green);
-    Deque<Cell> path1 = HMU.findCorrectPath(cameFrom1, cell0, cell8);
-    t.checkExpect(path1, new ArrayDeque<Cell>(Arrays.asList(cell8, cell7, cell4, cell1, cell0)));
-    // now check effects!
+    t.checkExpect(cell3.color, Color.gray);
+    ALU.colorPath(list123456789, new int[] { 0, 3, 6, 7, 8 }, Color.green);
     t.checkExpect(cell0.color, Color.green);
-    t.checkExpect(cell1.color, Color.green);
-    t.checkExpect(cell4.color, Color.green);
+    t.checkExpect(cell3.color, Color.green);
+    t.checkExpect(cell6.color, Color.green);
     t.checkExpect(cell7.color, Color.green);
     t.checkExpect(cell8.color, Color.green);
+    // not part of the path
+    t.checkExpect(cell1.color, Color.gray);
+    t.checkExpect(cell4.color, Color.gray);
+    ALU.colorPath(list123456789, new int[] {}, Color.red);
+    t.checkExpect(cell1.color, Color.gray);
+  }
+
+  void testPath(Tester t) {
+    MazeGrid grid = ALU.toGrid(ALU.initilizeBoard(3, 3, 200, 4632));
+    Search bfs = new Search(grid, new Queue(9), 0, 8);
 
+    t.checkExpect(bfs.pathTo(0), new int[] { 0 });
+    t.checkException(new IllegalArgumentException("Cell 8 has not been reached"), bfs, "path");
+    bfs.solve();
+    t.checkExpect(bfs.path(), new int[] { 0, 3, 6, 7, 8 });
+    t.checkExpect(bfs.pathTo(2), new int[] { 0, 1, 2 });
+
+    // a search that starts somewhere else
+    Search back = new Search(grid, new Stack(9), 8, 0);
+    back.solve();
+    t.checkExpect(back.path(), new int[] { 8, 7, 6, 3, 0 });
+
+    // a million step path is far deeper than any thread stack
+    MazeGrid row = new MazeGrid(1000000, 1);
+    for (int i = 0; i < 999999; i = i + 1) {
+      row.open((i << 1) | MazeGrid.RIGHT);
+    }
+    Search far = new Search(row, new Queue(1000000), 0, 999999);
+    far.solve();
+    int[] path = far.path();
+    t.checkExpect(path.length, 1000000);
+    t.checkExpect(path[0], 0);
+    t.checkExpect(path[500000], 500000);
+    t.checkExpect(path[999999], 999999);
   }
 
   void testNeighbors(Tester t) {
@@ -1079,8 +1425,8 @@ class ExamplesMaze {
   void testIsEmpty(Tester t) {
     initData();
 
-    t.checkExpect(new Stack<Cell>().isEmpty(), true);
-    t.checkExpect(new Queue<Cell>().isEmpty(), true);
+    t.checkExpect(new Stack(3).isEmpty(), true);
+    t.checkExpect(new Queue(3).isEmpty(), true);
     t.checkExpect(stack1.isEmpty(), false);
     t.checkExpect(queue1.isEmpty(), false);
   }
@@ -1088,59 +1434,131 @@ class ExamplesMaze {
   void testAdd(Tester t) {
     initData();
 
-    ICollection<Cell> emptyStack = new Stack<Cell>();
-    ICollection<Cell> emptyQueue = new Queue<Cell>();
+    ICollection emptyStack = new Stack(2);
+    ICollection emptyQueue = new Queue(2);
 
     t.checkExpect(emptyStack.isEmpty(), true);
-    emptyStack.add(cell1);
+    emptyStack.add(1);
     t.checkExpect(emptyStack.isEmpty(), false);
-    t.checkExpect(((Stack<Cell>) emptyStack).contents, new ArrayDeque<Cell>(Arrays.asList(cell1)));
-    emptyStack.add(cell8);
-    t.checkExpect(((Stack<Cell>) emptyStack).contents,
-        new ArrayDeque<Cell>(Arrays.asList(cell8, cell1)));
+    t.checkExpect(((Stack) emptyStack).contents, new int[] { 1, 0 });
+    emptyStack.add(8);
+    t.checkExpect(((Stack) emptyStack).contents, new int[] { 1, 8 });
+    t.checkException(new IllegalStateException("The stack is full"), emptyStack, "add", 3);
 
     t.checkExpect(emptyQueue.isEmpty(), true);
-    emptyQueue.add(cell6);
+    emptyQueue.add(6);
     t.checkExpect(emptyQueue.isEmpty(), false);
-    t.checkExpect(((Queue<Cell>) emptyQueue).contents, new ArrayDeque<Cell>(Arrays.asList(cell6)));
-    emptyQueue.add(cell7);
-    t.checkExpect(((Queue<Cell>) emptyQueue).contents,
-        new ArrayDeque<Cell>(Arrays.asList(cell6, cell7)));
+    t.checkExpect(((Queue) emptyQueue).contents, new int[] { 6, 0 });
+    emptyQueue.add(7);
+    t.checkExpect(((Queue) emptyQueue).contents, new int[] { 6, 7 });
+    t.checkException(new IllegalStateException("The queue is full"), emptyQueue, "add", 3);
+
+    // a queue wraps around to the front of its array
+    emptyQueue.remove();
+    emptyQueue.add(9);
+    t.checkExpect(((Queue) emptyQueue).contents, new int[] { 9, 7 });
+    t.checkExpect(((Queue) emptyQueue).head, 1);
+    t.checkExpect(emptyQueue.remove(), 7);
+    t.checkExpect(emptyQueue.remove(), 9);
+    t.checkExpect(((Queue) emptyQueue).head, 1);
   }
 
   void testRemove(Tester t) {
     initData();
 
-    t.checkExpect(((Stack<Cell>) stack1).contents,
-        new ArrayDeque<Cell>(Arrays.asList(cell0, cell1, cell2)));
-    Cell stack1remove = stack1.remove();
-    t.checkExpect(stack1remove, cell0);
-    t.checkExpect(((Stack<Cell>) stack1).contents,
-        new ArrayDeque<Cell>(Arrays.asList(cell1, cell2)));
+    t.checkExpect(stack1.remove(), 0);
+    t.checkExpect(stack1.remove(), 1);
+    t.checkExpect(((Stack) stack1).size, 1);
+    t.checkExpect(stack2.remove(), 2);
+    t.checkExpect(stack2.remove(), 4);
+    t.checkExpect(stack2.remove(), 6);
+    t.checkExpect(stack2.isEmpty(), true);
+    t.checkException(new NoSuchElementException("The stack is empty"), stack2, "remove");
+
+    t.checkExpect(queue1.remove(), 0);
+    t.checkExpect(queue1.remove(), 1);
+    t.checkExpect(((Queue) queue1).size, 1);
+    t.checkExpect(queue2.remove(), 2);
+    t.checkExpect(queue2.remove(), 4);
+    t.checkExpect(queue2.remove(), 6);
+    t.checkExpect(queue2.isEmpty(), true);
+    t.checkException(new NoSuchElementException("The queue is empty"), queue2, "remove");
+  }
+
+  void testAllEdges(Tester t) {
+    KruskalGenerator kruskal = new KruskalGenerator();
+
+    // 0 1
+    // 2 3
+    t.checkExpect(kruskal.allEdges(2, 2), new int[] { 0 << 1 | KruskalGenerator.RIGHT,
+        0 << 1 | KruskalGenerator.DOWN, 1 << 1 | KruskalGenerator.DOWN,
+        2 << 1 | KruskalGenerator.RIGHT });
+    t.checkExpect(kruskal.allEdges(1, 1), new int[] {});
+    t.checkExpect(kruskal.allEdges(3, 3).length, 12);
+    t.checkExpect(kruskal.allEdges(100, 60).length, 99 * 60 + 100 * 59);
+  }
+
+  void testTo(Tester t) {
+    KruskalGenerator kruskal = new KruskalGenerator();
+
+    t.checkExpect(kruskal.to(4 << 1 | KruskalGenerator.RIGHT, 3), 5);
+    t.checkExpect(kruskal.to(4 << 1 | KruskalGenerator.DOWN, 3), 7);
+    t.checkExpect(kruskal.to(0 << 1 | KruskalGenerator.DOWN, 10), 10);
+  }
+
+  void testShuffle(Tester t) {
+    KruskalGenerator kruskal = new KruskalGenerator();
+    int[] edges1 = kruskal.allEdges(10, 10);
+    int[] edges2 = kruskal.allEdges(10, 10);
+    int[] edges3 = kruskal.allEdges(10, 10);
+
+    kruskal.shuffle(edges1, new SplittableRandom(4632));
+    kruskal.shuffle(edges2, new SplittableRandom(4632));
+    kruskal.shuffle(edges3, new SplittableRandom(99));
+
+    // the same seed gives the same order
+    t.checkExpect(edges1, edges2);
+    t.checkFail(edges1, edges3);
+    t.checkFail(edges1, kruskal.allEdges(10, 10));
+
+    // but the same edges
+    Arrays.sort(edges1);
+    Arrays.sort(edges3);
+    t.checkExpect(edges1, kruskal.allEdges(10, 10));
+    t.checkExpect(edges3, kruskal.allEdges(10, 10));
+  }
+
+  void testSpanningTree(Tester t) {
+    KruskalGenerator kruskal = new KruskalGenerator();
+
+    t.checkExpect(kruskal.spanningTree(1, 1, 7), new int[] {});
+    t.checkExpect(kruskal.spanningTree(20, 12, 444), kruskal.spanningTree(20, 12, 444));
+    t.checkFail(kruskal.spanningTree(20, 12, 444), kruskal.spanningTree(20, 12, 445));
+
+    // every cell is joined without ever closing a loop
+    int[] tree = kruskal.spanningTree(100, 60, 476);
+    t.checkExpect(tree.length, 100 * 60 - 1);
+    UnionFind sets = new UnionFind(100 * 60);
+    boolean noLoops = true;
+    for (int e : tree) {
+      noLoops = noLoops && sets.union(e >>> 1, kruskal.to(e, 100));
+    }
+    t.checkExpect(noLoops, true);
+    t.checkExpect(sets.connected(0, 100 * 60 - 1), true);
 
-    t.checkExpect(((Stack<Cell>) stack2).contents,
-        new ArrayDeque<Cell>(Arrays.asList(cell2, cell4, cell6)));
-    Cell stack2remove = stack2.remove();
-    t.checkExpect(stack2remove, cell2);
-    t.checkExpect(((Stack<Cell>) stack2).contents,
-        new ArrayDeque<Cell>(Arrays.asList(cell4, cell6)));
+    // a single row has only one spanning tree, which needs its last edge
+    int[] row = kruskal.spanningTree(5, 1, 12);
+    Arrays.sort(row);
+    t.checkExpect(row, kruskal.allEdges(5, 1));
+  }
 
+  void testRowLength(Tester t) {
     initData();
 
-    t.checkExpect(((Queue<Cell>) queue1).contents,
-        new ArrayDeque<Cell>(Arrays.asList(cell0, cell1, cell2)));
-    Cell queue1remove = queue1.remove();
-    t.checkExpect(queue1remove, cell0);
-    t.checkExpect(((Queue<Cell>) queue1).contents,
-        new ArrayDeque<Cell>(Arrays.asList(cell1, cell2)));
-
-    t.checkExpect(((Queue<Cell>) queue2).contents,
-        new ArrayDeque<Cell>(Arrays.asList(cell2, cell4, cell6)));
-    Cell queue2remove = queue2.remove();
-    t.checkExpect(queue2remove, cell2);
-    t.checkExpect(((Queue<Cell>) queue2).contents,
-        new ArrayDeque<Cell>(Arrays.asList(cell4, cell6)));
-
+    t.checkExpect(ALU.rowLength(list123456789), 3);
+    t.checkExpect(ALU.rowLength(list2x2), 2);
+    t.checkExpect(ALU.rowLength(ALU.initilizeBoard(20, 12, 10, 5)), 20);
+    t.checkExpect(ALU.rowLength(new ArrayList<Cell>(Arrays.asList(new Cell(0, 5, 5)))), 1);
   }
 
   void testCreateMaze(Tester t) {
@@ -1206,7 +1624,7 @@ class ExamplesMaze {
     t.checkExpect(cell2.leftEdge, true);
     t.checkExpect(cell2.rightEdge, false);
     t.checkExpect(cell2.topEdge, false);
-    t.checkExpect(cell2.bottomEdge, true);
+    t.checkExpect(cell2.bottomEdge, false);
 
     t.checkExpect(cell3.leftEdge, false);
     t.checkExpect(cell3.rightEdge, true);
@@ -1216,37 +1634,37 @@ class ExamplesMaze {
     t.checkExpect(cell4.leftEdge, true);
     t.checkExpect(cell4.rightEdge, false);
     t.checkExpect(cell4.topEdge, true);
-    t.checkExpect(cell4.bottomEdge, true);
+    t.checkExpect(cell4.bottomEdge, false);
 
     t.checkExpect(cell5.leftEdge, false);
     t.checkExpect(cell5.rightEdge, false);
-    t.checkExpect(cell5.topEdge, true);
-    t.checkExpect(cell5.bottomEdge, false);
+    t.checkExpect(cell5.topEdge, false);
+    t.checkExpect(cell5.bottomEdge, true);
 
     t.checkExpect(cell6.leftEdge, false);
-    t.checkExpect(cell6.rightEdge, false);
+    t.checkExpect(cell6.rightEdge, true);
     t.checkExpect(cell6.topEdge, true);
     t.checkExpect(cell6.bottomEdge, false);
 
-    t.checkExpect(cell7.leftEdge, false);
+    t.checkExpect(cell7.leftEdge, true);
     t.checkExpect(cell7.rightEdge, true);
-    t.checkExpect(cell7.topEdge, true);
+    t.checkExpect(cell7.topEdge, false);
     t.checkExpect(cell7.bottomEdge, false);
 
     t.checkExpect(cell8.leftEdge, true);
     t.checkExpect(cell8.rightEdge, false);
-    t.checkExpect(cell8.topEdge, false);
+    t.checkExpect(cell8.topEdge, true);
     t.checkExpect(cell8.bottomEdge, false);
 
     /*
      * list123456789 maze 
         ___ ___ ___ 
        | 0   1   2 | 
-       |___        | 
+       |___     ___| 
        | 3   4 | 5 | 
-       |       |___| 
-       | 6 | 7   8 | 
-       |___|___ ___|
+       |    ___|   | 
+       | 6   7   8 | 
+       |___ ___ ___|
      * 
      * it works!!!
      * 
@@ -1275,14 +1693,14 @@ class ExamplesMaze {
     ALU.createMaze(list2x2, 109);
 
     t.checkExpect(c0.leftEdge, false);
-    t.checkExpect(c0.rightEdge, true);
+    t.checkExpect(c0.rightEdge, false);
     t.checkExpect(c0.topEdge, false);
     t.checkExpect(c0.bottomEdge, true);
 
-    t.checkExpect(c1.leftEdge, true);
+    t.checkExpect(c1.leftEdge, false);
     t.checkExpect(c1.rightEdge, false);
     t.checkExpect(c1.topEdge, false);
-    t.checkExpect(c1.bottomEdge, false);
+    t.checkExpect(c1.bottomEdge, true);
 
     t.checkExpect(c2.leftEdge, false);
     t.checkExpect(c2.rightEdge, true);
@@ -1291,14 +1709,14 @@ class ExamplesMaze {
 
     t.checkExpect(c3.leftEdge, true);
     t.checkExpect(c3.rightEdge, false);
-    t.checkExpect(c3.topEdge, false);
+    t.checkExpect(c3.topEdge, true);
     t.checkExpect(c3.bottomEdge, false);
 
     /*
      * list2x2 maze 
      *  ___ ___ 
-     * | 0   1 |  
-     * |    ___| 
+     * | 0 | 1 |  
+     * |       | 
      * | 2   3 |
      * |___ ___|
      * 
@@ -1358,41 +1776,41 @@ class ExamplesMaze {
     t.checkExpect(cell0.leftEdge, false);
     t.checkExpect(cell0.rightEdge, true);
     t.checkExpect(cell0.topEdge, false);
-    t.checkExpect(cell0.bottomEdge, false);
+    t.checkExpect(cell0.bottomEdge, true);
 
     t.checkExpect(cell1.leftEdge, true);
     t.checkExpect(cell1.rightEdge, true);
     t.checkExpect(cell1.topEdge, false);
-    t.checkExpect(cell1.bottomEdge, true);
+    t.checkExpect(cell1.bottomEdge, false);
 
     t.checkExpect(cell2.leftEdge, true);
     t.checkExpect(cell2.rightEdge, false);
     t.checkExpect(cell2.topEdge, false);
-    t.checkExpect(cell2.bottomEdge, false);
+    t.checkExpect(cell2.bottomEdge, true);
 
     t.checkExpect(cell3.leftEdge, false);
     t.checkExpect(cell3.rightEdge, true);
-    t.checkExpect(cell3.topEdge, false);
-    t.checkExpect(cell3.bottomEdge, false);
+    t.checkExpect(cell3.topEdge, true);
+    t.checkExpect(cell3.bottomEdge, true);
 
     t.checkExpect(cell4.leftEdge, true);
-    t.checkExpect(cell4.rightEdge, true);
-    t.checkExpect(cell4.topEdge, true);
-    t.checkExpect(cell4.bottomEdge, true);
+    t.checkExpect(cell4.rightEdge, false);
+    t.checkExpect(cell4.topEdge, false);
+    t.checkExpect(cell4.bottomEdge, false);
 
-    t.checkExpect(cell5.leftEdge, true);
+    t.checkExpect(cell5.leftEdge, false);
     t.checkExpect(cell5.rightEdge, false);
-    t.checkExpect(cell5.topEdge, false);
+    t.checkExpect(cell5.topEdge, true);
     t.checkExpect(cell5.bottomEdge, false);
 
     t.checkExpect(cell6.leftEdge, false);
     t.checkExpect(cell6.rightEdge, true);
-    t.checkExpect(cell6.topEdge, false);
+    t.checkExpect(cell6.topEdge, true);
     t.checkExpect(cell6.bottomEdge, false);
 
     t.checkExpect(cell7.leftEdge, true);
     t.checkExpect(cell7.rightEdge, true);
-    t.checkExpect(cell7.topEdge, true);
+    t.checkExpect(cell7.topEdge, false);
     t.checkExpect(cell7.bottomEdge, false);
 
     t.checkExpect(cell8.leftEdge, true);
@@ -1404,9 +1822,9 @@ class ExamplesMaze {
      * list123456789 maze with 4632 seed 
         ___ ___ ___ 
        | 0   1   2 | 
-       |___     ___| 
-       | 3   4   5 |
-     * |___     ___| 
+       |    ___    | 
+       | 3   4 | 5 |
+     * |    ___|___| 
        | 6   7   8 | 
        |___ ___ ___|
      * 
@@ -1457,17 +1875,15 @@ class ExamplesMaze {
 
     t.checkFail(exMaze.makeScene(), ex);
 
-    this.cell0.drawCell(ex, 200);
-    this.cell1.drawCell(ex, 200);
-    this.cell2.drawCell(ex, 200);
-    this.cell3.drawCell(ex, 200);
-    this.cell4.drawCell(ex, 200);
-    this.cell5.drawCell(ex, 200);
-    this.cell6.drawCell(ex, 200);
-    this.cell7.drawCell(ex, 200);
-    this.cell8.drawCell(ex, 200);
+    ComputedPixelImage exImage = new ComputedPixelImage(600, 600);
+    MazeCanvas exCanvas = new MazeCanvas(list123456789, 3, 3, 200);
+    exCanvas.image = exImage;
+    exCanvas.markAll();
+    exCanvas.flush();
+    ex.placeImageXY(exImage, 300, 300);
 
     t.checkExpect(exMaze.makeScene(), ex);
+    t.checkExpect(exMaze.canvas.board, list123456789);
 
     WorldScene ex1 = new WorldScene(1000, 600);
 
@@ -1491,13 +1907,361 @@ class ExamplesMaze {
 
     t.checkFail(exMaze1.makeScene(), ex1);
 
-    c0.drawCell(ex1, 300);
-    c1.drawCell(ex1, 300);
-    c2.drawCell(ex1, 300);
-    c3.drawCell(ex1, 300);
+    ComputedPixelImage exImage1 = new ComputedPixelImage(600, 600);
+    exImage1.setPixels(0, 0, 600, 600, Color.gray);
+    exImage1.setPixels(0, 0, 600, 1, Color.BLACK);
+    exImage1.setPixels(0, 299, 600, 2, Color.BLACK);
+    exImage1.setPixels(0, 599, 600, 1, Color.BLACK);
+    ex1.placeImageXY(exImage1, 300, 300);
 
     t.checkExpect(exMaze1.makeScene(), ex1);
 
+    // a step only repaints what it changed
+    exMaze = new Maze(ALU.initilizeBoard(3, 3, 200, 99), 3, 3, 200);
+    exMaze.makeScene();
+    exMaze.resetSolution(new Queue(exMaze.board.size()));
+    t.checkExpect(exMaze.canvas.dirtyCount, 9);
+    exMaze.makeScene();
+    t.checkExpect(exMaze.canvas.dirtyCount, 0);
+    exMaze.state = new Auto();
+    exMaze.mazeStep();
+    t.checkExpect(exMaze.canvas.dirtyCount, 1);
+    exMaze.mazeStep();
+    t.checkExpect(exMaze.canvas.dirtyCount, 2);
+    exMaze.makeScene();
+    t.checkExpect(exMaze.canvas.dirtyCount, 0);
+    t.checkExpect(exMaze.canvas.image.getPixel(300, 100), Color.pink);
+
+    // a new board gets a new canvas
+    exMaze.onKeyEvent("r");
+    exMaze.makeScene();
+    t.checkExpect(exMaze.canvas.board, exMaze.board);
+  }
+
+  void testCamera(Tester t) {
+    Camera camera = new Camera(3000, 40, 2);
+    t.checkExpect(camera.columns(), 500);
+    t.checkExpect(camera.rows(), 40);
+    t.checkExpect(new Camera(3, 3, 200).columns(), 3);
+    t.checkExpect(new Camera(30, 30, 300).columns(), 4);
+    t.checkExpect(new Camera(30, 30, 300).rows(), 2);
+    t.checkExpect(camera.shows(499), true);
+    t.checkExpect(camera.shows(500), false);
+    t.checkExpect(camera.shows(3000 * 39), true);
+
+    camera.pan(600, 10);
+    t.checkExpect(camera.column, 600);
+    t.checkExpect(camera.row, 0);
+    t.checkExpect(camera.shows(600), true);
+    t.checkExpect(camera.shows(599), false);
+    camera.moveTo(5000, -3);
+    t.checkExpect(camera.column, 2500);
+    camera.pan(-10000, 0);
+    t.checkExpect(camera.column, 0);
+
+    // zooming keeps the middle of the window in the middle
+    camera.moveTo(1000, 0);
+    camera.zoom(true);
+    t.checkExpect(camera.cellSize, 4);
+    t.checkExpect(camera.columns(), 250);
+    t.checkExpect(camera.rows(), 40);
+    t.checkExpect(camera.column, 1125);
+    camera.zoom(false);
+    t.checkExpect(camera.cellSize, 2);
+    t.checkExpect(camera.column, 1000);
+    t.checkExpect(camera.isDetailed(), false);
+
+    // past the smallest size, tiles stand for more and more cells, and the
+    // camera stops on tile boundaries, until the whole maze is shown
+    camera.zoom(false);
+    t.checkExpect(camera.cellSize, 2);
+    t.checkExpect(camera.level, 1);
+    t.checkExpect(camera.columns(), 1000);
+    t.checkExpect(camera.column, 750);
+    camera.pan(1, 0);
+    t.checkExpect(camera.column, 750);
+    camera.pan(3, 0);
+    t.checkExpect(camera.column, 752);
+    camera.zoom(false);
+    t.checkExpect(camera.level, 2);
+    t.checkExpect(camera.column, 252);
+    t.checkExpect(camera.showsAll(), false);
+    camera.zoom(false);
+    t.checkExpect(camera.level, 3);
+    t.checkExpect(camera.column, 0);
+    t.checkExpect(camera.showsAll(), true);
+    camera.zoom(false);
+    t.checkExpect(camera.level, 3);
+    camera.zoom(true);
+    camera.zoom(true);
+    camera.zoom(true);
+    t.checkExpect(camera.level, 0);
+    t.checkExpect(camera.cellSize, 2);
+    camera.zoom(true);
+    t.checkExpect(camera.cellSize, 4);
+    t.checkExpect(camera.isDetailed(), true);
+    camera.detail = 8;
+    t.checkExpect(camera.isDetailed(), false);
+    camera.level = 0;
+    camera.cellSize = Camera.MAX_CELL_SIZE;
+    camera.zoom(true);
+    t.checkExpect(camera.cellSize, Camera.MAX_CELL_SIZE);
+    camera.cellSize = 3;
+    camera.zoom(true);
+    t.checkExpect(camera.cellSize, 6);
+
+    // following a cell moves only when it goes out of the window
+    camera.cellSize = 2;
+    camera.moveTo(0, 0);
+    camera.follow(3000 * 5 + 499);
+    t.checkExpect(camera.column, 0);
+    camera.follow(3000 * 5 + 500);
+    t.checkExpect(camera.column, 250);
+    t.checkExpect(camera.row, 0);
+
+    t.checkConstructorException(
+        new IllegalArgumentException("Cells must be at least one pixel, given 0"), "Camera",
+        3000, 40, 0);
+  }
+
+  void testMazeCanvasCamera(Tester t) {
+    MazeGrid grid = new MazeGrid(3000, 10);
+    new SidewinderGenerator().generate(grid, 6);
+    ArrayList<Cell> board = ALU.toBoard(grid, 4);
+    Camera camera = new Camera(3000, 10, 4);
+    MazeCanvas canvas = new MazeCanvas(board, camera);
+
+    t.checkExpect(canvas.image.width, 1000);
+    t.checkExpect(canvas.image.height, 40);
+    t.checkExpect(canvas.dirty.length, 2500);
+    // cell 0 is pink, with a wall above it
+    t.checkExpect(canvas.image.getPixel(1, 1), Color.pink);
+    t.checkExpect(canvas.image.getPixel(1, 0), Color.BLACK);
+
+    // cells out of the window are not painted
+    board.get(600).changeColor(Color.red);
+    canvas.markDirty(board.get(600));
+    board.get(20).changeColor(Color.red);
+    canvas.markDirty(board.get(20));
+    t.checkExpect(canvas.flush(), 1);
+    t.checkExpect(canvas.image.getPixel(81, 1), Color.red);
+
+    // moving the camera repaints the window, and only the window
+    camera.pan(500, 0);
+    canvas.markDirty(board.get(600));
+    t.checkExpect(canvas.dirtyCount, 0);
+    t.checkExpect(canvas.flush(), 2500);
+    t.checkExpect(canvas.image.getPixel(401, 1), Color.red);
+    t.checkExpect(canvas.flush(), 0);
+
+    camera.zoom(true);
+    t.checkExpect(canvas.flush(), 1250);
+    t.checkExpect(canvas.image.width, 1000);
+    t.checkExpect(canvas.image.height, 80);
+  }
+
+  void testMazeViewport(Tester t) {
+    // a maze too wide to fit is drawn at the smallest size, and panned around
+    MazeGrid grid = new MazeGrid(3000, 10);
+    for (int name = 0; name < 2999; name = name + 1) {
+      grid.open((name << 1) | MazeGrid.RIGHT);
+    }
+    Maze maze = new Maze(grid);
+    t.checkExpect(maze.cellSize, Camera.MIN_CELL_SIZE);
+
+    maze.onKeyEvent("l");
+    t.checkExpect(maze.camera.column, 250);
+    maze.onKeyEvent("k");
+    t.checkExpect(maze.camera.row, 0);
+    maze.onKeyEvent("j");
+    t.checkExpect(maze.camera.column, 0);
+    maze.onKeyEvent("=");
+    t.checkExpect(maze.camera.cellSize, 4);
+    maze.onKeyEvent("+");
+    t.checkExpect(maze.camera.cellSize, 8);
+    maze.makeScene();
+    t.checkExpect(maze.canvas.image.width, 1000);
+    t.checkExpect(maze.canvas.isCurrent(), true);
+    maze.onKeyEvent("-");
+    t.checkExpect(maze.camera.cellSize, 4);
+
+    // the camera follows the cursor along the top row
+    maze.onKeyEvent("right");
+    for (int i = 0; i < 300; i = i + 1) {
+      maze.onKeyEvent("right");
+    }
+    t.checkExpect(maze.search.worklist.remove(), 300);
+    t.checkExpect(maze.camera.column, 125);
+    t.checkExpect(maze.camera.shows(300), true);
+    t.checkExpect(maze.makeScene() != null, true);
+    t.checkExpect(maze.canvas.column, 125);
+    t.checkExpect(maze.canvas.dirtyCount, 0);
+    t.checkExpect(maze.canvas.image.getPixel((300 - 125) * 4 + 1, 1), Color.pink);
+  }
+
+  void testMazePyramid(Tester t) {
+    // 5 x 3, every cell open to the right but the last column, which opens down
+    MazeGrid grid = new MazeGrid(5, 3);
+    for (int name = 0; name < 15; name = name + 1) {
+      if (grid.column(name) < 4) {
+        grid.open((name << 1) | MazeGrid.RIGHT);
+      }
+      else if (name < 14) {
+        grid.open((name << 1) | MazeGrid.DOWN);
+      }
+    }
+    ArrayList<Cell> board = ALU.toBoard(grid, 10);
+    MazePyramid pyramid = new MazePyramid(board, 5, 3);
+
+    t.checkExpect(pyramid.levels(), 4);
+    t.checkExpect(pyramid.across, new int[] { 5, 3, 2, 1 });
+    t.checkExpect(pyramid.down, new int[] { 3, 2, 1, 1 });
+    // only bottom walls are closed: 8 of them between the rows
+    t.checkExpect(pyramid.walls[1], new int[] { 4, 4, 0, 0, 0, 0 });
+    t.checkExpect(pyramid.walls[2], new int[] { 8, 0 });
+    t.checkExpect(pyramid.walls[3], new int[] { 8 });
+    // the first cell is pink and the last green
+    t.checkExpect(pyramid.visited[3], new int[] { 1 });
+    t.checkExpect(pyramid.solution[3], new int[] { 1 });
+    t.checkExpect(pyramid.solution[1], new int[] { 0, 0, 0, 0, 0, 1 });
+    t.checkExpect(pyramid.tileOf(1, 14), 5);
+    t.checkExpect(pyramid.tileOf(4, 14), -1);
+    t.checkExpect(pyramid.cellsIn(1, 2, 1), 1L);
+    t.checkExpect(pyramid.cellsIn(2, 0, 0), 12L);
+    t.checkExpect(pyramid.cellsIn(3, 0, 0), 15L);
+
+    board.get(6).changeColor(Color.pink);
+    pyramid.update(board.get(6));
+    pyramid.update(board.get(6));
+    board.get(0).changeColor(Color.green);
+    pyramid.update(board.get(0));
+    t.checkExpect(pyramid.visited[1], new int[] { 1, 0, 0, 0, 0, 0 });
+    t.checkExpect(pyramid.solution[2], new int[] { 1, 1 });
+    t.checkExpect(pyramid.visited[3], new int[] { 1 });
+    t.checkExpect(pyramid.solution[3], new int[] { 2 });
+    board.get(6).changeColor(Color.gray);
+    pyramid.update(board.get(6));
+    t.checkExpect(pyramid.visited[3], new int[] { 0 });
+
+    for (Cell c : board) {
+      c.changeColor(Color.pink);
+    }
+    pyramid.recolor();
+    t.checkExpect(pyramid.visited[3], new int[] { 15 });
+    t.checkExpect(pyramid.solution[3], new int[] { 0 });
+
+    // a tile is gray, darker for its walls, mixed with how much of it is visited
+    t.checkExpect(pyramid.mix(0, 0, 0), new Color(160, 160, 160));
+    t.checkExpect(pyramid.mix(31, 0, 0), new Color(30, 30, 30));
+    t.checkExpect(pyramid.mix(0, 31, 0), Color.pink);
+    t.checkExpect(pyramid.mix(0, 0, 31), Color.green);
+    t.checkExpect(pyramid.colorOf(3, 0, 0), pyramid.mix(8 * 31 / 30, 31, 0));
+    t.checkExpect(pyramid.colorOf(0, 4, 0), pyramid.mix(0, 31, 0));
+    t.checkExpect(pyramid.colorOf(0, 0, 0), pyramid.mix(15, 31, 0));
+    t.checkExpect(pyramid.colorOf(3, 0, 0) == pyramid.colorOf(3, 0, 0), true);
+
+    t.checkExpect(new MazePyramid(ALU.toBoard(new MazeGrid(1, 1), 10), 1, 1).levels(), 1);
+  }
+
+  void testPyramidCanvas(Tester t) {
+    MazeGrid grid = new MazeGrid(3000, 2000);
+    new BinaryTreeGenerator().generate(grid, 2);
+    ArrayList<Cell> board = ALU.toBoard(grid, 2);
+    Camera camera = new Camera(3000, 2000, 2);
+    camera.zoom(false);
+    camera.zoom(false);
+    t.checkExpect(camera.level, 2);
+    MazePyramid pyramid = new MazePyramid(board, 3000, 2000);
+    PyramidCanvas overview = new PyramidCanvas(pyramid, camera);
+
+    t.checkExpect(overview.across(), 500);
+    t.checkExpect(overview.down(), 300);
+    t.checkExpect(overview.image.width, 1000);
+    t.checkExpect(overview.dirtyCount, 0);
+    t.checkExpect(overview.image.getPixel(0, 0), pyramid.colorOf(2, 0, 0));
+
+    // a cell marks its tile, once
+    board.get(3000 * 5 + 9).changeColor(Color.pink);
+    pyramid.update(board.get(3000 * 5 + 9));
+    overview.markDirty(board.get(3000 * 5 + 9));
+    overview.markDirty(board.get(3000 * 5 + 10));
+    overview.markDirty(board.get(3000 * 1999));
+    t.checkExpect(overview.dirtyCount, 1);
+    t.checkExpect(overview.flush(), 1);
+    t.checkExpect(overview.image.getPixel(4, 2), pyramid.colorOf(2, 2, 1));
+    t.checkFail(pyramid.colorOf(2, 2, 1), pyramid.colorOf(2, 2, 2));
+
+    overview.markAll();
+    t.checkExpect(overview.flush(), 150000);
+    camera.zoom(false);
+    t.checkExpect(camera.showsAll(), true);
+    t.checkExpect(overview.flush(), 375 * 250);
+    t.checkExpect(overview.image.width, 750);
+    camera.zoom(false);
+    t.checkExpect(camera.level, 3);
+    t.checkExpect(overview.flush(), 0);
+  }
+
+  void testMazeZoomedOut(Tester t) {
+    MazeGrid grid = new MazeGrid(3000, 2000);
+    new SidewinderGenerator().generate(grid, 2);
+    Maze maze = new Maze(grid);
+    maze.makeScene();
+    t.checkExpect(maze.canvas, null);
+    t.checkExpect(maze.overview.image.width, 1000);
+    t.checkExpect(maze.pyramid.board == maze.board, true);
+
+    // steps of a search move cells between counts as they go
+    maze.onKeyEvent("b");
+    maze.stepsPerTick = 1000;
+    maze.onTick();
+    t.checkExpect(maze.pyramid.visited[maze.pyramid.levels() - 1][0], 1000);
+    t.checkExpect(maze.overview.dirtyCount > 0, true);
+    maze.makeScene();
+    t.checkExpect(maze.overview.dirtyCount, 0);
+
+    // zoomed in, the cells are drawn one by one, and the pyramid kept up
+    maze.onKeyEvent("=");
+    maze.onKeyEvent("=");
+    maze.makeScene();
+    t.checkExpect(maze.canvas.image.width, 1000);
+    maze.onTick();
+    t.checkExpect(maze.pyramid.visited[maze.pyramid.levels() - 1][0], 2000);
+
+    maze.onKeyEvent("b");
+    t.checkExpect(maze.pyramid.visited[maze.pyramid.levels() - 1][0], 1);
+    maze.onKeyEvent("r");
+    maze.onKeyEvent("-");
+    maze.onKeyEvent("-");
+    maze.makeScene();
+    t.checkExpect(maze.pyramid.board == maze.board, true);
+  }
+
+  void testMazeCanvas(Tester t) {
+    initData();
+    ALU.createMaze(list123456789, 99);
+    MazeCanvas canvas = new MazeCanvas(list123456789, 3, 3, 200);
+
+    t.checkExpect(canvas.image.width, 600);
+    t.checkExpect(canvas.dirtyCount, 0);
+    // cell0 is pink and only open to the right
+    t.checkExpect(canvas.image.getPixel(100, 100), Color.pink);
+    t.checkExpect(canvas.image.getPixel(0, 100), Color.BLACK);
+    t.checkExpect(canvas.image.getPixel(100, 0), Color.BLACK);
+    t.checkExpect(canvas.image.getPixel(199, 100), Color.pink);
+    t.checkExpect(canvas.image.getPixel(100, 199), Color.BLACK);
+
+    this.cell4.changeColor(Color.red);
+    canvas.markDirty(this.cell4);
+    canvas.markDirty(this.cell4);
+    t.checkExpect(canvas.dirtyCount, 1);
+    t.checkExpect(canvas.image.getPixel(300, 300), Color.gray);
+    t.checkExpect(canvas.flush(), 1);
+    t.checkExpect(canvas.image.getPixel(300, 300), Color.red);
+    t.checkExpect(canvas.flush(), 0);
+
+    canvas.markAll();
+    t.checkExpect(canvas.flush(), 9);
   }
 
   void testDrawCell(Tester t) {
@@ -1546,31 +2310,6 @@ class ExamplesMaze {
 
   }
 
-  void testMakeEdge(Tester t) {
-    initData();
-
-    ArrayList<Edge> MtListEdge = new ArrayList<Edge>();
-
-    t.checkExpect(cell0.name, 0);
-    t.checkExpect(cell1.name, 1);
-
-    t.checkExpect(MtListEdge.size(), 0);
-
-    cell0.makeEdge(cell1, MtListEdge);
-    t.checkExpect(MtListEdge.size(), 1);
-    t.checkExpect(MtListEdge.get(0), new Edge(1, 0));
-
-    cell0.makeEdge(cell3, MtListEdge);
-    t.checkExpect(MtListEdge.size(), 2);
-    t.checkExpect(MtListEdge.get(1), new Edge(3, 0));
-
-    Cell cell10 = null;
-    cell0.makeEdge(cell10, MtListEdge);
-    // since cell10 is null, add nothing
-    t.checkExpect(MtListEdge.size(), 2);
-
-  }
-
   void testChangeColor(Tester t) {
 
     Cell cellTest = new Cell(1, 50, 50);
@@ -1584,24 +2323,56 @@ class ExamplesMaze {
 
   }
 
-  void testFind(Tester t) {
-    initData();
+  void testUnionFindFind(Tester t) {
+    UnionFind uf = new UnionFind(9);
+
+    t.checkExpect(uf.find(0), 0);
+    t.checkExpect(uf.find(5), 5);
+    t.checkExpect(uf.find(8), 8);
+
+    // build the chain 0 -> 1 -> 2 -> 3 by hand
+    uf.parent[0] = 1;
+    uf.parent[1] = 2;
+    uf.parent[2] = 3;
+
+    t.checkExpect(uf.find(0), 3);
+    // path halving points 0 at its old grandparent
+    t.checkExpect(uf.parent[0], 2);
+    t.checkExpect(uf.find(0), 3);
+    t.checkExpect(uf.parent[0], 3);
+    t.checkExpect(uf.find(1), 3);
+  }
+
+  void testUnionFindUnion(Tester t) {
+    UnionFind uf = new UnionFind(9);
+
+    t.checkExpect(uf.connected(2, 5), false);
+    t.checkExpect(uf.union(2, 5), true);
+    t.checkExpect(uf.connected(2, 5), true);
+    t.checkExpect(uf.rank[2], (byte) 1);
+    t.checkExpect(uf.parent[5], 2);
 
-    t.checkExpect(HMU.find(rep1, 1), 1);
-    t.checkExpect(HMU.find(rep1, 2), 2);
-    t.checkExpect(HMU.find(rep1, 8), 8);
-    t.checkExpect(HMU.find(rep1, 5), 5);
+    // joining again does nothing
+    t.checkExpect(uf.union(5, 2), false);
+    t.checkExpect(uf.rank[2], (byte) 1);
 
-    rep1.replace(2, 5);
-    t.checkExpect(HMU.find(rep1, 2), 5);
-    t.checkExpect(HMU.find(rep1, 5), 5);
-    rep1.replace(5, 8);
-    t.checkExpect(HMU.find(rep1, 2), 8);
-    t.checkExpect(HMU.find(rep1, 5), 8);
-    t.checkExpect(HMU.find(rep1, 8), 8);
+    // the shorter tree hangs under the taller one
+    t.checkExpect(uf.union(8, 5), true);
+    t.checkExpect(uf.parent[8], 2);
+    t.checkExpect(uf.rank[2], (byte) 1);
+    t.checkExpect(uf.connected(8, 2), true);
+    t.checkExpect(uf.connected(8, 0), false);
+
+    // a long line of unions stays shallow
+    UnionFind big = new UnionFind(100000);
+    for (int i = 1; i < 100000; i = i + 1) {
+      big.union(i - 1, i);
+    }
+    t.checkExpect(big.find(99999), big.find(0));
+    t.checkExpect(big.rank[big.find(0)] <= 17, true);
   }
 
-  void testUnionCells(Tester t) {
+  void testUnionOnBoard(Tester t) {
     initData();
 
     t.checkExpect(list123456789.get(0).rightEdge, false);
@@ -1613,7 +2384,7 @@ class ExamplesMaze {
     t.checkExpect(list123456789.get(1).topEdge, false);
     t.checkExpect(list123456789.get(1).bottomEdge, false);
 
-    edge1.unionCells(list123456789);
+    list123456789.get(0).union(list123456789.get(1));
 
     t.checkExpect(list123456789.get(0).rightEdge, true);
     t.checkExpect(list123456789.get(0).leftEdge, false);
@@ -1633,7 +2404,7 @@ class ExamplesMaze {
     t.checkExpect(list123456789.get(8).topEdge, false);
     t.checkExpect(list123456789.get(8).bottomEdge, false);
 
-    edge12.unionCells(list123456789);
+    list123456789.get(5).union(list123456789.get(8));
 
     t.checkExpect(list123456789.get(5).rightEdge, false);
     t.checkExpect(list123456789.get(5).leftEdge, false);
@@ -1785,4 +2556,1383 @@ class ExamplesMaze {
 
   }
 
+  void testMazeGridConstructor(Tester t) {
+    MazeGrid grid = new MazeGrid(3, 3);
+
+    t.checkExpect(grid.size(), 9);
+    // 18 bits fit in one long
+    t.checkExpect(grid.edges, new long[1]);
+    t.checkExpect(new MazeGrid(32, 1).edges.length, 1);
+    t.checkExpect(new MazeGrid(33, 1).edges.length, 2);
+    t.checkExpect(new MazeGrid(1000, 1000).edges.length, 31250);
+
+    t.checkConstructorException(
+        new IllegalArgumentException("A maze needs at least one cell, given 0 x 3"), "MazeGrid",
+        0, 3);
+    t.checkConstructorException(
+        new IllegalArgumentException(
+            "A maze can have at most 1073741823 cells, given 100000 x 100000"),
+        "MazeGrid", 100000, 100000);
+  }
+
+  void testMazeGridColumnRow(Tester t) {
+    MazeGrid grid = new MazeGrid(5, 3);
+
+    t.checkExpect(grid.column(0), 0);
+    t.checkExpect(grid.row(0), 0);
+    t.checkExpect(grid.column(7), 2);
+    t.checkExpect(grid.row(7), 1);
+    t.checkExpect(grid.column(14), 4);
+    t.checkExpect(grid.row(14), 2);
+  }
+
+  void testMazeGridOpen(Tester t) {
+    MazeGrid grid = new MazeGrid(3, 3);
+
+    t.checkExpect(grid.isOpen(4 << 1 | MazeGrid.RIGHT), false);
+    grid.open(4 << 1 | MazeGrid.RIGHT);
+    t.checkExpect(grid.isOpen(4 << 1 | MazeGrid.RIGHT), true);
+    t.checkExpect(grid.isOpen(4 << 1 | MazeGrid.DOWN), false);
+    t.checkExpect(grid.edges[0], 1L << 8);
+
+    // edges past the first long
+    MazeGrid wide = new MazeGrid(40, 2);
+    wide.open(39 << 1 | MazeGrid.DOWN);
+    t.checkExpect(wide.isOpen(39 << 1 | MazeGrid.DOWN), true);
+    t.checkExpect(wide.edges[1], 1L << 15);
+    t.checkExpect(wide.edges[0], 0L);
+  }
+
+  void testMazeGridSetWord(Tester t) {
+    MazeGrid grid = new MazeGrid(5, 3);
+
+    // the first 32 cells at once; cell 15 is past the last
+    grid.setWord(0, MazeGrid.RIGHTS);
+    t.checkExpect(grid.hasRightEdge(0), true);
+    t.checkExpect(grid.hasBottomEdge(0), false);
+    t.checkExpect(grid.word(0), MazeGrid.RIGHTS);
+    grid.clearPast();
+    t.checkExpect(grid.word(0), MazeGrid.RIGHTS & ((1L << 30) - 1));
+
+    // one cell's two bits, leaving its neighbors alone
+    grid.setEdges(7, 1 << MazeGrid.DOWN);
+    t.checkExpect(grid.hasRightEdge(7), false);
+    t.checkExpect(grid.hasBottomEdge(7), true);
+    t.checkExpect(grid.hasRightEdge(6), true);
+    t.checkExpect(grid.hasRightEdge(8), true);
+    grid.setEdges(7, 0);
+    t.checkExpect(grid.hasTopEdge(12), false);
+
+    // a grid that fills its last long has nothing past its last cell
+    MazeGrid full = new MazeGrid(8, 4);
+    full.setWord(0, -1L);
+    full.clearPast();
+    t.checkExpect(full.word(0), -1L);
+  }
+
+  void testMazeGridEdges(Tester t) {
+    MazeGrid grid = new MazeGrid(3, 3);
+    new KruskalGenerator().generate(grid, 4632);
+
+    // list123456789 maze with 4632 seed, see testCreateMaze
+    t.checkExpect(grid.hasRightEdge(0), true);
+    t.checkExpect(grid.hasBottomEdge(0), true);
+    t.checkExpect(grid.hasLeftEdge(0), false);
+    t.checkExpect(grid.hasTopEdge(0), false);
+
+    t.checkExpect(grid.hasLeftEdge(4), true);
+    t.checkExpect(grid.hasRightEdge(4), false);
+    t.checkExpect(grid.hasTopEdge(4), false);
+    t.checkExpect(grid.hasBottomEdge(4), false);
+
+    t.checkExpect(grid.hasTopEdge(5), true);
+    t.checkExpect(grid.hasLeftEdge(5), false);
+    t.checkExpect(grid.hasRightEdge(2), false);
+
+    // the right edge of the end of a row never leads to the next row
+    MazeGrid open = new MazeGrid(3, 3);
+    open.open(2 << 1 | MazeGrid.RIGHT);
+    t.checkExpect(open.hasLeftEdge(3), false);
+  }
+
+  void testMazeGridNeighbors(Tester t) {
+    MazeGrid grid = new MazeGrid(3, 3);
+    new KruskalGenerator().generate(grid, 4632);
+    int[] into = new int[4];
+
+    t.checkExpect(grid.neighbors(0, into), 2);
+    t.checkExpect(into, new int[] { 3, 1, 0, 0 });
+    t.checkExpect(grid.neighbors(3, into), 3);
+    t.checkExpect(into, new int[] { 0, 6, 4, 0 });
+    t.checkExpect(grid.neighbors(8, into), 1);
+    t.checkExpect(into[0], 7);
+
+    // the same cells as Cell.neighbors, in the same order
+    initData();
+    ALU.createMaze(list123456789, 4632);
+    for (Cell c : list123456789) {
+      int count = grid.neighbors(c.name, into);
+      ArrayList<Cell> expected = c.neighbors();
+      t.checkExpect(count, expected.size());
+      for (int k = 0; k < count; k = k + 1) {
+        t.checkExpect(into[k], expected.get(k).name);
+      }
+    }
+  }
+
+  void testMazeGridFindNext(Tester t) {
+    MazeGrid grid = new MazeGrid(3, 3);
+    new KruskalGenerator().generate(grid, 4632);
+
+    t.checkExpect(grid.findNext(0, "left"), -1);
+    t.checkExpect(grid.findNext(0, "up"), -1);
+    t.checkExpect(grid.findNext(0, "right"), 1);
+    t.checkExpect(grid.findNext(0, "down"), 3);
+    t.checkExpect(grid.findNext(4, "right"), -1);
+    t.checkExpect(grid.findNext(4, "left"), 3);
+    t.checkExpect(grid.findNext(5, "up"), 2);
+    t.checkExpect(grid.findNext(5, "x"), -1);
+  }
+
+  void testMazeGridXY(Tester t) {
+    MazeGrid grid = new MazeGrid(3, 3);
+
+    t.checkExpect(grid.x(0, 200), 100);
+    t.checkExpect(grid.y(0, 200), 100);
+    t.checkExpect(grid.x(5, 200), 500);
+    t.checkExpect(grid.y(5, 200), 300);
+    t.checkExpect(grid.x(7, 10), 15);
+    t.checkExpect(grid.y(7, 10), 25);
+  }
+
+  void testToBoard(Tester t) {
+    initData();
+    MazeGrid grid = new MazeGrid(3, 3);
+    new KruskalGenerator().generate(grid, 99);
+    ALU.createMaze(list123456789, 99);
+
+    t.checkExpect(ALU.toBoard(grid, 200), list123456789);
+    t.checkExpect(ALU.toBoard(new MazeGrid(1, 1), 10).size(), 1);
+    t.checkExpect(ALU.toBoard(new MazeGrid(1, 1), 10).get(0).color, Color.green);
+  }
+
+  void testToGrid(Tester t) {
+    initData();
+    MazeGrid grid = new MazeGrid(3, 3);
+    new KruskalGenerator().generate(grid, 99);
+
+    t.checkExpect(ALU.toGrid(list123456789), new MazeGrid(3, 3));
+    ALU.createMaze(list123456789, 99);
+    t.checkExpect(ALU.toGrid(list123456789), grid);
+
+    MazeGrid big = new MazeGrid(100, 60);
+    new KruskalGenerator().generate(big, 476);
+    t.checkExpect(ALU.toGrid(ALU.toBoard(big, 10)), big);
+  }
+
+  void testMazeBatchGenerate(Tester t) {
+    MazeBatch batch = new MazeBatch(20, 12);
+    MazeGrid grid = new MazeGrid(20, 12);
+    new KruskalGenerator().generate(grid, 444);
+
+    t.checkExpect(batch.generate(444), grid);
+    t.checkFail(batch.generate(445), grid);
+  }
+
+  void testMazeBatchFileFor(Tester t) {
+    MazeBatch batch = new MazeBatch(20, 12);
+
+    t.checkExpect(batch.fileFor(new File("out"), 17), new File("out", "maze-17.maze"));
+  }
+
+  void testMazeBatchWrite(Tester t) throws IOException {
+    MazeBatch batch = new MazeBatch(40, 2);
+    MazeGrid grid = batch.generate(12);
+    File file = File.createTempFile("maze", ".maze");
+    file.deleteOnExit();
+
+    batch.write(grid, 12, file);
+
+    // 32 bytes of header, then 160 bits of edges in 3 longs
+    t.checkExpect(file.length(), 56L);
+    MappedMazeGrid read = new MazeFile().read(file);
+    t.checkExpect(read.seed, 12L);
+    t.checkExpect(read.algorithm, MazeFile.KRUSKAL);
+    t.checkExpect(read.toHeap(), grid);
+  }
+
+  void testMazeBatchRun(Tester t) throws IOException {
+    MazeBatch batch = new MazeBatch(10, 10);
+    File dir = Files.createTempDirectory("mazes").toFile();
+
+    BatchReport report = batch.run(5, 9, dir);
+
+    t.checkExpect(report.mazes, 5L);
+    t.checkExpect(dir.list().length, 5);
+    t.checkExpect(batch.fileFor(dir, 5).exists(), true);
+    t.checkExpect(batch.fileFor(dir, 9).exists(), true);
+    t.checkExpect(batch.fileFor(dir, 10).exists(), false);
+
+    for (File f : dir.listFiles()) {
+      f.delete();
+    }
+    dir.delete();
+  }
+
+  void testMazeBatchSeeds(Tester t) throws IOException {
+    MazeBatch batch = new MazeBatch(3, 2);
+
+    t.checkExpect(batch.seeds(5, 9), 5L);
+    t.checkExpect(batch.seeds(9, 9), 1L);
+    t.checkExpect(batch.seeds(9, 5), 0L);
+    t.checkExpect(batch.seeds(0, Long.MAX_VALUE - 1), Long.MAX_VALUE);
+    t.checkExpect(batch.seeds(-1, Long.MAX_VALUE - 2), Long.MAX_VALUE);
+    t.checkException(new IllegalArgumentException("Too many seeds from 0 to "
+        + Long.MAX_VALUE + " to count"), batch, "seeds", 0L, Long.MAX_VALUE);
+    t.checkException(new IllegalArgumentException("Too many seeds from " + Long.MIN_VALUE
+        + " to " + Long.MAX_VALUE + " to count"), batch, "seeds", Long.MIN_VALUE,
+        Long.MAX_VALUE);
+
+    // the last seeds there are end the batch instead of wrapping around
+    File dir = Files.createTempDirectory("mazes").toFile();
+    t.checkExpect(batch.run(Long.MAX_VALUE - 2, Long.MAX_VALUE, dir).mazes, 3L);
+    t.checkExpect(dir.list().length, 3);
+    t.checkExpect(batch.fileFor(dir, Long.MAX_VALUE).exists(), true);
+    t.checkExpect(batch.runParallel(Long.MAX_VALUE - 9, Long.MAX_VALUE, dir, 2).mazes, 10L);
+    t.checkExpect(dir.list().length, 10);
+    for (File f : dir.listFiles()) {
+      f.delete();
+    }
+    dir.delete();
+
+    ArrayList<Long> seen = new ArrayList<Long>();
+    batch.generateAll(Long.MAX_VALUE - 1, Long.MAX_VALUE, 2, true, new IMazeSink() {
+      public void accept(long seed, MazeGrid grid) {
+        seen.add(seed);
+      }
+    });
+    t.checkExpect(seen.size(), 2);
+    t.checkExpect(seen.get(1), Long.MAX_VALUE);
+    t.checkExpect(batch.run(9, 5, Files.createTempDirectory("mazes").toFile()).mazes, 0L);
+  }
+
+  void testBatchReport(Tester t) {
+    BatchReport report = new BatchReport(500, 2000000000L);
+
+    t.checkInexact(report.mazesPerSecond(), 250.0, 0.001);
+    t.checkExpect(report.toString(), "500 mazes in 2.000 s (250.0 mazes/s)");
+  }
+
+  void testMazeBatchRunParallel(Tester t) throws IOException {
+    MazeBatch batch = new MazeBatch(17, 9);
+    File serialDir = Files.createTempDirectory("mazes").toFile();
+    File parallelDir = Files.createTempDirectory("mazes").toFile();
+
+    batch.run(1, 40, serialDir);
+    BatchReport report = batch.runParallel(1, 40, parallelDir, 3);
+
+    t.checkExpect(report.mazes, 40L);
+    t.checkExpect(parallelDir.list().length, 40);
+    // every file is the same bytes as the single threaded run
+    for (long seed = 1; seed <= 40; seed = seed + 1) {
+      t.checkExpect(Files.readAllBytes(batch.fileFor(parallelDir, seed).toPath()),
+          Files.readAllBytes(batch.fileFor(serialDir, seed).toPath()));
+    }
+
+    for (File dir : new File[] { serialDir, parallelDir }) {
+      for (File f : dir.listFiles()) {
+        f.delete();
+      }
+      dir.delete();
+    }
+  }
+
+  void testMazeBatchGenerateAll(Tester t) throws IOException {
+    MazeBatch batch = new MazeBatch(12, 8);
+    ArrayList<SeededMaze> inOrder = new ArrayList<SeededMaze>();
+    ArrayList<SeededMaze> asDone = new ArrayList<SeededMaze>();
+
+    BatchReport report = batch.generateAll(100, 149, 4, true, new IMazeSink() {
+      public void accept(long seed, MazeGrid grid) {
+        inOrder.add(new SeededMaze(seed, grid));
+      }
+    });
+    batch.generateAll(100, 149, 4, false, new IMazeSink() {
+      public void accept(long seed, MazeGrid grid) {
+        asDone.add(new SeededMaze(seed, grid));
+      }
+    });
+
+    t.checkExpect(report.mazes, 50L);
+    t.checkExpect(inOrder.size(), 50);
+    t.checkExpect(asDone.size(), 50);
+    for (int i = 0; i < 50; i = i + 1) {
+      t.checkExpect(inOrder.get(i).seed, 100L + i);
+      t.checkExpect(inOrder.get(i).grid, batch.generate(100 + i));
+    }
+
+    // every seed shows up once, whatever the order
+    boolean[] seen = new boolean[50];
+    for (SeededMaze m : asDone) {
+      seen[(int) (m.seed - 100)] = true;
+      t.checkExpect(m.grid, batch.generate(m.seed));
+    }
+    for (boolean b : seen) {
+      t.checkExpect(b, true);
+    }
+  }
+
+  // is the given grid a perfect maze, with exactly one path between any two cells?
+  boolean isPerfect(MazeGrid grid) {
+    UnionFind sets = new UnionFind(grid.size());
+    int open = 0;
+    boolean noLoops = true;
+
+    for (int name = 0; name < grid.size(); name = name + 1) {
+      if (grid.hasRightEdge(name)) {
+        open = open + 1;
+        noLoops = noLoops && grid.column(name) < grid.length - 1 && sets.union(name, name + 1);
+      }
+      if (grid.hasBottomEdge(name)) {
+        open = open + 1;
+        noLoops = noLoops && grid.row(name) < grid.height - 1
+            && sets.union(name, name + grid.length);
+      }
+    }
+    return noLoops && open == grid.size() - 1;
+  }
+
+  // can you travel between any two cells of the given grid?
+  boolean isConnected(MazeGrid grid) {
+    UnionFind sets = new UnionFind(grid.size());
+    int joined = 0;
+
+    for (int name = 0; name < grid.size(); name = name + 1) {
+      if (grid.hasRightEdge(name) && sets.union(name, name + 1)) {
+        joined = joined + 1;
+      }
+      if (grid.hasBottomEdge(name) && sets.union(name, name + grid.length)) {
+        joined = joined + 1;
+      }
+    }
+    return joined == grid.size() - 1;
+  }
+
+  // is there more than one path between some two cells of the given grid?
+  boolean hasLoop(MazeGrid grid) {
+    UnionFind sets = new UnionFind(grid.size());
+    boolean loop = false;
+
+    for (int name = 0; name < grid.size(); name = name + 1) {
+      if (grid.hasRightEdge(name)) {
+        loop = loop || !sets.union(name, name + 1);
+      }
+      if (grid.hasBottomEdge(name)) {
+        loop = loop || !sets.union(name, name + grid.length);
+      }
+    }
+    return loop;
+  }
+
+  // returns how many walls of the given grid are open
+  int openEdges(MazeGrid grid) {
+    int open = 0;
+    for (int name = 0; name < grid.size(); name = name + 1) {
+      if (grid.hasRightEdge(name)) {
+        open = open + 1;
+      }
+      if (grid.hasBottomEdge(name)) {
+        open = open + 1;
+      }
+    }
+    return open;
+  }
+
+  // returns the maze the first createMaze made for the given seed, which
+  // the fixtures written before mazes were shuffled expect: it listed the
+  // edge to the left and then above every cell, and drew edges from the list
+  // with java.util.Random, keeping each that joined two sets, until every
+  // cell was joined. It never drew the last edge in the list, so a single
+  // row or column never finishes
+  MazeGrid baselineMaze(int length, int height, int seed) {
+    MazeGrid grid = new MazeGrid(length, height);
+    KruskalGenerator kruskal = new KruskalGenerator();
+    ArrayList<Integer> edges = new ArrayList<Integer>();
+    for (int name = 0; name < grid.size(); name = name + 1) {
+      if (grid.column(name) > 0) {
+        edges.add((name - 1) << 1 | MazeGrid.RIGHT);
+      }
+      if (name >= length) {
+        edges.add((name - length) << 1 | MazeGrid.DOWN);
+      }
+    }
+
+    UnionFind sets = new UnionFind(grid.size());
+    Random rand = new Random(seed);
+    int used = 0;
+    while (used < grid.size() - 1) {
+      int e = edges.get(rand.nextInt(edges.size() - 1));
+      if (sets.union(e >>> 1, kruskal.to(e, length))) {
+        grid.open(e);
+        edges.remove(Integer.valueOf(e));
+        used = used + 1;
+      }
+    }
+    return grid;
+  }
+
+  // the fixtures from before mazes were shuffled, run against the mazes
+  // they were written for
+  void testBaselineFixtures(Tester t) {
+    MazeGrid grid = this.baselineMaze(3, 3, 4632);
+
+    // createMaze, seed 4632
+    //  ___ ___ ___
+    // | 0   1   2 |
+    // |___     ___|
+    // | 3   4   5 |
+    // |___     ___|
+    // | 6   7   8 |
+    // |___ ___ ___|
+    ArrayList<Cell> board = ALU.toBoard(grid, 200);
+    t.checkExpect(board.get(1).bottomEdge, true);
+    t.checkExpect(board.get(2).bottomEdge, false);
+    t.checkExpect(board.get(4).leftEdge, true);
+    t.checkExpect(board.get(4).rightEdge, true);
+    t.checkExpect(board.get(4).topEdge, true);
+    t.checkExpect(board.get(4).bottomEdge, true);
+    t.checkExpect(board.get(5).topEdge, false);
+    t.checkExpect(board.get(7).topEdge, true);
+    t.checkExpect(board.get(8).leftEdge, true);
+    // createMaze, seeds 99 and 109
+    t.checkExpect(this.baselineMaze(3, 3, 99).hasRightEdge(0), true);
+    t.checkExpect(this.baselineMaze(3, 3, 99).hasBottomEdge(0), false);
+    t.checkExpect(this.baselineMaze(2, 2, 109).hasRightEdge(0), true);
+    t.checkExpect(this.baselineMaze(2, 2, 109).hasBottomEdge(0), true);
+    t.checkExpect(this.baselineMaze(2, 2, 109).hasRightEdge(2), true);
+
+    // findCorrectPath
+    Search bfs = new Search(grid, new Queue(9), 0, 8);
+    bfs.solve();
+    t.checkExpect(bfs.path(), new int[] { 0, 1, 4, 7, 8 });
+    t.checkExpect(bfs.cameFrom[3], 4);
+    t.checkExpect(bfs.cameFrom[6], 7);
+
+    // mazeStep
+    Maze maze = new Maze(grid);
+    Cell m0 = maze.board.get(0);
+    Cell m1 = maze.board.get(1);
+    maze.state = new Auto();
+    maze.resetSolution(new Queue(9));
+    maze.mazeStep();
+    t.checkExpect(maze.search.frontier(), 1);
+    t.checkExpect(maze.search.cameFrom[1], 0);
+    t.checkExpect(m0.color, Color.pink);
+    t.checkExpect(m1.color, Color.gray);
+    maze.mazeStep();
+    t.checkExpect(maze.search.frontier(), 2);
+    t.checkExpect(maze.search.cameFrom[4], 1);
+    t.checkExpect(maze.search.cameFrom[2], 1);
+    t.checkExpect(m1.color, Color.pink);
+    while (maze.state.isAuto()) {
+      maze.mazeStep();
+    }
+    t.checkExpect(maze.board.get(1).color, Color.green);
+    t.checkExpect(maze.board.get(4).color, Color.green);
+    t.checkExpect(maze.board.get(7).color, Color.green);
+    t.checkExpect(maze.board.get(6).color, Color.pink);
+    t.checkExpect(maze.board.get(2).color, Color.pink);
+    t.checkExpect(maze.board.get(5).color, Color.pink);
+    t.checkExpect(maze.board.get(3).color, Color.pink);
+
+    // arrowPress
+    maze.state = new Manual();
+    maze.resetSolution(new Queue(1));
+    maze.arrowPress("left");
+    t.checkExpect(((Queue) maze.search.worklist).contents, new int[] { 0 });
+    maze.arrowPress("right");
+    t.checkExpect(m0.color, new Color(255, 141, 161));
+    t.checkExpect(m1.color, Color.pink);
+    t.checkExpect(((Queue) maze.search.worklist).contents, new int[] { 1 });
+    t.checkExpect(maze.search.cameFrom[1], 0);
+    maze.arrowPress("right");
+    t.checkExpect(maze.board.get(2).color, Color.pink);
+    t.checkExpect(((Queue) maze.search.worklist).contents, new int[] { 2 });
+    t.checkExpect(maze.search.cameFrom[2], 1);
+  }
+
+  void testIsPerfect(Tester t) {
+    MazeGrid grid = new MazeGrid(3, 3);
+
+    t.checkExpect(this.isPerfect(grid), false);
+    new KruskalGenerator().generate(grid, 4632);
+    t.checkExpect(this.isPerfect(grid), true);
+    // one more edge closes a loop
+    grid.open(4 << 1 | MazeGrid.RIGHT);
+    t.checkExpect(this.isPerfect(grid), false);
+    t.checkExpect(this.isPerfect(new MazeGrid(1, 1)), true);
+  }
+
+  void testGenerators(Tester t) {
+    IGenerator[] generators = new IGenerator[] { new KruskalGenerator(),
+        new TiledKruskalGenerator(4, 2), new BacktrackerGenerator(), new PrimGenerator(),
+        new WilsonGenerator(), new BinaryTreeGenerator(), new SidewinderGenerator() };
+    int[][] sizes = new int[][] { { 1, 1 }, { 1, 7 }, { 7, 1 }, { 13, 9 }, { 100, 60 } };
+
+    for (IGenerator generator : generators) {
+      for (int[] size : sizes) {
+        MazeGrid grid = new MazeGrid(size[0], size[1]);
+        generator.generate(grid, 8);
+        t.checkExpect(this.isPerfect(grid), true);
+
+        // the same seed makes the same maze
+        MazeGrid again = new MazeGrid(size[0], size[1]);
+        generator.generate(again, 8);
+        t.checkExpect(again.edges, grid.edges);
+      }
+      MazeGrid one = new MazeGrid(30, 20);
+      MazeGrid other = new MazeGrid(30, 20);
+      generator.generate(one, 1);
+      generator.generate(other, 2);
+      t.checkFail(one.edges, other.edges);
+    }
+
+    t.checkExpect(new KruskalGenerator().algorithm(), MazeFile.KRUSKAL);
+    t.checkExpect(new TiledKruskalGenerator(4, 2).algorithm(), MazeFile.TILED_KRUSKAL);
+    t.checkExpect(new BacktrackerGenerator().algorithm(), MazeFile.BACKTRACKER);
+    t.checkExpect(new PrimGenerator().algorithm(), MazeFile.PRIM);
+    t.checkExpect(new WilsonGenerator().algorithm(), MazeFile.WILSON);
+    t.checkExpect(new BinaryTreeGenerator().algorithm(), MazeFile.BINARY_TREE);
+    t.checkExpect(new SidewinderGenerator().algorithm(), MazeFile.SIDEWINDER);
+
+    // the backtracker makes long corridors, so its solutions are longer than
+    // Kruskal's, and Prim's are shorter
+    int[] lengths = new int[3];
+    IGenerator[] compared = new IGenerator[] { new KruskalGenerator(),
+        new BacktrackerGenerator(), new PrimGenerator() };
+    for (int i = 0; i < 3; i = i + 1) {
+      MazeGrid grid = new MazeGrid(100, 60);
+      compared[i].generate(grid, 3);
+      Search search = new Search(grid, new Queue(6000), 0, 5999);
+      search.solve();
+      lengths[i] = search.path().length;
+    }
+    t.checkExpect(lengths[1] > 2 * lengths[0], true);
+    t.checkExpect(lengths[2] < lengths[0], true);
+
+    // Prim's frontier grows past its first small array, and one generator
+    // makes the same maze again, keeping nothing from the last one
+    PrimGenerator prim = new PrimGenerator();
+    MazeGrid wide = new MazeGrid(300, 200);
+    prim.generate(wide, 3);
+    t.checkExpect(this.isPerfect(wide), true);
+    MazeGrid small = new MazeGrid(4, 4);
+    prim.generate(small, 3);
+    MazeGrid again = new MazeGrid(300, 200);
+    prim.generate(again, 3);
+    t.checkExpect(again, wide);
+    t.checkExpect(prim, new PrimGenerator());
+
+    long[] added = new long[2];
+    PrimGenerator.markAdded(added, 70);
+    t.checkExpect(PrimGenerator.isAdded(added, 70), true);
+    t.checkExpect(PrimGenerator.isAdded(added, 6), false);
+    t.checkExpect(added, new long[] { 0, 1L << 6 });
+  }
+
+  void testRowGenerators(Tester t) {
+    t.checkExpect(BinaryTreeGenerator.bits(5, 9), BinaryTreeGenerator.bits(5, 9));
+    t.checkFail(BinaryTreeGenerator.bits(5, 9), BinaryTreeGenerator.bits(5, 10));
+    t.checkFail(BinaryTreeGenerator.bits(5, 9), BinaryTreeGenerator.bits(6, 9));
+
+    // 37 x 23 cells, so rows start partway through longs, and the last long
+    // is partly past the last cell
+    MazeGrid binary = new MazeGrid(37, 23);
+    new BinaryTreeGenerator().generate(binary, 4);
+    MazeGrid sidewinder = new MazeGrid(37, 23);
+    new SidewinderGenerator().generate(sidewinder, 4);
+    int last = 37 * 23 - 1;
+
+    for (int name = 0; name < last; name = name + 1) {
+      // every cell of a binary tree maze but the last opens exactly one of
+      // its right and bottom edges
+      t.checkExpect(binary.hasRightEdge(name) != binary.hasBottomEdge(name), true);
+    }
+    for (int name = 0; name < 37 * 22; name = name + 1) {
+      t.checkExpect(binary.hasRightEdge(name) && binary.column(name) == 36, false);
+    }
+    for (int name = 37 * 22; name < last; name = name + 1) {
+      // the last row is one corridor
+      t.checkExpect(binary.hasRightEdge(name), true);
+      t.checkExpect(sidewinder.hasRightEdge(name), true);
+      t.checkExpect(sidewinder.hasBottomEdge(name), false);
+    }
+    t.checkExpect(binary.isJoined(last), true);
+    t.checkExpect(binary.hasRightEdge(last) || binary.hasBottomEdge(last), false);
+    t.checkExpect(sidewinder.hasRightEdge(last) || sidewinder.hasBottomEdge(last), false);
+    t.checkExpect(binary.edges[binary.edges.length - 1] >>> (2 * (last + 1) % 64), 0L);
+    t.checkExpect(sidewinder.edges[sidewinder.edges.length - 1] >>> (2 * (last + 1) % 64),
+        0L);
+
+    // every run of a sidewinder row opens down exactly once
+    for (int row = 0; row < 22; row = row + 1) {
+      int downs = 0;
+      for (int column = 0; column < 37; column = column + 1) {
+        int name = row * 37 + column;
+        if (sidewinder.hasBottomEdge(name)) {
+          downs = downs + 1;
+        }
+        if (!sidewinder.hasRightEdge(name)) {
+          t.checkExpect(downs, 1);
+          downs = 0;
+        }
+      }
+    }
+
+    // the boards the game draws have the same walls
+    t.checkExpect(ALU.toGrid(ALU.initilizeBoard(37, 23, 10, 4, new SidewinderGenerator())),
+        sidewinder);
+    t.checkExpect(ALU.toGrid(ALU.initilizeBoard(37, 23, 10, 4, new BinaryTreeGenerator())),
+        binary);
+  }
+
+  void testInfiniteMaze(Tester t) {
+    InfiniteMaze plane = new InfiniteMaze(21, 8, 4, new KruskalGenerator());
+
+    t.checkExpect(InfiniteMaze.position(3, -2), (3L << 32) | 0xFFFFFFFEL);
+    t.checkExpect(plane.chunkOf(-1), -1);
+    t.checkExpect(plane.chunkOf(-8), -1);
+    t.checkExpect(plane.chunkOf(-9), -2);
+    t.checkExpect(plane.chunkOf(15), 1);
+    t.checkExpect(plane.within(-1), 7);
+    t.checkExpect(plane.within(-9), 7);
+    t.checkExpect(plane.within(13), 5);
+    // the quarters of a block of 2 x 2 chunks are joined through three of
+    // the four walls between them
+    int doors = 0;
+    for (int k = 0; k < 4; k = k + 1) {
+      if (plane.rightDoor(2 * k, 0) != -1) {
+        doors = doors + 1;
+      }
+      if (plane.rightDoor(2 * k, 1) != -1) {
+        doors = doors + 1;
+      }
+      if (plane.bottomDoor(2 * k, 0) != -1) {
+        doors = doors + 1;
+      }
+      if (plane.bottomDoor(2 * k + 1, 0) != -1) {
+        doors = doors + 1;
+      }
+    }
+    t.checkExpect(doors, 4 * 3);
+    t.checkExpect(plane.rightDoor(Integer.MAX_VALUE, 0), -1);
+    t.checkExpect(plane.bottomDoor(0, Integer.MAX_VALUE), -1);
+
+    // every block of k x k chunks, k a power of two, is a perfect maze with
+    // cells - 1 passages, on either side of the origin
+    for (int k = 1; k <= 8; k = k * 2) {
+      MazeGrid block = plane.region(-8L * k, 8L * k * 37, 8 * k, 8 * k);
+      t.checkExpect(this.isPerfect(block), true);
+      t.checkExpect(this.openEdges(block), 64 * k * k - 1);
+      t.checkExpect(this.isPerfect(plane.region(8L * k * 5, -8L * k, 8 * k, 8 * k)), true);
+    }
+    // and the plane has no loops anywhere, even where blocks do not line up
+    for (long y = -60; y < 60; y = y + 20) {
+      MazeGrid part = plane.region(y * 3 - 5, y, 50, 30);
+      t.checkExpect(this.openEdges(part) <= 50 * 30 - 1, true);
+      t.checkExpect(this.hasLoop(part), false);
+    }
+    t.checkExpect(this.hasLoop(plane.region(-128, -128, 256, 256)), false);
+
+    // the walls on either side of a cell agree, across chunks too
+    for (long y = -9; y < 9; y = y + 1) {
+      for (long x = -9; x < 9; x = x + 1) {
+        t.checkExpect(plane.hasLeftEdge(x + 1, y), plane.hasRightEdge(x, y));
+        t.checkExpect(plane.hasTopEdge(x, y + 1), plane.hasBottomEdge(x, y));
+      }
+    }
+  }
+
+  void testInfiniteMazeCache(Tester t) {
+    InfiniteMaze plane = new InfiniteMaze(21, 8, 2, new KruskalGenerator());
+    MazeGrid first = plane.chunk(0, 0);
+    plane.chunk(1, 0);
+    t.checkExpect(plane.chunk(0, 0) == first, true);
+    plane.chunk(2, 0);
+    t.checkExpect(plane.chunks.containsKey(InfiniteMaze.position(0, 0)), true);
+    t.checkExpect(plane.chunks.containsKey(InfiniteMaze.position(1, 0)), false);
+    t.checkExpect(plane.chunks.containsKey(InfiniteMaze.position(2, 0)), true);
+    t.checkExpect(plane.chunks.evicted, 1);
+    t.checkExpect(plane.generated, 3);
+
+    // a region comes back the same after every chunk of it was forgotten
+    MazeGrid here = plane.region(-20, -20, 40, 40);
+    MazeGrid there = plane.region(1000000, -3000000, 40, 40);
+    t.checkExpect(plane.chunks.size(), 2);
+    t.checkExpect(plane.region(-20, -20, 40, 40), here);
+    t.checkExpect(plane.generated > 2 * 36, true);
+    t.checkExpect(new InfiniteMaze(21, 8, 100, new KruskalGenerator()).region(-20, -20, 40,
+        40), here);
+    t.checkFail(new InfiniteMaze(22, 8, 100, new KruskalGenerator()).region(-20, -20, 40, 40),
+        here);
+    t.checkFail(there, here);
+
+    t.checkConstructorException(
+        new IllegalArgumentException("Chunk size and capacity must be positive, given 8 and 0"),
+        "InfiniteMaze", 21L, 8, 0, new KruskalGenerator());
+  }
+
+  void testChunkCache(Tester t) {
+    ChunkCache cache = new ChunkCache(3);
+    MazeGrid a = new MazeGrid(1, 1);
+    MazeGrid b = new MazeGrid(1, 1);
+    MazeGrid c = new MazeGrid(1, 1);
+    MazeGrid d = new MazeGrid(1, 1);
+
+    t.checkExpect(cache.get(5), null);
+    cache.put(InfiniteMaze.position(-1, 2), a);
+    cache.put(InfiniteMaze.position(0, 0), b);
+    cache.put(InfiniteMaze.position(1, -1), c);
+    t.checkExpect(cache.size(), 3);
+    t.checkExpect(cache.get(InfiniteMaze.position(-1, 2)) == a, true);
+    // b was used longest ago
+    cache.put(InfiniteMaze.position(7, 7), d);
+    t.checkExpect(cache.size(), 3);
+    t.checkExpect(cache.evicted, 1);
+    t.checkExpect(cache.containsKey(InfiniteMaze.position(0, 0)), false);
+    t.checkExpect(cache.get(InfiniteMaze.position(1, -1)) == c, true);
+    t.checkExpect(cache.get(InfiniteMaze.position(7, 7)) == d, true);
+    // putting a held chunk again replaces it without forgetting another
+    cache.put(InfiniteMaze.position(-1, 2), b);
+    t.checkExpect(cache.evicted, 1);
+    t.checkExpect(cache.get(InfiniteMaze.position(-1, 2)) == b, true);
+
+    // the positions of a walk around the plane collide in the table, and
+    // every one is still found until it is forgotten
+    ChunkCache walk = new ChunkCache(50);
+    boolean found = true;
+    for (int k = 0; k < 2000; k = k + 1) {
+      walk.put(InfiniteMaze.position(k % 37 - 18, k / 37), a);
+      for (int back = 0; back < 50 && back <= k; back = back + 1) {
+        int m = k - back;
+        found = found && walk.containsKey(InfiniteMaze.position(m % 37 - 18, m / 37));
+      }
+      found = found && !walk.containsKey(InfiniteMaze.position((k + 50) % 37 - 18, -1));
+    }
+    t.checkExpect(found, true);
+    t.checkExpect(walk.size(), 50);
+    t.checkExpect(walk.evicted, 1950);
+
+    t.checkConstructorException(new IllegalArgumentException("Capacity must be positive, given 0"),
+        "ChunkCache", 0);
+  }
+
+  void testMazeOnPlane(Tester t) {
+    InfiniteMaze plane = new InfiniteMaze(5, 16, 16, new PrimGenerator());
+    Maze maze = new Maze(plane, 20, 12);
+    t.checkExpect(ALU.toGrid(maze.board), plane.region(0, 0, 20, 12));
+    t.checkExpect(maze.generator == plane.generator, true);
+
+    // the window scrolls by whole chunks, half of it or at least one
+    maze.onKeyEvent("l");
+    maze.onKeyEvent("i");
+    maze.onKeyEvent("i");
+    t.checkExpect(maze.planeX, 16L);
+    t.checkExpect(maze.planeY, -32L);
+    t.checkExpect(ALU.toGrid(maze.board), plane.region(16, -32, 20, 12));
+    maze.onKeyEvent("j");
+    maze.onKeyEvent("k");
+    t.checkExpect(maze.planeX, 0L);
+    t.checkExpect(maze.planeY, -16L);
+    t.checkExpect(new Maze(plane, 100, 60).scrollStep(100), 48L);
+    t.checkExpect(new Maze(plane, 100, 60).scrollStep(60), 16L);
+    // and always lands on the corner of a chunk
+    maze.scroll(5, -3);
+    t.checkExpect(maze.planeX, 0L);
+    t.checkExpect(maze.planeY, -32L);
+
+    maze.onKeyEvent("r");
+    t.checkExpect(maze.plane != plane, true);
+    t.checkExpect(maze.plane.chunkSize, 16);
+    t.checkExpect(maze.planeY, -32L);
+    t.checkExpect(ALU.toGrid(maze.board), maze.plane.region(0, -32, 20, 12));
+
+    // without a plane these keys do nothing
+    Maze fixed = new Maze(5, 3);
+    ArrayList<Cell> board = fixed.board;
+    fixed.onKeyEvent("l");
+    t.checkExpect(fixed.board == board, true);
+  }
+
+  void testMazeOnPlaneSolvable(Tester t) {
+    // the edges of a window cut the plane apart, so the target is the last
+    // cell the first one can reach, and every search finds its way there
+    for (int seed = 0; seed < 12; seed = seed + 1) {
+      Maze maze = new Maze(new InfiniteMaze(seed), 100, 60);
+      for (int k = 0; k < 4; k = k + 1) {
+        maze.onKeyEvent(new String[] { "l", "k", "j", "i" }[(seed + k) % 4]);
+        MazeGrid window = ALU.toGrid(maze.board);
+        t.checkExpect(new Search(window, new Queue(6000), 0, maze.target()).solve(), true);
+        t.checkExpect(maze.board.get(maze.target()).color, Color.green);
+        if (maze.target() != 0) {
+          t.checkExpect(maze.board.get(0).color, Color.pink);
+        }
+
+        maze.onKeyEvent(new String[] { "b", "d", "a", "m" }[k]);
+        t.checkExpect(maze.board.get(maze.target()).color, Color.green);
+        while (maze.state.isAuto()) {
+          maze.mazeStep();
+        }
+        t.checkExpect(maze.search.found, true);
+      }
+    }
+
+    // by hand too
+    Maze walked = new Maze(new InfiniteMaze(3, 4, 16, new KruskalGenerator()), 6, 5);
+    walked.onKeyEvent("l");
+    Search way = new Search(ALU.toGrid(walked.board), new Queue(30), 0, walked.target());
+    way.solve();
+    int[] path = way.path();
+    t.checkExpect(path.length > 1, true);
+    walked.onKeyEvent("right");
+    for (int k = 1; k < path.length; k = k + 1) {
+      t.checkExpect(walked.state.isManual(), true);
+      walked.onKeyEvent(this.arrowBetween(path[k - 1], path[k]));
+    }
+    t.checkExpect(walked.state.isRest(), true);
+
+    // a window that keeps the first and last cells together looks for the last
+    MazeGrid grid = new MazeGrid(3, 2);
+    new KruskalGenerator().generate(grid, 4);
+    t.checkExpect(maze1.lastReachable(grid), 5);
+    MazeGrid cut = new MazeGrid(3, 2);
+    cut.open(0 << 1 | MazeGrid.DOWN);
+    cut.open(3 << 1 | MazeGrid.RIGHT);
+    t.checkExpect(maze1.lastReachable(cut), 4);
+    t.checkExpect(maze1.lastReachable(new MazeGrid(3, 2)), 0);
+    t.checkExpect(maze1.target(), 8);
+  }
+
+  // returns the arrow key that moves from the given cell to its given neighbor
+  String arrowBetween(int from, int to) {
+    if (to == from - 1) {
+      return "left";
+    }
+    else if (to == from + 1) {
+      return "right";
+    }
+    else if (to < from) {
+      return "up";
+    }
+    else {
+      return "down";
+    }
+  }
+
+  void testMazeGridWays(Tester t) {
+    // 0 1 2
+    // 3 4 5
+    MazeGrid grid = new MazeGrid(3, 2);
+
+    t.checkExpect(grid.toward(4, 0), 1);
+    t.checkExpect(grid.toward(4, 1), 3);
+    t.checkExpect(grid.toward(4, 2), -1);
+    t.checkExpect(grid.toward(4, 3), 5);
+    t.checkExpect(grid.toward(0, 0), -1);
+    t.checkExpect(grid.toward(0, 1), -1);
+    t.checkExpect(grid.toward(0, 2), 3);
+    t.checkExpect(grid.toward(2, 3), -1);
+
+    t.checkExpect(grid.isJoined(4), false);
+    grid.openToward(4, 0);
+    grid.openToward(4, 1);
+    t.checkExpect(grid.hasBottomEdge(1), true);
+    t.checkExpect(grid.hasRightEdge(3), true);
+    t.checkExpect(grid.isOpenToward(4, 0), true);
+    t.checkExpect(grid.isOpenToward(4, 1), true);
+    t.checkExpect(grid.isOpenToward(4, 3), false);
+    t.checkExpect(grid.isOpenToward(1, 2), true);
+    t.checkExpect(grid.isOpenToward(3, 3), true);
+    grid.openToward(4, 3);
+    grid.openToward(2, 2);
+    t.checkExpect(grid.isOpenToward(5, 1), true);
+    t.checkExpect(grid.isOpenToward(5, 0), true);
+    t.checkExpect(grid.isJoined(4), true);
+    t.checkExpect(grid.isJoined(0), false);
+
+    long[] ways = MazeGrid.ways(40);
+    t.checkExpect(ways.length, 2);
+    MazeGrid.setWay(ways, 33, 3);
+    MazeGrid.setWay(ways, 31, 2);
+    t.checkExpect(MazeGrid.wayOf(ways, 33), 3);
+    t.checkExpect(MazeGrid.wayOf(ways, 31), 2);
+    t.checkExpect(MazeGrid.wayOf(ways, 32), 0);
+    MazeGrid.setWay(ways, 33, 1);
+    t.checkExpect(MazeGrid.wayOf(ways, 33), 1);
+    t.checkExpect(ways, new long[] { 2L << 62, 1L << 2 });
+  }
+
+  void testMazeWithGenerator(Tester t) {
+    Maze maze = new Maze(20, 12, new WilsonGenerator());
+    t.checkExpect(maze.generator, new WilsonGenerator());
+    t.checkExpect(this.isPerfect(ALU.toGrid(maze.board)), true);
+    maze.onKeyEvent("r");
+    t.checkExpect(maze.generator, new WilsonGenerator());
+    t.checkExpect(this.isPerfect(ALU.toGrid(maze.board)), true);
+    t.checkExpect(new Maze(5, 3).generator.algorithm(), MazeFile.KRUSKAL);
+
+    MazeGrid grid = new MazeGrid(4, 4);
+    new PrimGenerator().generate(grid, 12);
+    t.checkExpect(ALU.toGrid(ALU.initilizeBoard(4, 4, 10, 12, new PrimGenerator())), grid);
+  }
+
+  void testOpenAtomically(Tester t) {
+    MazeGrid grid = new MazeGrid(40, 2);
+    MazeGrid expected = new MazeGrid(40, 2);
+
+    grid.openAtomically(39 << 1 | MazeGrid.DOWN);
+    grid.openAtomically(3 << 1 | MazeGrid.RIGHT);
+    expected.open(39 << 1 | MazeGrid.DOWN);
+    expected.open(3 << 1 | MazeGrid.RIGHT);
+    t.checkExpect(grid, expected);
+  }
+
+  void testTiledKruskalGenerate(Tester t) {
+    MazeGrid grid1 = new MazeGrid(100, 60);
+    MazeGrid grid2 = new MazeGrid(100, 60);
+    MazeGrid grid3 = new MazeGrid(100, 60);
+    MazeGrid grid4 = new MazeGrid(100, 60);
+
+    new TiledKruskalGenerator(16, 1).generate(grid1, 476);
+    new TiledKruskalGenerator(16, 4).generate(grid2, 476);
+    new TiledKruskalGenerator(16, 4).generate(grid3, 477);
+    new TiledKruskalGenerator(32, 4).generate(grid4, 476);
+
+    t.checkExpect(this.isPerfect(grid1), true);
+    t.checkExpect(this.isPerfect(grid3), true);
+    t.checkExpect(this.isPerfect(grid4), true);
+    // the number of threads makes no difference
+    t.checkExpect(grid1, grid2);
+    t.checkFail(grid1, grid3);
+    t.checkFail(grid1, grid4);
+
+    // tiles that do not divide the grid evenly, or cover all of it
+    MazeGrid odd = new MazeGrid(37, 23);
+    new TiledKruskalGenerator(5, 3).generate(odd, 8);
+    t.checkExpect(this.isPerfect(odd), true);
+    MazeGrid oneTile = new MazeGrid(37, 23);
+    new TiledKruskalGenerator(64, 3).generate(oneTile, 8);
+    t.checkExpect(this.isPerfect(oneTile), true);
+    MazeGrid tiny = new MazeGrid(9, 9);
+    new TiledKruskalGenerator(1, 2).generate(tiny, 8);
+    t.checkExpect(this.isPerfect(tiny), true);
+
+    t.checkConstructorException(new IllegalArgumentException(
+        "Tile size and thread count must be positive, given 0 and 2"), "TiledKruskalGenerator",
+        0, 2);
+  }
+
+  void testSeamEdges(Tester t) {
+    TiledKruskalGenerator tiled = new TiledKruskalGenerator(2, 1);
+
+    // 0 1 | 2
+    // 3 4 | 5
+    // ----+--
+    // 6 7 | 8
+    t.checkExpect(tiled.seamEdges(new MazeGrid(3, 3)), new int[] { 1 << 1 | MazeGrid.RIGHT,
+        4 << 1 | MazeGrid.RIGHT, 7 << 1 | MazeGrid.RIGHT, 3 << 1 | MazeGrid.DOWN,
+        4 << 1 | MazeGrid.DOWN, 5 << 1 | MazeGrid.DOWN });
+    t.checkExpect(tiled.seamEdges(new MazeGrid(2, 2)), new int[] {});
+    t.checkExpect(new TiledKruskalGenerator(10, 1).seamEdges(new MazeGrid(100, 60)).length,
+        9 * 60 + 5 * 100);
+  }
+
+  void testTileOf(Tester t) {
+    TiledKruskalGenerator tiled = new TiledKruskalGenerator(2, 1);
+    MazeGrid grid = new MazeGrid(3, 3);
+
+    t.checkExpect(tiled.tileOf(grid, 0, 2), 0);
+    t.checkExpect(tiled.tileOf(grid, 4, 2), 0);
+    t.checkExpect(tiled.tileOf(grid, 5, 2), 1);
+    t.checkExpect(tiled.tileOf(grid, 6, 2), 2);
+    t.checkExpect(tiled.tileOf(grid, 8, 2), 3);
+  }
+
+  void testGenerateTile(Tester t) {
+    TiledKruskalGenerator tiled = new TiledKruskalGenerator(2, 1);
+    MazeGrid grid = new MazeGrid(3, 3);
+
+    // the bottom right tile is the single cell 8, so it has no edges
+    tiled.generateTile(grid, 1, 1, 5);
+    t.checkExpect(grid, new MazeGrid(3, 3));
+
+    // the top left tile is cells 0, 1, 3 and 4, joined by 3 of their 4 edges
+    tiled.generateTile(grid, 0, 0, 5);
+    int open = 0;
+    for (int edge : new int[] { 0 << 1 | MazeGrid.RIGHT, 0 << 1 | MazeGrid.DOWN,
+        1 << 1 | MazeGrid.DOWN, 3 << 1 | MazeGrid.RIGHT }) {
+      if (grid.isOpen(edge)) {
+        open = open + 1;
+      }
+    }
+    t.checkExpect(open, 3);
+    t.checkExpect(grid.hasRightEdge(1), false);
+    t.checkExpect(grid.hasBottomEdge(3), false);
+  }
+
+  void testEllerGenerate(Tester t) throws IOException {
+    MazeGrid grid1 = new MazeGrid(100, 60);
+    MazeGrid grid2 = new MazeGrid(100, 60);
+    MazeGrid grid3 = new MazeGrid(100, 60);
+
+    new EllerGenerator(100).generate(60, 444, new GridRowSink(grid1));
+    new EllerGenerator(100).generate(60, 444, new GridRowSink(grid2));
+    new EllerGenerator(100).generate(60, 445, new GridRowSink(grid3));
+
+    t.checkExpect(this.isPerfect(grid1), true);
+    t.checkExpect(this.isPerfect(grid3), true);
+    t.checkExpect(grid1, grid2);
+    t.checkFail(grid1, grid3);
+
+    // a single row or column has only one maze
+    MazeGrid row = new MazeGrid(7, 1);
+    new EllerGenerator(7).generate(1, 3, new GridRowSink(row));
+    t.checkExpect(this.isPerfect(row), true);
+    MazeGrid column = new MazeGrid(1, 7);
+    new EllerGenerator(1).generate(7, 3, new GridRowSink(column));
+    t.checkExpect(this.isPerfect(column), true);
+
+    for (int seed = 0; seed < 50; seed = seed + 1) {
+      MazeGrid grid = new MazeGrid(13, 9);
+      new EllerGenerator(13).generate(9, seed, new GridRowSink(grid));
+      t.checkExpect(this.isPerfect(grid), true);
+    }
+
+    t.checkConstructorException(new IllegalArgumentException(
+        "A row needs between 1 and 1073741823 cells, given 0"), "EllerGenerator", 0);
+  }
+
+  void testEllerJoinRow(Tester t) {
+    EllerGenerator eller = new EllerGenerator(4);
+    for (int j = 0; j < 4; j = j + 1) {
+      eller.left[j] = j;
+      eller.right[j] = j;
+    }
+
+    eller.joinRow(new SplittableRandom(1), true);
+
+    // one set 0 1 2 3, linked in order
+    t.checkExpect(eller.right, new int[] { 1, 2, 3, 0 });
+    t.checkExpect(eller.left, new int[] { 3, 0, 1, 2 });
+    t.checkExpect(eller.rowEdges[0], 0b0010101L);
+  }
+
+  void testEllerCarveDown(Tester t) {
+    EllerGenerator eller = new EllerGenerator(4);
+    // sets {0, 1} and {2} and {3}
+    eller.right = new int[] { 1, 0, 2, 3 };
+    eller.left = new int[] { 1, 0, 2, 3 };
+
+    eller.carveDown(new SplittableRandom(1));
+
+    // lonely cells always carve down
+    t.checkExpect((eller.rowEdges[0] >>> 5) & 1, 1L);
+    t.checkExpect((eller.rowEdges[0] >>> 7) & 1, 1L);
+    // and so does at least one of 0 and 1
+    t.checkExpect(((eller.rowEdges[0] >>> 1) & 1) + ((eller.rowEdges[0] >>> 3) & 1) >= 1, true);
+  }
+
+  void testEllerOpen(Tester t) {
+    EllerGenerator eller = new EllerGenerator(40);
+
+    eller.open(3, EllerGenerator.DOWN);
+    eller.open(39, EllerGenerator.RIGHT);
+    t.checkExpect(eller.rowEdges, new long[] { 1L << 7, 1L << 14 });
+  }
+
+  void testEdgeStreamWriter(Tester t) throws IOException {
+    // rows of 37 cells are 74 bits, so rows start in the middle of longs
+    MazeGrid grid = new MazeGrid(37, 11);
+    new EllerGenerator(37).generate(11, 9, new GridRowSink(grid));
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    EdgeStreamWriter writer = new EdgeStreamWriter(bytes, 37);
+
+    new EllerGenerator(37).generate(11, 9, writer);
+    writer.finish();
+
+    ByteBuffer expected = ByteBuffer.allocate(grid.edges.length * 8)
+        .order(ByteOrder.LITTLE_ENDIAN);
+    for (long word : grid.edges) {
+      expected.putLong(word);
+    }
+    t.checkExpect(bytes.toByteArray(), expected.array());
+  }
+
+  void testMazeFileHeader(Tester t) {
+    ByteBuffer header = new MazeFile().header(37, 11, -5, MazeFile.ELLER);
+
+    t.checkExpect(header.remaining(), 32);
+    t.checkExpect(new String(header.array(), 0, 4), "MAZE");
+    t.checkExpect(header.getInt(4), 1);
+    t.checkExpect(header.getInt(8), 37);
+    t.checkExpect(header.getInt(12), MazeFile.ELLER);
+    t.checkExpect(header.getLong(16), 11L);
+    t.checkExpect(header.getLong(24), -5L);
+  }
+
+  void testMazeFileWriteRead(Tester t) throws IOException {
+    MazeGrid grid = new MazeGrid(100, 60);
+    new KruskalGenerator().generate(grid, 476);
+    File file = File.createTempFile("maze", ".maze");
+    file.deleteOnExit();
+
+    new MazeFile().write(grid, 476, MazeFile.KRUSKAL, file);
+    MappedMazeGrid read = new MazeFile().read(file);
+
+    t.checkExpect(file.length(), 32L + 8 * 188);
+    t.checkExpect(read.length, 100);
+    t.checkExpect(read.height, 60);
+    t.checkExpect(read.seed, 476L);
+    t.checkExpect(read.algorithm, MazeFile.KRUSKAL);
+    t.checkExpect(read.toHeap(), grid);
+
+    // the mapped maze answers every query in place
+    int[] into1 = new int[4];
+    int[] into2 = new int[4];
+    boolean same = true;
+    for (int name = 0; name < grid.size(); name = name + 1) {
+      same = same && grid.neighbors(name, into1) == read.neighbors(name, into2)
+          && Arrays.equals(into1, into2) && grid.word(name / 32) == read.word(name / 32);
+    }
+    t.checkExpect(same, true);
+
+    // changes stay in memory
+    read.open(0 << 1 | MazeGrid.DOWN);
+    read.open(0 << 1 | MazeGrid.RIGHT);
+    t.checkExpect(read.hasBottomEdge(0) && read.hasRightEdge(0), true);
+    t.checkExpect(new MazeFile().read(file).toHeap(), grid);
+  }
+
+  void testMazeFileStreamed(Tester t) throws IOException {
+    File file = File.createTempFile("maze", ".maze");
+    file.deleteOnExit();
+    MazeGrid grid = new MazeGrid(37, 11);
+    new EllerGenerator(37).generate(11, 9, new GridRowSink(grid));
+
+    FileOutputStream out = new FileOutputStream(file);
+    new MazeFile().writeHeader(out, 37, 11, 9, MazeFile.ELLER);
+    EdgeStreamWriter writer = new EdgeStreamWriter(out, 37);
+    new EllerGenerator(37).generate(11, 9, writer);
+    writer.finish();
+    out.close();
+
+    MappedMazeGrid read = new MazeFile().read(file);
+    t.checkExpect(read.algorithm, MazeFile.ELLER);
+    t.checkExpect(read.toHeap(), grid);
+  }
+
+  void testMazeFileErrors(Tester t) throws IOException {
+    File file = File.createTempFile("maze", ".maze");
+    file.deleteOnExit();
+    MazeFile mazeFile = new MazeFile();
+
+    Files.write(file.toPath(), new byte[] { 1, 2, 3 });
+    t.checkException(new IOException(file + " is too short to be a maze file"), mazeFile,
+        "read", file);
+
+    Files.write(file.toPath(), new byte[40]);
+    t.checkException(new IOException(file + " is not a maze file"), mazeFile, "read", file);
+
+    ByteBuffer header = mazeFile.header(100, 60, 1, MazeFile.KRUSKAL);
+    header.putInt(4, 7);
+    Files.write(file.toPath(), header.array());
+    t.checkException(new IOException(file + " has unsupported version 7"), mazeFile, "read",
+        file);
+
+    Files.write(file.toPath(), mazeFile.header(100, 60, 1, MazeFile.KRUSKAL).array());
+    t.checkException(new IOException(file + " is truncated"), mazeFile, "read", file);
+
+    Files.write(file.toPath(), mazeFile.header(5000, 10000000L, 1, MazeFile.ELLER).array());
+    t.checkException(new IOException(
+        file + " holds 5000 x 10000000 cells, more than a MazeGrid can address"), mazeFile,
+        "read", file);
+
+    // dimensions are checked before anything is made from them
+    Files.write(file.toPath(), mazeFile.header(0, 60, 1, MazeFile.KRUSKAL).array());
+    t.checkException(new IOException(
+        file + " holds 0 x 60 cells, but a maze needs at least one"), mazeFile, "read", file);
+    Files.write(file.toPath(), mazeFile.header(-3, 60, 1, MazeFile.KRUSKAL).array());
+    t.checkException(new IOException(
+        file + " holds -3 x 60 cells, but a maze needs at least one"), mazeFile, "read", file);
+    Files.write(file.toPath(), mazeFile.header(100, -1, 1, MazeFile.KRUSKAL).array());
+    t.checkException(new IOException(
+        file + " holds 100 x -1 cells, but a maze needs at least one"), mazeFile, "read", file);
+    Files.write(file.toPath(), mazeFile.header(100, 1L << 32, 1, MazeFile.KRUSKAL).array());
+    t.checkException(new IOException(
+        file + " holds 100 x 4294967296 cells, more than a MazeGrid can address"), mazeFile,
+        "read", file);
+
+    // and so is the length of the file against them
+    byte[] tooLong = new byte[MazeFile.HEADER_BYTES + 8 * 4 + 5];
+    mazeFile.header(16, 8, 1, MazeFile.KRUSKAL).get(tooLong, 0, MazeFile.HEADER_BYTES);
+    Files.write(file.toPath(), tooLong);
+    t.checkException(new IOException(file + " has 5 bytes past the 16 x 8 cells its header gives"),
+        mazeFile, "read", file);
+    Files.write(file.toPath(), Arrays.copyOf(tooLong, tooLong.length - 6));
+    t.checkException(new IOException(file + " is truncated"), mazeFile, "read", file);
+    Files.write(file.toPath(), Arrays.copyOf(tooLong, tooLong.length - 5));
+    t.checkExpect(mazeFile.read(file).toHeap(), new MazeGrid(16, 8));
+  }
+
+  void testMazeFromGrid(Tester t) throws IOException {
+    MazeGrid grid = new MazeGrid(20, 12);
+    new KruskalGenerator().generate(grid, 444);
+    File file = File.createTempFile("maze", ".maze");
+    file.deleteOnExit();
+    new MazeFile().write(grid, 444, MazeFile.KRUSKAL, file);
+
+    Maze maze = new Maze(new MazeFile().read(file));
+
+    t.checkExpect(maze.length, 20);
+    t.checkExpect(maze.height, 12);
+    t.checkExpect(maze.cellSize, 50);
+    t.checkExpect(maze.board, ALU.initilizeBoard(20, 12, 50, 444));
+    t.checkExpect(maze.state, new Rest());
+  }
+
+  void testMazePngRows(Tester t) {
+    // 0 1 2 with 0-1 and 1-4 open
+    // 3 4 5 with 3-4 and 4-5 open
+    MazeGrid grid = new MazeGrid(3, 2);
+    grid.open(0 << 1 | MazeGrid.RIGHT);
+    grid.open(1 << 1 | MazeGrid.DOWN);
+    grid.open(3 << 1 | MazeGrid.RIGHT);
+    grid.open(4 << 1 | MazeGrid.RIGHT);
+    BitSet path = new BitSet();
+    path.set(0);
+    path.set(1);
+    path.set(4);
+    MazePng png = new MazePng(3);
+    byte[] row = new byte[png.width(grid)];
+
+    t.checkExpect(png.width(grid), 10);
+    t.checkExpect(png.height(grid), 7);
+
+    png.wallRow(grid, path, null, 0, row);
+    t.checkExpect(row, new byte[] { 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 });
+    png.cellRow(grid, path, null, 0, row);
+    t.checkExpect(row, new byte[] { 1, 4, 4, 2, 2, 2, 1, 0, 0, 1 });
+    png.wallRow(grid, path, null, 1, row);
+    t.checkExpect(row, new byte[] { 1, 1, 1, 1, 2, 2, 1, 1, 1, 1 });
+    png.cellRow(grid, path, null, 1, row);
+    t.checkExpect(row, new byte[] { 1, 0, 0, 0, 2, 2, 0, 5, 5, 1 });
+    png.cellRow(grid, null, null, 1, row);
+    t.checkExpect(row, new byte[] { 1, 0, 0, 0, 0, 0, 0, 5, 5, 1 });
+    png.wallRow(grid, path, null, 2, row);
+    t.checkExpect(row, new byte[] { 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 });
+
+    // visited cells, and the open walls between two of them, are drawn as
+    // visited unless they are on the path
+    BitSet visited = new BitSet();
+    visited.set(0, 5);
+    png.cellRow(grid, path, visited, 1, row);
+    t.checkExpect(row, new byte[] { 1, 3, 3, 3, 2, 2, 0, 5, 5, 1 });
+    png.cellRow(grid, null, visited, 1, row);
+    t.checkExpect(row, new byte[] { 1, 3, 3, 3, 3, 3, 0, 5, 5, 1 });
+    png.wallRow(grid, null, visited, 1, row);
+    t.checkExpect(row, new byte[] { 1, 1, 1, 1, 3, 3, 1, 1, 1, 1 });
+    t.checkExpect(png.cellColor(grid, path, visited, 0), MazePng.START);
+    t.checkExpect(png.cellColor(grid, path, visited, 5), MazePng.END);
+    t.checkExpect(png.cellColor(grid, path, visited, 1), MazePng.PATH);
+    t.checkExpect(png.cellColor(grid, path, visited, 2), MazePng.VISITED);
+    t.checkExpect(png.cellColor(grid, path, null, 2), MazePng.PASSAGE);
+
+    t.checkConstructorException(
+        new IllegalArgumentException("A cell needs at least 2 pixels to show its walls, given 1"),
+        "MazePng", 1);
+    t.checkException(
+        new IllegalArgumentException("1000000000 cells of 3 pixels do not fit in one image"),
+        png, "pixels", 1000000000);
+  }
+
+  void testMazePngWrite(Tester t) throws IOException {
+    MazeGrid grid = new MazeGrid(70, 45);
+    new KruskalGenerator().generate(grid, 5);
+    BitSet path = new BitSet();
+    for (int name = 0; name < grid.size(); name = name + 3) {
+      path.set(name);
+    }
+    MazePng png = new MazePng(5);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    png.write(grid, path, bytes);
+    BufferedImage read = ImageIO.read(new java.io.ByteArrayInputStream(bytes.toByteArray()));
+    BufferedImage drawn = png.toImage(grid, path);
+
+    t.checkExpect(read.getWidth(), 351);
+    t.checkExpect(read.getHeight(), 226);
+    boolean same = true;
+    for (int y = 0; y < read.getHeight(); y = y + 1) {
+      for (int x = 0; x < read.getWidth(); x = x + 1) {
+        same = same && read.getRGB(x, y) == drawn.getRGB(x, y);
+      }
+    }
+    t.checkExpect(same, true);
+    t.checkExpect(drawn.getRGB(0, 0), 0xFF000000);
+    t.checkExpect(drawn.getRGB(2, 2), 0xFFFFAFAF);
+    t.checkExpect(drawn.getRGB(7, 2), 0xFF808080);
+    t.checkExpect(drawn.getRGB(17, 2), 0xFF00FF00);
+    t.checkExpect(drawn.getRGB(347, 222), 0xFF00FF00);
+
+    // the cells come out the colors the game paints the same board in
+    ArrayList<Cell> board = ALU.toBoard(grid, 5);
+    int[] names = new int[(grid.size() - 1) / 3];
+    for (int i = 0; i < names.length; i = i + 1) {
+      names[i] = i * 3 + 3;
+    }
+    ALU.colorPath(board, names, Color.green);
+    MazeCanvas canvas = new MazeCanvas(board, 70, 45, 5);
+    t.checkExpect(drawn.getRGB(2, 2), canvas.image.getPixel(2, 2).getRGB());
+    t.checkExpect(drawn.getRGB(7, 2), canvas.image.getPixel(7, 2).getRGB());
+    t.checkExpect(drawn.getRGB(17, 2), canvas.image.getPixel(17, 2).getRGB());
+    t.checkExpect(drawn.getRGB(347, 222), canvas.image.getPixel(347, 222).getRGB());
+
+    // the visited cells come out the same streamed and in memory too
+    BitSet visited = new BitSet();
+    visited.set(0, 700);
+    ByteArrayOutputStream searched = new ByteArrayOutputStream();
+    png.write(grid, path, visited, searched);
+    read = ImageIO.read(new java.io.ByteArrayInputStream(searched.toByteArray()));
+    drawn = png.toImage(grid, path, visited);
+    same = true;
+    for (int y = 0; y < read.getHeight(); y = y + 1) {
+      for (int x = 0; x < read.getWidth(); x = x + 1) {
+        same = same && read.getRGB(x, y) == drawn.getRGB(x, y);
+      }
+    }
+    t.checkExpect(same, true);
+    t.checkExpect(drawn.getRGB(7, 2), 0xFFFFAFAF);
+    t.checkExpect(drawn.getRGB(17, 2), 0xFF00FF00);
+    t.checkExpect(drawn.getRGB(7, 202), 0xFF808080);
+  }
+
+  void testPngWriterChunks(Tester t) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    PngWriter png = new PngWriter(bytes, 1, 1, new int[] { 0xFF0000 });
+    png.writeRow(new byte[] { 0 });
+    png.finish();
+    byte[] written = bytes.toByteArray();
+
+    t.checkExpect(Arrays.copyOf(written, 8), PngWriter.SIGNATURE);
+    // the header is the first chunk, 13 bytes long
+    t.checkExpect(new String(written, 12, 4), "IHDR");
+    t.checkExpect(written[11], (byte) 13);
+    t.checkExpect(new String(written, written.length - 8, 4), "IEND");
+    t.checkExpect(ImageIO.read(new java.io.ByteArrayInputStream(written)).getRGB(0, 0),
+        0xFFFF0000);
+    t.checkConstructorException(
+        new IllegalArgumentException("An image needs at least one pixel, given 0 x 1"),
+        "PngWriter", bytes, 0, 1, new int[] { 0 });
+  }
+
 }
\ No newline at end of file
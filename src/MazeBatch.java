@@ -0,0 +1,225 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// generates and saves many mazes without a game window
+//
+// nothing in here touches javalib or java.awt, so it runs on machines
+// without a display:
+//
+//   java MazeBatch <length> <height> <firstSeed> <lastSeed> <outputDir> [threads]
+//
+// writes one file per seed, from firstSeed to lastSeed inclusive
+//
+// with more than one thread the seeds are spread over a fixed pool of
+// workers. Every maze draws its randomness from its own stream seeded by its
+// seed, never from a stream shared with other seeds, so a maze is the same
+// bytes whichever worker makes it and however many workers there are
+class MazeBatch {
+  int length;
+  int height;
+
+  // constructor
+  MazeBatch(int length, int height) {
+    this.length = length;
+    this.height = height;
+  }
+
+  // returns the maze for the given seed
+  MazeGrid generate(long seed) {
+    MazeGrid grid = new MazeGrid(this.length, this.height);
+    new KruskalGenerator().generate(grid, seed);
+    return grid;
+  }
+
+  // returns the file the maze for the given seed is saved to
+  File fileFor(File outputDir, long seed) {
+    return new File(outputDir, "maze-" + seed + ".maze");
+  }
+
+  // EFFECT: saves the given maze to the given file in the MazeFile format
+  void write(MazeGrid grid, long seed, File file) throws IOException {
+    new MazeFile().write(grid, seed, MazeFile.KRUSKAL, file);
+  }
+
+  // returns how many seeds there are from firstSeed to lastSeed inclusive,
+  // or 0 if lastSeed comes first. The loops below count up to this instead
+  // of comparing seeds, so they stop at lastSeed even when it is
+  // Long.MAX_VALUE
+  long seeds(long firstSeed, long lastSeed) {
+    if (lastSeed < firstSeed) {
+      return 0;
+    }
+    long count = lastSeed - firstSeed + 1;
+    if (count <= 0) {
+      throw new IllegalArgumentException("Too many seeds from " + firstSeed + " to " + lastSeed
+          + " to count");
+    }
+    return count;
+  }
+
+  // returns a report on generating and saving the mazes
+  // for every seed from firstSeed to lastSeed inclusive
+  // EFFECT: writes those mazes into the given directory
+  BatchReport run(long firstSeed, long lastSeed, File outputDir) throws IOException {
+    long count = this.seeds(firstSeed, lastSeed);
+    if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+      throw new IOException("Could not create directory " + outputDir);
+    }
+    long start = System.nanoTime();
+
+    for (long k = 0; k < count; k = k + 1) {
+      long seed = firstSeed + k;
+      this.write(this.generate(seed), seed, this.fileFor(outputDir, seed));
+    }
+    return new BatchReport(count, System.nanoTime() - start);
+  }
+
+  // returns a report on generating and saving the mazes for every seed
+  // from firstSeed to lastSeed inclusive, using the given number of threads
+  // EFFECT: writes those mazes into the given directory, the same files as run
+  BatchReport runParallel(long firstSeed, long lastSeed, File outputDir, int threads)
+      throws IOException {
+    long count = this.seeds(firstSeed, lastSeed);
+    if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+      throw new IOException("Could not create directory " + outputDir);
+    }
+    long start = System.nanoTime();
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+    try {
+      // each task covers a run of seeds so tiny mazes are not swamped by
+      // the cost of handing out tasks
+      long chunk = Math.max(1, Math.min(1024, count / (threads * 8L)));
+      ArrayDeque<Future<Void>> tasks = new ArrayDeque<Future<Void>>();
+
+      for (long from = 0; from < count; from = from + chunk) {
+        long first = firstSeed + from;
+        long seeds = Math.min(chunk, count - from);
+        tasks.add(pool.submit(new Callable<Void>() {
+          public Void call() throws IOException {
+            for (long k = 0; k < seeds; k = k + 1) {
+              long seed = first + k;
+              MazeBatch.this.write(MazeBatch.this.generate(seed), seed,
+                  MazeBatch.this.fileFor(outputDir, seed));
+            }
+            return null;
+          }
+        }));
+      }
+      while (!tasks.isEmpty()) {
+        this.await(tasks.removeFirst());
+      }
+    }
+    finally {
+      pool.shutdownNow();
+    }
+    return new BatchReport(count, System.nanoTime() - start);
+  }
+
+  // returns a report on generating the mazes for every seed from firstSeed
+  // to lastSeed inclusive, using the given number of threads
+  // EFFECT: hands each maze to the given sink on the calling thread, in seed
+  // order if inSeedOrder is true and otherwise as soon as it is done
+  BatchReport generateAll(long firstSeed, long lastSeed, int threads, boolean inSeedOrder,
+      IMazeSink sink) throws IOException {
+    long count = this.seeds(firstSeed, lastSeed);
+    long start = System.nanoTime();
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    CompletionService<SeededMaze> done = new ExecutorCompletionService<SeededMaze>(pool);
+    ArrayDeque<Future<SeededMaze>> inFlight = new ArrayDeque<Future<SeededMaze>>();
+    // keep every worker busy without holding on to more than a few mazes each
+    int window = threads * 4;
+
+    try {
+      long submitted = 0;
+      while (submitted < count || !inFlight.isEmpty()) {
+        while (submitted < count && inFlight.size() < window) {
+          long seed = firstSeed + submitted;
+          inFlight.add(done.submit(new Callable<SeededMaze>() {
+            public SeededMaze call() {
+              return new SeededMaze(seed, MazeBatch.this.generate(seed));
+            }
+          }));
+          submitted = submitted + 1;
+        }
+
+        SeededMaze result;
+        if (inSeedOrder) {
+          result = this.await(inFlight.removeFirst());
+        }
+        else {
+          Future<SeededMaze> finished = this.take(done);
+          inFlight.remove(finished);
+          result = this.await(finished);
+        }
+        sink.accept(result.seed, result.grid);
+      }
+    }
+    finally {
+      pool.shutdownNow();
+    }
+    return new BatchReport(count, System.nanoTime() - start);
+  }
+
+  // returns the result of the given task once it is done
+  <T> T await(Future<T> task) throws IOException {
+    try {
+      return task.get();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while generating mazes");
+    }
+    catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  // returns the next task to finish
+  <T> Future<T> take(CompletionService<T> done) throws IOException {
+    try {
+      return done.take();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while generating mazes");
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 5 && args.length != 6) {
+      System.err.println("usage: java MazeBatch <length> <height> <firstSeed> <lastSeed> "
+          + "<outputDir> [threads]");
+      System.exit(2);
+    }
+    MazeBatch batch = new MazeBatch(Integer.parseInt(args[0]), Integer.parseInt(args[1]));
+    long firstSeed = Long.parseLong(args[2]);
+    long lastSeed = Long.parseLong(args[3]);
+    int threads = 1;
+    if (args.length == 6) {
+      threads = Integer.parseInt(args[5]);
+    }
+
+    BatchReport report;
+    if (threads > 1) {
+      report = batch.runParallel(firstSeed, lastSeed, new File(args[4]), threads);
+    }
+    else {
+      report = batch.run(firstSeed, lastSeed, new File(args[4]));
+    }
+    System.out.println(report + " on " + threads + " thread(s)");
+  }
+
+}
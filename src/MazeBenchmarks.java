@@ -0,0 +1,419 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import javalib.impworld.WorldScene;
+
+// times the expensive parts of making and solving mazes, without a window
+//
+//   java MazeBenchmarks [threads]
+//   java MazeBenchmarks <threads> <length>x<height>...
+//
+// every case is run a few times first so the JIT has compiled it,
+// then timed and reported as the best of several runs. Given sizes, only
+// the hot paths of the game are run, at each size, and reported with both
+// their time and what they allocate, to compare one build with another
+class MazeBenchmarks {
+  static final int WARMUPS = 3;
+  static final int RUNS = 5;
+
+  // returns the fastest time, in nanoseconds, of running the given case
+  // RUNS times, after running it WARMUPS times untimed
+  long bestOf(Runnable benchmark) {
+    for (int i = 0; i < WARMUPS; i = i + 1) {
+      benchmark.run();
+    }
+    long best = Long.MAX_VALUE;
+    for (int i = 0; i < RUNS; i = i + 1) {
+      long start = System.nanoTime();
+      benchmark.run();
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    return best;
+  }
+
+  // EFFECT: prints how long the given case took for the given number of cells
+  void report(String name, int cells, long nanos) {
+    System.out.println(String.format("%-40s %12d cells %10.1f ms %8.1f Mcells/s", name, cells,
+        nanos / 1e6, cells / (nanos / 1e3)));
+  }
+
+  // EFFECT: compares generating one length x height maze on one thread
+  // with generating it in tiles on the given number of threads
+  void generation(int length, int height, int threads) {
+    int cells = length * height;
+
+    this.report("KruskalGenerator " + length + "x" + height, cells,
+        this.bestOf(new Runnable() {
+          public void run() {
+            new KruskalGenerator().generate(new MazeGrid(length, height), 1);
+          }
+        }));
+
+    for (int tileSize : new int[] { 256, 1024 }) {
+      this.report("TiledKruskalGenerator " + tileSize + " x" + threads, cells,
+          this.bestOf(new Runnable() {
+            public void run() {
+              new TiledKruskalGenerator(tileSize, threads).generate(new MazeGrid(length, height),
+                  1);
+            }
+          }));
+    }
+  }
+
+  // EFFECT: compares the generators a Maze can be made with on one
+  // length x height maze. Mazes too big to generate eight times in a
+  // reasonable while are generated once, which is long enough for the JIT
+  void generators(int length, int height) {
+    int cells = length * height;
+    IGenerator[] generators = new IGenerator[] { new KruskalGenerator(),
+        new BacktrackerGenerator(), new PrimGenerator(), new WilsonGenerator(),
+        new BinaryTreeGenerator(), new SidewinderGenerator() };
+
+    for (IGenerator generator : generators) {
+      Runnable benchmark = new Runnable() {
+        public void run() {
+          generator.generate(new MazeGrid(length, height), 1);
+        }
+      };
+      String name = generator.getClass().getSimpleName() + " " + length + "x" + height;
+
+      if (cells > 10000000) {
+        long start = System.nanoTime();
+        benchmark.run();
+        this.report(name, cells, System.nanoTime() - start);
+      }
+      else {
+        this.report(name, cells, this.bestOf(benchmark));
+      }
+    }
+  }
+
+  // EFFECT: times streaming a length x height maze, row by row,
+  // to a sink that throws the rows away
+  void streaming(int length, int height) {
+    this.report("EllerGenerator " + length + "x" + height, length * height,
+        this.bestOf(new Runnable() {
+          public void run() {
+            try {
+              new EllerGenerator(length).generate(height, 1, new IRowSink() {
+                public void acceptRow(long row, long[] rowEdges) {
+                }
+              });
+            }
+            catch (IOException e) {
+              throw new IllegalStateException(e);
+            }
+          }
+        }));
+  }
+
+  // returns how many bytes the current thread has allocated so far
+  long allocatedBytes() {
+    return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+        .getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  // returns the fewest bytes allocated by running the given case RUNS
+  // times, after running it WARMUPS times unmeasured
+  long leastAllocatedBy(Runnable benchmark) {
+    for (int i = 0; i < WARMUPS; i = i + 1) {
+      benchmark.run();
+    }
+    long least = Long.MAX_VALUE;
+    for (int i = 0; i < RUNS; i = i + 1) {
+      long before = this.allocatedBytes();
+      benchmark.run();
+      least = Math.min(least, this.allocatedBytes() - before);
+    }
+    return least;
+  }
+
+  // EFFECT: prints how much the given case allocated for the given number of cells
+  void reportAllocation(String name, int cells, long bytes) {
+    System.out.println(String.format("%-40s %12d cells %10.1f KB %8.1f bytes/cell", name,
+        cells, bytes / 1024.0, bytes / (double) cells));
+  }
+
+  // EFFECT: prints how many of the given number of cells a search took
+  // off its worklist
+  void reportExpanded(String name, int cells, int expanded) {
+    System.out.println(String.format("%-40s %12d cells %10d expanded %6.1f %%", name, cells,
+        expanded, 100.0 * expanded / cells));
+  }
+
+  // EFFECT: compares the memory one frame of a length x height maze
+  // allocates when every cell image is built with drawCell, and when the
+  // frame only repaints the dirty cells of a MazeCanvas
+  void drawing(int length, int height) {
+    int cellSize = Math.max(Camera.DETAIL_SIZE, Math.min(1000 / length, 600 / height));
+    ArrayList<Cell> board = new ArrayListUtils().initilizeBoard(length, height, cellSize, 1);
+    int cells = length * height;
+
+    this.reportAllocation("drawCell " + length + "x" + height, cells,
+        this.leastAllocatedBy(new Runnable() {
+          public void run() {
+            WorldScene ws = new WorldScene(1000, 600);
+            for (Cell c : board) {
+              c.drawCell(ws, cellSize);
+            }
+          }
+        }));
+
+    Maze maze = new Maze(board, length, height, cellSize);
+    maze.makeScene();
+    this.reportAllocation("makeScene after one step " + length + "x" + height, cells,
+        this.leastAllocatedBy(new Runnable() {
+          public void run() {
+            maze.markDirty(board.get(0));
+            maze.makeScene();
+          }
+        }));
+  }
+
+  // EFFECT: times breadth first, depth first, A* and bidirectional searches
+  // across a length x height maze and reading back the path one found, and
+  // prints how many cells they took and what running one allocates once it
+  // has been made
+  void solving(int length, int height) {
+    MazeGrid grid = new MazeGrid(length, height);
+    new KruskalGenerator().generate(grid, 1);
+    int cells = length * height;
+
+    this.report("breadth first Search " + length + "x" + height, cells,
+        this.bestOf(new Runnable() {
+          public void run() {
+            new Search(grid, new Queue(cells), 0, cells - 1).solve();
+          }
+        }));
+    this.report("depth first Search " + length + "x" + height, cells,
+        this.bestOf(new Runnable() {
+          public void run() {
+            new Search(grid, new Stack(cells), 0, cells - 1).solve();
+          }
+        }));
+    this.report("AStarSearch " + length + "x" + height, cells,
+        this.bestOf(new Runnable() {
+          public void run() {
+            new AStarSearch(grid, 0, cells - 1).solve();
+          }
+        }));
+    this.report("BidirectionalSearch " + length + "x" + height, cells,
+        this.bestOf(new Runnable() {
+          public void run() {
+            new BidirectionalSearch(grid, 0, cells - 1).solve();
+          }
+        }));
+
+    Search bfs = new Search(grid, new Queue(cells), 0, cells - 1);
+    bfs.solve();
+    this.reportExpanded("breadth first Search " + length + "x" + height, cells, bfs.expanded);
+    Search astar = new AStarSearch(grid, 0, cells - 1);
+    astar.solve();
+    this.reportExpanded("AStarSearch " + length + "x" + height, cells, astar.expanded);
+    Search both = new BidirectionalSearch(grid, 0, cells - 1);
+    both.solve();
+    this.reportExpanded("BidirectionalSearch " + length + "x" + height, cells, both.expanded);
+
+    Search search = new Search(grid, new Queue(cells), 0, cells - 1);
+    long before = this.allocatedBytes();
+    search.solve();
+    this.reportAllocation("solving after setup " + length + "x" + height, cells,
+        this.allocatedBytes() - before);
+
+    int[] path = search.path();
+    this.report("Search.path, " + path.length + " cells long", path.length,
+        this.bestOf(new Runnable() {
+          public void run() {
+            search.path();
+          }
+        }));
+  }
+
+  // EFFECT: times building a MazeIndex of a length x height maze, and
+  // answering a batch of distance queries with it between random cells
+  void indexing(int length, int height, int queries) {
+    MazeGrid grid = new MazeGrid(length, height);
+    new KruskalGenerator().generate(grid, 1);
+    int cells = length * height;
+
+    this.report("MazeIndex " + length + "x" + height, cells, this.bestOf(new Runnable() {
+      public void run() {
+        new MazeIndex(grid);
+      }
+    }));
+
+    MazeIndex index = new MazeIndex(grid);
+    int[] pairs = new int[2 * queries];
+    SplittableRandom random = new SplittableRandom(1);
+    for (int k = 0; k < pairs.length; k = k + 1) {
+      pairs[k] = random.nextInt(cells);
+    }
+    int[] distances = new int[queries];
+    this.report("MazeIndex.distances, queries", queries, this.bestOf(new Runnable() {
+      public void run() {
+        index.distances(pairs, distances);
+      }
+    }));
+  }
+
+  // EFFECT: prints how long the given case took at best for the given
+  // number of cells, the fewest bytes it allocated, and how fast it
+  // allocated them in MB per second
+  void measure(String name, int cells, Runnable benchmark) {
+    for (int i = 0; i < WARMUPS; i = i + 1) {
+      benchmark.run();
+    }
+    long best = Long.MAX_VALUE;
+    long least = Long.MAX_VALUE;
+    for (int i = 0; i < RUNS; i = i + 1) {
+      long before = this.allocatedBytes();
+      long start = System.nanoTime();
+      benchmark.run();
+      best = Math.min(best, System.nanoTime() - start);
+      least = Math.min(least, this.allocatedBytes() - before);
+    }
+    System.out.println(String.format("%-40s %12d cells %10.3f ms %12.1f KB %8.1f MB/s", name,
+        cells, best / 1e6, least / 1024.0, least / 1048576.0 / (best / 1e9)));
+  }
+
+  // EFFECT: measures the hot paths of the game on a length x height board:
+  // making it, solving it through mazeStep, reading back the path and drawing
+  // it cell by cell, at a size big enough that makeScene draws cells and not
+  // tiles, which zoomedOut measures
+  void hotPaths(int length, int height) {
+    int cellSize = Math.max(Camera.DETAIL_SIZE, Math.min(1000 / length, 600 / height));
+    int cells = length * height;
+    String size = " " + length + "x" + height;
+    ArrayListUtils utils = new ArrayListUtils();
+    ArrayList<Cell> board = utils.initilizeBoard(length, height, cellSize, 1);
+    Maze maze = new Maze(board, length, height, cellSize);
+
+    this.measure("initilizeBoard" + size, cells, new Runnable() {
+      public void run() {
+        utils.initilizeBoard(length, height, cellSize, 1);
+      }
+    });
+    // opening the same edges again costs the same as opening them the first time
+    this.measure("createMaze" + size, cells, new Runnable() {
+      public void run() {
+        utils.createMaze(board, 1);
+      }
+    });
+    this.measure("resetSolution" + size, cells, new Runnable() {
+      public void run() {
+        maze.resetSolution(new Queue(cells));
+      }
+    });
+    this.measure("breadth first mazeStep" + size, cells, new Runnable() {
+      public void run() {
+        maze.state = new Auto();
+        maze.resetSolution(new Queue(cells));
+        while (maze.state.isAuto()) {
+          maze.mazeStep();
+        }
+      }
+    });
+    this.measure("depth first mazeStep" + size, cells, new Runnable() {
+      public void run() {
+        maze.state = new Auto();
+        maze.resetSolution(new Stack(cells));
+        while (maze.state.isAuto()) {
+          maze.mazeStep();
+        }
+      }
+    });
+    this.measure("Search.path" + size, cells, new Runnable() {
+      public void run() {
+        maze.search.path();
+      }
+    });
+    this.measure("drawCell, every cell" + size, cells, new Runnable() {
+      public void run() {
+        WorldScene ws = new WorldScene(1000, 600);
+        for (Cell c : board) {
+          c.drawCell(ws, cellSize);
+        }
+      }
+    });
+    // the canvas only draws the cells in the window
+    int shown = maze.camera.columns() * maze.camera.rows();
+    this.measure("makeScene, every cell shown" + size, shown, new Runnable() {
+      public void run() {
+        if (maze.canvas != null) {
+          maze.canvas.markAll();
+        }
+        maze.makeScene();
+      }
+    });
+    this.measure("makeScene, nothing changed" + size, shown, new Runnable() {
+      public void run() {
+        maze.makeScene();
+      }
+    });
+  }
+
+  // EFFECT: measures the frames of a length x height maze zoomed all the way
+  // out: making its pyramid, repainting the whole window from it, and
+  // repainting just what a tick of a search changed
+  void zoomedOut(int length, int height) {
+    int cells = length * height;
+    String size = " " + length + "x" + height;
+    MazeGrid grid = new MazeGrid(length, height);
+    new BinaryTreeGenerator().generate(grid, 1);
+    Maze maze = new Maze(grid);
+    while (!maze.camera.showsAll()) {
+      maze.camera.zoom(false);
+    }
+    maze.makeScene();
+
+    this.measure("MazePyramid" + size, cells, new Runnable() {
+      public void run() {
+        new MazePyramid(maze.board, length, height);
+      }
+    });
+    this.measure("makeScene, every tile" + size, cells, new Runnable() {
+      public void run() {
+        maze.overview.markAll();
+        maze.makeScene();
+      }
+    });
+    maze.onKeyEvent("b");
+    maze.stepsPerTick = 10000;
+    this.measure("onTick and makeScene" + size, cells, new Runnable() {
+      public void run() {
+        maze.onTick();
+        maze.makeScene();
+      }
+    });
+  }
+
+  public static void main(String[] args) {
+    int threads = Runtime.getRuntime().availableProcessors();
+    if (args.length > 0) {
+      threads = Integer.parseInt(args[0]);
+    }
+    MazeBenchmarks benchmarks = new MazeBenchmarks();
+
+    if (args.length > 1) {
+      for (int i = 1; i < args.length; i = i + 1) {
+        String[] size = args[i].split("x");
+        benchmarks.hotPaths(Integer.parseInt(size[0]), Integer.parseInt(size[1]));
+      }
+      return;
+    }
+
+    benchmarks.generation(1000, 1000, threads);
+    benchmarks.generation(4000, 4000, threads);
+    benchmarks.generators(1000, 1000);
+    benchmarks.generators(10000, 10000);
+    benchmarks.streaming(5000, 3200);
+    benchmarks.drawing(100, 60);
+    benchmarks.solving(3200, 3200);
+    benchmarks.indexing(3200, 3200, 1000000);
+    benchmarks.hotPaths(100, 60);
+    benchmarks.hotPaths(1000, 600);
+    benchmarks.zoomedOut(4000, 2500);
+  }
+
+}
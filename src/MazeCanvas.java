@@ -0,0 +1,144 @@
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import javalib.worldimages.ComputedPixelImage;
+
+// draws the cells of a board a Camera shows into one raster image and keeps
+// it up to date by repainting only the cells that changed since the last frame
+//
+// every cell shown is painted once when the canvas is made, and again whenever
+// the camera moves or zooms. Otherwise a search only ever changes the color of
+// a few cells per tick, so the game marks those cells dirty and flush
+// repaints just the ones shown; walls never change, so a cell is repainted
+// with the same walls it was first painted with. A frame then places this
+// single image in the scene, so it costs as much as the window does, whatever
+// the size of the maze
+//
+// cells are painted the same as Cell.drawCell: a square of its color with
+// a one pixel black line along each closed side, the right and bottom lines
+// in the last column and row of the square
+class MazeCanvas {
+  ArrayList<Cell> board;
+  Camera camera;
+  int column; // where the camera was when the image was last painted
+  int row;
+  int cellSize;
+  int level;
+  ComputedPixelImage image;
+  boolean[] dirty; // by place in the window, row by row
+  int[] dirtyNames; // the names of the dirty cells, in the order marked
+  int dirtyCount;
+
+  // constructor: paints every cell of the given board, which all fit in a
+  // window at the given size
+  MazeCanvas(ArrayList<Cell> board, int length, int height, int cellSize) {
+    this(board, new Camera(length, height, cellSize));
+  }
+
+  // constructor: paints the cells of the given board the given camera
+  // shows, one by one, which it must not be zoomed out too far for
+  MazeCanvas(ArrayList<Cell> board, Camera camera) {
+    this.board = board;
+    this.camera = camera;
+    this.look();
+    this.flush();
+  }
+
+  // has the camera stayed where it was when the image was last painted?
+  boolean isCurrent() {
+    return this.column == this.camera.column && this.row == this.camera.row
+        && this.cellSize == this.camera.cellSize && this.level == this.camera.level;
+  }
+
+  // EFFECT: catches up with where the camera is, with an image the size of
+  // its window, and marks every cell it shows to be painted
+  void look() {
+    int columns = this.camera.columns();
+    int rows = this.camera.rows();
+
+    if (this.image == null || this.cellSize != this.camera.cellSize
+        || this.dirty.length != columns * rows) {
+      this.image = new ComputedPixelImage(columns * this.camera.cellSize,
+          rows * this.camera.cellSize);
+      this.dirty = new boolean[columns * rows];
+      this.dirtyNames = new int[columns * rows];
+    }
+    this.column = this.camera.column;
+    this.row = this.camera.row;
+    this.cellSize = this.camera.cellSize;
+    this.level = this.camera.level;
+    this.dirtyCount = 0;
+    Arrays.fill(this.dirty, false);
+    this.markAll();
+  }
+
+  // returns the place in the window of the cell with the given name,
+  // which is shown
+  int place(int name) {
+    return (name / this.camera.length - this.row) * this.camera.columns()
+        + name % this.camera.length - this.column;
+  }
+
+  // EFFECT: marks the given cell to be repainted in the next frame, if it is
+  // shown; after the camera moves every cell is repainted anyway
+  void markDirty(Cell c) {
+    if (this.isCurrent() && this.camera.shows(c.name)) {
+      int place = this.place(c.name);
+      if (!this.dirty[place]) {
+        this.dirty[place] = true;
+        this.dirtyNames[this.dirtyCount] = c.name;
+        this.dirtyCount = this.dirtyCount + 1;
+      }
+    }
+  }
+
+  // EFFECT: marks every cell shown to be repainted in the next frame
+  void markAll() {
+    for (int i = 0; i < this.camera.rows(); i = i + 1) {
+      int name = (this.row + i) * this.camera.length + this.column;
+      for (int j = 0; j < this.camera.columns(); j = j + 1) {
+        this.markDirty(this.board.get(name + j));
+      }
+    }
+  }
+
+  // returns how many cells were repainted
+  // EFFECT: catches up with the camera, repaints the dirty cells and marks
+  // them clean
+  int flush() {
+    if (!this.isCurrent()) {
+      this.look();
+    }
+    int repainted = this.dirtyCount;
+
+    for (int k = 0; k < this.dirtyCount; k = k + 1) {
+      int name = this.dirtyNames[k];
+      this.paint(this.board.get(name));
+      this.dirty[this.place(name)] = false;
+    }
+    this.dirtyCount = 0;
+    return repainted;
+  }
+
+  // EFFECT: paints the given cell, which is shown, into the image
+  void paint(Cell c) {
+    int size = this.cellSize;
+    int left = (c.name % this.camera.length - this.column) * size;
+    int top = (c.name / this.camera.length - this.row) * size;
+
+    this.image.setPixels(left, top, size, size, c.color);
+    if (!c.leftEdge) {
+      this.image.setPixels(left, top, 1, size, Color.BLACK);
+    }
+    if (!c.topEdge) {
+      this.image.setPixels(left, top, size, 1, Color.BLACK);
+    }
+    if (!c.rightEdge) {
+      this.image.setPixels(left + size - 1, top, 1, size, Color.BLACK);
+    }
+    if (!c.bottomEdge) {
+      this.image.setPixels(left, top + size - 1, size, 1, Color.BLACK);
+    }
+  }
+
+}
@@ -0,0 +1,135 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+// reads and writes mazes in a compact binary format, all little-endian:
+//
+//   offset  0  int   magic, the bytes "MAZE"
+//   offset  4  int   format version, VERSION
+//   offset  8  int   length of the maze in cells
+//   offset 12  int   id of the algorithm that generated it, one of the
+//                    constants below
+//   offset 16  long  height of the maze in cells
+//   offset 24  long  seed it was generated from
+//   offset 32        the edges of the maze, as the longs of a MazeGrid
+//
+// the header is a multiple of 8 bytes long, so the edges can be read in
+// place as longs from a memory-mapped file. Opening a maze maps the file
+// instead of reading it onto the heap, so it takes the same few
+// milliseconds however big the maze is; pages are only read from disk when
+// the cells on them are first looked at
+class MazeFile {
+  static final int MAGIC = 0x455A414D; // "MAZE" read as a little-endian int
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 32;
+
+  // ids of the algorithms a maze can come from
+  static final int UNKNOWN = 0;
+  static final int KRUSKAL = 1;
+  static final int TILED_KRUSKAL = 2;
+  static final int ELLER = 3;
+  static final int BACKTRACKER = 4;
+  static final int PRIM = 5;
+  static final int WILSON = 6;
+  static final int BINARY_TREE = 7;
+  static final int SIDEWINDER = 8;
+
+  // returns the header for a maze with the given dimensions, seed and algorithm
+  ByteBuffer header(int length, long height, long seed, int algorithm) {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    header.putInt(MAGIC).putInt(VERSION).putInt(length).putInt(algorithm);
+    header.putLong(height).putLong(seed);
+    header.flip();
+    return header;
+  }
+
+  // EFFECT: saves the given maze to the given file
+  void write(MazeGrid grid, long seed, int algorithm, File file) throws IOException {
+    try (FileChannel out = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer header = this.header(grid.length, grid.height, seed, algorithm);
+      while (header.hasRemaining()) {
+        out.write(header);
+      }
+
+      ByteBuffer chunk = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+      int words = MazeGrid.words(grid.length, grid.height);
+      for (int k = 0; k < words; k = k + 1) {
+        if (!chunk.hasRemaining()) {
+          this.drain(chunk, out);
+        }
+        chunk.putLong(grid.word(k));
+      }
+      this.drain(chunk, out);
+    }
+  }
+
+  // EFFECT: writes everything in the given chunk to the given channel
+  // and empties the chunk
+  void drain(ByteBuffer chunk, FileChannel out) throws IOException {
+    chunk.flip();
+    while (chunk.hasRemaining()) {
+      out.write(chunk);
+    }
+    chunk.clear();
+  }
+
+  // EFFECT: writes the header of a maze with the given dimensions, seed and
+  // algorithm to the given stream, for the edges to be streamed after it
+  void writeHeader(OutputStream out, int length, long height, long seed, int algorithm)
+      throws IOException {
+    out.write(this.header(length, height, seed, algorithm).array());
+  }
+
+  // returns the maze saved in the given file, read in place from a
+  // read-only mapping; changing it never changes the file
+  MappedMazeGrid read(File file) throws IOException {
+    try (FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      long size = in.size();
+      if (size < HEADER_BYTES) {
+        throw new IOException(file + " is too short to be a maze file");
+      }
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException(file + " is too large to map, at " + size + " bytes");
+      }
+      MappedByteBuffer map = in.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      map.order(ByteOrder.LITTLE_ENDIAN);
+
+      if (map.getInt(0) != MAGIC) {
+        throw new IOException(file + " is not a maze file");
+      }
+      if (map.getInt(4) != VERSION) {
+        throw new IOException(file + " has unsupported version " + map.getInt(4));
+      }
+      int length = map.getInt(8);
+      long height = map.getLong(16);
+      if (length < 1 || height < 1) {
+        throw new IOException(file + " holds " + length + " x " + height
+            + " cells, but a maze needs at least one");
+      }
+      if (height > Integer.MAX_VALUE || (long) length * height > Integer.MAX_VALUE / 2) {
+        throw new IOException(file + " holds " + length + " x " + height
+            + " cells, more than a MazeGrid can address");
+      }
+      int words = MazeGrid.words(length, (int) height);
+      if (size < HEADER_BYTES + 8L * words) {
+        throw new IOException(file + " is truncated");
+      }
+      if (size > HEADER_BYTES + 8L * words) {
+        throw new IOException(file + " has " + (size - HEADER_BYTES - 8L * words)
+            + " bytes past the " + length + " x " + height + " cells its header gives");
+      }
+
+      LongBuffer edges = map.position(HEADER_BYTES).slice().order(ByteOrder.LITTLE_ENDIAN)
+          .asLongBuffer();
+      return new MappedMazeGrid(length, (int) height, map.getLong(24), map.getInt(12), edges);
+    }
+  }
+
+}
@@ -0,0 +1,271 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// represents a maze as a grid of length x height cells named row by row,
+// so the cell in column j of row i is named i * length + j
+//
+// only two bits are stored per cell: whether it is open to the cell on its
+// right and whether it is open to the cell below it. Left and top edges are
+// the right and bottom edges of the neighboring cells, and neighbors and
+// positions are computed from the name, so a grid costs 0.25 bytes per cell
+// (a 10000 x 10000 maze of 100M cells takes 25 MB)
+//
+// bit (name << 1) | direction of edges is set when that edge is open, which is
+// the same packing KruskalGenerator uses for its edges
+//
+// generators and walks that go from a cell to any of its four neighbors name
+// the way they go with a number from 0 to 3: up, left, down and right, the
+// order of neighbors, so the opposite of way w is (w + 2) & 3
+class MazeGrid {
+  static final int RIGHT = KruskalGenerator.RIGHT;
+  static final int DOWN = KruskalGenerator.DOWN;
+  static final long RIGHTS = 0x5555555555555555L; // the right bit of every cell of a long
+  static final long DOWNS = RIGHTS << 1; // the down bit of every cell of a long
+  static final VarHandle EDGE_WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+  int length;
+  int height;
+  long[] edges;
+
+  // constructor: a grid with every wall closed
+  MazeGrid(int length, int height) {
+    this(length, height, new long[MazeGrid.words(length, height)]);
+  }
+
+  // constructor: a grid whose edges are kept in the given longs, or somewhere
+  // else entirely when they are null and a subclass reads them itself
+  MazeGrid(int length, int height, long[] edges) {
+    MazeGrid.words(length, height);
+    this.length = length;
+    this.height = height;
+    this.edges = edges;
+  }
+
+  // returns how many longs hold the edges of a grid with the given dimensions
+  static int words(int length, int height) {
+    if (length < 1 || height < 1) {
+      throw new IllegalArgumentException("A maze needs at least one cell, given " + length
+          + " x " + height);
+    }
+    if ((long) length * height > Integer.MAX_VALUE / 2) {
+      throw new IllegalArgumentException("A maze can have at most " + Integer.MAX_VALUE / 2
+          + " cells, given " + length + " x " + height);
+    }
+    return (int) (((long) length * height * 2 + 63) >>> 6);
+  }
+
+  // returns longs that hold a way, two bits, for each of the given number of cells
+  static long[] ways(int size) {
+    return new long[(int) (((long) size * 2 + 63) >>> 6)];
+  }
+
+  // returns the way stored for the given cell in the given ways
+  static int wayOf(long[] ways, int name) {
+    long bit = (long) name << 1;
+    return (int) (ways[(int) (bit >>> 6)] >>> bit) & 3;
+  }
+
+  // EFFECT: stores the given way for the given cell in the given ways
+  static void setWay(long[] ways, int name, int way) {
+    long bit = (long) name << 1;
+    int index = (int) (bit >>> 6);
+    ways[index] = (ways[index] & ~(3L << bit)) | ((long) way << bit);
+  }
+
+  // returns the long of edges with the given index
+  long word(int index) {
+    return this.edges[index];
+  }
+
+  // returns the number of cells in this grid
+  int size() {
+    return this.length * this.height;
+  }
+
+  // returns the column of the cell with the given name
+  int column(int name) {
+    return name % this.length;
+  }
+
+  // returns the row of the cell with the given name
+  int row(int name) {
+    return name / this.length;
+  }
+
+  // is the given packed edge open?
+  boolean isOpen(int edge) {
+    return (this.edges[edge >>> 6] & (1L << edge)) != 0;
+  }
+
+  // EFFECT: opens the given packed edge
+  void open(int edge) {
+    this.edges[edge >>> 6] = this.edges[edge >>> 6] | (1L << edge);
+  }
+
+  // EFFECT: opens the given packed edge, even while other threads
+  // are opening edges that share the same long
+  void openAtomically(int edge) {
+    EDGE_WORDS.getAndBitwiseOr(this.edges, edge >>> 6, 1L << edge);
+  }
+
+  // EFFECT: sets the long of edges with the given index, the right and then
+  // the down bit of each of its 32 cells, to the given long
+  void setWord(int index, long word) {
+    this.edges[index] = word;
+  }
+
+  // EFFECT: sets the two edge bits of the given cell to the given two bits,
+  // with the right bit lowest
+  void setEdges(int name, int bits) {
+    long bit = (long) name << 1;
+    int index = (int) (bit >>> 6);
+    this.setWord(index, (this.word(index) & ~(3L << bit)) | ((long) bits << bit));
+  }
+
+  // EFFECT: clears the bits of the last long of edges that come after the
+  // last cell, which setting whole longs can leave set
+  void clearPast() {
+    long used = (long) this.size() * 2;
+    if ((used & 63) != 0) {
+      int last = (int) (used >>> 6);
+      this.setWord(last, this.word(last) & ((1L << used) - 1));
+    }
+  }
+
+  // can you travel from the given cell to the cell on its right?
+  boolean hasRightEdge(int name) {
+    return this.isOpen((name << 1) | RIGHT);
+  }
+
+  // can you travel from the given cell to the cell below it?
+  boolean hasBottomEdge(int name) {
+    return this.isOpen((name << 1) | DOWN);
+  }
+
+  // can you travel from the given cell to the cell on its left?
+  boolean hasLeftEdge(int name) {
+    return this.column(name) > 0 && this.hasRightEdge(name - 1);
+  }
+
+  // can you travel from the given cell to the cell above it?
+  boolean hasTopEdge(int name) {
+    return name >= this.length && this.hasBottomEdge(name - this.length);
+  }
+
+  // returns how many cells it is possible to travel to from the given cell
+  // EFFECT: writes their names to the front of the given array, in the same
+  // order as Cell.neighbors (top, left, bottom, right)
+  int neighbors(int name, int[] into) {
+    int count = 0;
+
+    if (this.hasTopEdge(name)) {
+      into[count] = name - this.length;
+      count = count + 1;
+    }
+    if (this.hasLeftEdge(name)) {
+      into[count] = name - 1;
+      count = count + 1;
+    }
+    if (this.hasBottomEdge(name)) {
+      into[count] = name + this.length;
+      count = count + 1;
+    }
+    if (this.hasRightEdge(name)) {
+      into[count] = name + 1;
+      count = count + 1;
+    }
+    return count;
+  }
+
+  // returns the name of the cell next to the given one the given way,
+  // or -1 if that is off the grid
+  int toward(int name, int way) {
+    if (way == 0 && name >= this.length) {
+      return name - this.length;
+    }
+    else if (way == 1 && this.column(name) > 0) {
+      return name - 1;
+    }
+    else if (way == 2 && name < this.size() - this.length) {
+      return name + this.length;
+    }
+    else if (way == 3 && this.column(name) < this.length - 1) {
+      return name + 1;
+    }
+    else {
+      return -1;
+    }
+  }
+
+  // can you travel from the given cell the given way?
+  boolean isOpenToward(int name, int way) {
+    if (way == 0) {
+      return this.hasTopEdge(name);
+    }
+    else if (way == 1) {
+      return this.hasLeftEdge(name);
+    }
+    else if (way == 2) {
+      return this.hasBottomEdge(name);
+    }
+    else {
+      return this.hasRightEdge(name);
+    }
+  }
+
+  // EFFECT: opens the edge from the given cell the given way,
+  // which must stay on the grid
+  void openToward(int name, int way) {
+    if (way == 0) {
+      this.open(((name - this.length) << 1) | DOWN);
+    }
+    else if (way == 1) {
+      this.open(((name - 1) << 1) | RIGHT);
+    }
+    else if (way == 2) {
+      this.open((name << 1) | DOWN);
+    }
+    else {
+      this.open((name << 1) | RIGHT);
+    }
+  }
+
+  // is the given cell open to any of its neighbors?
+  boolean isJoined(int name) {
+    return this.hasRightEdge(name) || this.hasBottomEdge(name) || this.hasLeftEdge(name)
+        || this.hasTopEdge(name);
+  }
+
+  // returns the name of the cell in the direction indicated by the key,
+  // or -1 if there is a wall that way
+  int findNext(int name, String key) {
+    if ("left".equals(key) && this.hasLeftEdge(name)) {
+      return name - 1;
+    }
+    else if ("right".equals(key) && this.hasRightEdge(name)) {
+      return name + 1;
+    }
+    else if ("up".equals(key) && this.hasTopEdge(name)) {
+      return name - this.length;
+    }
+    else if ("down".equals(key) && this.hasBottomEdge(name)) {
+      return name + this.length;
+    }
+    else {
+      return -1;
+    }
+  }
+
+  // returns the x coordinate of the center of the given cell
+  // when every cell is drawn cellSize pixels wide
+  int x(int name, int cellSize) {
+    return cellSize * this.column(name) + cellSize / 2;
+  }
+
+  // returns the y coordinate of the center of the given cell
+  // when every cell is drawn cellSize pixels tall
+  int y(int name, int cellSize) {
+    return cellSize * this.row(name) + cellSize / 2;
+  }
+
+}
@@ -0,0 +1,89 @@
+import java.awt.Color;
+import java.util.ArrayList;
+import javalib.impworld.WorldScene;
+import javalib.worldimages.OutlineMode;
+import javalib.worldimages.RectangleImage;
+import javalib.worldimages.TextImage;
+
+// measures how the game is running and draws the figures over the maze
+//
+// the game hands every tick and frame to the HUD, which keeps a few numbers
+// about them whether it is shown or not; that costs one clock read per tick
+// and per frame. Only drawing the figures allocates, and that only happens
+// while the HUD is shown
+class MazeHud {
+  static final int WIDTH = 240;
+  static final int LINE_HEIGHT = 18;
+  static final int TEXT_SIZE = 14;
+  static final long SECOND = 1000000000L;
+
+  boolean shown;
+  long frameNanos; // how long the last frame took to build
+  long windowStart; // when the ticks being counted began, or 0 before any tick
+  int windowTicks; // how many ticks there have been since windowStart
+  double ticksPerSecond; // over the last full second of ticks
+  int stepsLastTick;
+
+  // EFFECT: shows this HUD if it is hidden, and hides it if it is shown
+  void toggle() {
+    this.shown = !this.shown;
+  }
+
+  // EFFECT: records a tick at the given time that took the given number of steps,
+  // working out ticks per second again once a second has passed
+  void tick(long now, int steps) {
+    this.stepsLastTick = steps;
+    if (this.windowStart == 0) {
+      this.windowStart = now;
+    }
+    this.windowTicks = this.windowTicks + 1;
+
+    long elapsed = now - this.windowStart;
+    if (elapsed >= SECOND) {
+      this.ticksPerSecond = this.windowTicks * (double) SECOND / elapsed;
+      this.windowTicks = 0;
+      this.windowStart = now;
+    }
+  }
+
+  // EFFECT: records that a frame took the given nanoseconds to build
+  void frame(long nanos) {
+    this.frameNanos = nanos;
+  }
+
+  // returns the lines this HUD shows for the given search, or null if there
+  // is none yet, of a board of the given number of cells
+  ArrayList<String> lines(Search search, int cells) {
+    int visited = 0;
+    int frontier = 0;
+    if (search != null) {
+      visited = search.expanded;
+      frontier = search.frontier();
+    }
+
+    ArrayList<String> lines = new ArrayList<String>();
+    lines.add(String.format("frame %.2f ms", this.frameNanos / 1e6));
+    lines.add(String.format("ticks/s %.1f", this.ticksPerSecond));
+    lines.add("steps/tick " + this.stepsLastTick);
+    lines.add("visited " + visited + " / " + cells);
+    lines.add("frontier " + frontier);
+    return lines;
+  }
+
+  // EFFECT: draws the figures of this HUD in the top left corner of the
+  // given scene, if it is shown
+  void draw(WorldScene ws, Search search, int cells) {
+    if (this.shown) {
+      ArrayList<String> lines = this.lines(search, cells);
+      int height = LINE_HEIGHT * lines.size() + LINE_HEIGHT / 2;
+
+      ws.placeImageXY(new RectangleImage(WIDTH, height, OutlineMode.SOLID,
+          new Color(0, 0, 0, 180)), WIDTH / 2, height / 2);
+      for (int k = 0; k < lines.size(); k = k + 1) {
+        ws.placeImageXY(new TextImage(lines.get(k), TEXT_SIZE, Color.white), WIDTH / 2,
+            LINE_HEIGHT * k + LINE_HEIGHT);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,234 @@
+import java.util.Arrays;
+
+// represents an index of a maze for answering distance and path queries
+// between any two cells without searching
+//
+// every maze made here is a spanning tree, so there is exactly one path
+// between two cells, and it goes up from each of them to their lowest common
+// ancestor (LCA) in the tree rooted at cell 0. The index keeps each cell's
+// parent and depth, and an Euler tour: the order a depth first walk enters
+// and returns to the cells, 2n - 1 names long. The LCA of two cells is the
+// shallowest cell between their first places in the tour.
+//
+// the tour is cut into blocks of BLOCK cells, and a sparse table holds where
+// the shallowest cell of every run of 1, 2, 4, ... blocks is, so a query scans
+// at most two part blocks and looks up two runs: constant time, with the table
+// taking a small part of the memory a table over every cell would. The depths
+// are copied into tourDepth in tour order so those scans read memory in order
+class MazeIndex {
+  static final int BLOCK = 32;
+
+  MazeGrid grid;
+  int[] parent; // the root is its own parent
+  int[] depth; // how many steps each cell is from the root
+  int[] first; // where each cell first comes up in tour
+  int[] tour;
+  int[] tourDepth; // the depth of each cell in tour
+  int[][] table; // table[k][b] is where in tour the shallowest cell of blocks
+                 // b to b + 2^k - 1 is
+
+  // constructor: an index of the given maze, which must be a spanning tree
+  MazeIndex(MazeGrid grid) {
+    this.grid = grid;
+    this.parent = new int[grid.size()];
+    this.depth = new int[grid.size()];
+    this.first = new int[grid.size()];
+    this.tour = new int[2 * grid.size() - 1];
+    this.tourDepth = new int[this.tour.length];
+
+    this.walk();
+    for (int i = 0; i < this.tour.length; i = i + 1) {
+      this.tourDepth[i] = this.depth[this.tour[i]];
+    }
+    this.table = this.buildTable();
+  }
+
+  // returns the name of the cell next to the given one the given way
+  // (see MazeGrid), or -1 if there is a wall that way
+  int next(int name, int way) {
+    if (this.grid.isOpenToward(name, way)) {
+      return this.grid.toward(name, way);
+    }
+    else {
+      return -1;
+    }
+  }
+
+  // EFFECT: walks the maze depth first from cell 0 with a stack of its own,
+  // however deep it goes, setting parent, depth, first and tour
+  void walk() {
+    int size = this.grid.size();
+    int[] stack = new int[size];
+    byte[] tried = new byte[size]; // how many directions each cell has tried
+    Arrays.fill(this.first, -1);
+
+    stack[0] = 0;
+    int top = 1;
+    this.parent[0] = 0;
+    this.first[0] = 0;
+    this.tour[0] = 0;
+    int length = 1;
+
+    while (top > 0) {
+      int name = stack[top - 1];
+
+      if (tried[name] == 4) {
+        top = top - 1;
+        if (top > 0) {
+          this.tour[length] = stack[top - 1];
+          length = length + 1;
+        }
+      }
+      else {
+        int next = this.next(name, tried[name]);
+        tried[name] = (byte) (tried[name] + 1);
+
+        if (next != -1 && next != this.parent[name]) {
+          if (this.first[next] != -1) {
+            throw new IllegalArgumentException("The maze has a loop through cell " + next);
+          }
+          this.parent[next] = name;
+          this.depth[next] = this.depth[name] + 1;
+          this.first[next] = length;
+          this.tour[length] = next;
+          length = length + 1;
+          stack[top] = next;
+          top = top + 1;
+        }
+      }
+    }
+
+    if (length != this.tour.length) {
+      throw new IllegalArgumentException("The maze is not connected: only "
+          + (length + 1) / 2 + " of " + size + " cells can be reached from cell 0");
+    }
+  }
+
+  // returns whichever of the given indexes of tour has the shallower cell
+  int shallower(int i, int j) {
+    if (this.tourDepth[j] < this.tourDepth[i]) {
+      return j;
+    }
+    else {
+      return i;
+    }
+  }
+
+  // returns where the shallowest cell in tour from index from to index to,
+  // inclusive, is
+  int scan(int from, int to) {
+    int best = from;
+    for (int i = from + 1; i <= to; i = i + 1) {
+      if (this.tourDepth[i] < this.tourDepth[best]) {
+        best = i;
+      }
+    }
+    return best;
+  }
+
+  // returns the sparse table over the blocks of tour
+  int[][] buildTable() {
+    int blocks = (this.tour.length + BLOCK - 1) / BLOCK;
+    int levels = 32 - Integer.numberOfLeadingZeros(blocks);
+    int[][] table = new int[levels][];
+
+    table[0] = new int[blocks];
+    for (int b = 0; b < blocks; b = b + 1) {
+      table[0][b] = this.scan(b * BLOCK, Math.min(this.tour.length, (b + 1) * BLOCK) - 1);
+    }
+    for (int k = 1; k < levels; k = k + 1) {
+      int half = 1 << (k - 1);
+      table[k] = new int[blocks - (1 << k) + 1];
+      for (int b = 0; b < table[k].length; b = b + 1) {
+        table[k][b] = this.shallower(table[k - 1][b], table[k - 1][b + half]);
+      }
+    }
+    return table;
+  }
+
+  // returns where the shallowest cell of blocks from to to, inclusive, is,
+  // as the shallower of two runs that cover them
+  int blocksMin(int from, int to) {
+    int k = 31 - Integer.numberOfLeadingZeros(to - from + 1);
+    return this.shallower(this.table[k][from], this.table[k][to - (1 << k) + 1]);
+  }
+
+  // returns the lowest common ancestor of the given cells
+  int lca(int a, int b) {
+    return this.tour[this.lcaIndex(a, b)];
+  }
+
+  // returns where in tour the lowest common ancestor of the given cells
+  // is between their first places
+  int lcaIndex(int a, int b) {
+    int from = Math.min(this.first[a], this.first[b]);
+    int to = Math.max(this.first[a], this.first[b]);
+    int fromBlock = from / BLOCK;
+    int toBlock = to / BLOCK;
+
+    if (toBlock - fromBlock < 2) {
+      return this.scan(from, to);
+    }
+    int best = this.scan(from, (fromBlock + 1) * BLOCK - 1);
+    best = this.shallower(best, this.blocksMin(fromBlock + 1, toBlock - 1));
+    return this.shallower(best, this.scan(toBlock * BLOCK, to));
+  }
+
+  // returns how many steps the path between the given cells takes
+  int distance(int a, int b) {
+    return this.depth[a] + this.depth[b] - 2 * this.tourDepth[this.lcaIndex(a, b)];
+  }
+
+  // returns the names of the cells on the path from a to b, a first
+  int[] path(int a, int b) {
+    int ancestor = this.lca(a, b);
+    int up = this.depth[a] - this.depth[ancestor];
+    int[] path = new int[up + this.depth[b] - this.depth[ancestor] + 1];
+
+    int c = a;
+    for (int k = 0; k <= up; k = k + 1) {
+      path[k] = c;
+      c = this.parent[c];
+    }
+    c = b;
+    for (int k = path.length - 1; k > up; k = k - 1) {
+      path[k] = c;
+      c = this.parent[c];
+    }
+    return path;
+  }
+
+  // EFFECT: writes the distance between the cells pairs[2k] and pairs[2k + 1]
+  // into distances[k], for every pair
+  void distances(int[] pairs, int[] distances) {
+    if (pairs.length % 2 != 0 || distances.length < pairs.length / 2) {
+      throw new IllegalArgumentException("Need an even number of cells and room for "
+          + pairs.length / 2 + " distances, given " + pairs.length + " and "
+          + distances.length);
+    }
+    for (int k = 0; k < pairs.length / 2; k = k + 1) {
+      distances[k] = this.distance(pairs[2 * k], pairs[2 * k + 1]);
+    }
+  }
+
+  // returns the distance between the cells pairs[2k] and pairs[2k + 1] for every pair
+  int[] distances(int[] pairs) {
+    int[] distances = new int[pairs.length / 2];
+    this.distances(pairs, distances);
+    return distances;
+  }
+
+  // returns the path between the cells pairs[2k] and pairs[2k + 1] for every pair
+  int[][] paths(int[] pairs) {
+    if (pairs.length % 2 != 0) {
+      throw new IllegalArgumentException("Need an even number of cells, given "
+          + pairs.length);
+    }
+    int[][] paths = new int[pairs.length / 2][];
+    for (int k = 0; k < paths.length; k = k + 1) {
+      paths[k] = this.path(pairs[2 * k], pairs[2 * k + 1]);
+    }
+    return paths;
+  }
+
+}
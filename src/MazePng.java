@@ -0,0 +1,232 @@
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.IndexColorModel;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.BitSet;
+
+// draws a MazeGrid straight into pixels, without javalib, at any size
+//
+//   java MazePng <mazeFile> <pngFile> [cellSize]
+//
+// exports a maze saved by MazeFile as a PNG for printing
+//
+// every cell is cellSize pixels square. Its first column and first row of
+// pixels are its left and top walls, black when closed; the corner pixel
+// where walls meet is always black, and one more column and row of black
+// close off the right and bottom of the maze. Cells take the colors the game
+// draws them in: the start at the top left in pink and the end at the bottom
+// right in green, cells on the optional solution path in green, cells in the
+// optional visited set, the ones a search looked at, in pink, and every other
+// cell in gray. An open wall between two cells of the path, or two visited
+// cells, is drawn in their color
+//
+// the image is made one row of cells at a time, and every pixel row of a
+// band below its wall row is the same, so writing a PNG only ever holds two
+// rows of pixels and works for mazes far bigger than the screen
+class MazePng {
+  // palette indexes
+  static final byte PASSAGE = 0;
+  static final byte WALL = 1;
+  static final byte PATH = 2;
+  static final byte VISITED = 3;
+  static final byte START = 4;
+  static final byte END = 5;
+  static final int[] PALETTE = { rgb(Color.gray), rgb(Color.BLACK), rgb(Color.green),
+      rgb(Color.pink), rgb(Color.pink), rgb(Color.green) };
+
+  int cellSize;
+
+  // constructor
+  MazePng(int cellSize) {
+    if (cellSize < 2) {
+      throw new IllegalArgumentException("A cell needs at least 2 pixels to show its walls, "
+          + "given " + cellSize);
+    }
+    this.cellSize = cellSize;
+  }
+
+  // returns the red, green and blue of the given color, without its alpha
+  static int rgb(Color color) {
+    return color.getRGB() & 0xFFFFFF;
+  }
+
+  // returns the width in pixels of the image of the given maze
+  int width(MazeGrid grid) {
+    return this.pixels(grid.length);
+  }
+
+  // returns the height in pixels of the image of the given maze
+  int height(MazeGrid grid) {
+    return this.pixels(grid.height);
+  }
+
+  // returns how many pixels the given number of cells takes up in a line
+  int pixels(int cells) {
+    long pixels = (long) cells * this.cellSize + 1;
+    if (pixels > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException(cells + " cells of " + this.cellSize
+          + " pixels do not fit in one image");
+    }
+    return (int) pixels;
+  }
+
+  // EFFECT: writes into the given array the pixels of the wall row above the
+  // given row of cells, or below the last row when row is grid.height
+  void wallRow(MazeGrid grid, BitSet path, BitSet visited, int row, byte[] into) {
+    int size = this.cellSize;
+
+    for (int j = 0; j < grid.length; j = j + 1) {
+      int name = row * grid.length + j;
+      byte color = WALL;
+      if (row > 0 && row < grid.height && grid.hasTopEdge(name)) {
+        color = this.passage(path, visited, name, name - grid.length);
+      }
+      into[j * size] = WALL;
+      for (int x = j * size + 1; x < (j + 1) * size; x = x + 1) {
+        into[x] = color;
+      }
+    }
+    into[grid.length * size] = WALL;
+  }
+
+  // EFFECT: writes into the given array the pixels that every pixel row of
+  // the given row of cells has below its wall row
+  void cellRow(MazeGrid grid, BitSet path, BitSet visited, int row, byte[] into) {
+    int size = this.cellSize;
+
+    for (int j = 0; j < grid.length; j = j + 1) {
+      int name = row * grid.length + j;
+      if (grid.hasLeftEdge(name)) {
+        into[j * size] = this.passage(path, visited, name, name - 1);
+      }
+      else {
+        into[j * size] = WALL;
+      }
+      byte color = this.cellColor(grid, path, visited, name);
+      for (int x = j * size + 1; x < (j + 1) * size; x = x + 1) {
+        into[x] = color;
+      }
+    }
+    into[grid.length * size] = WALL;
+  }
+
+  // returns the color of the given cell
+  byte cellColor(MazeGrid grid, BitSet path, BitSet visited, int name) {
+    if (name == 0) {
+      return START;
+    }
+    else if (name == grid.size() - 1) {
+      return END;
+    }
+    else if (path != null && path.get(name)) {
+      return PATH;
+    }
+    else if (visited != null && visited.get(name)) {
+      return VISITED;
+    }
+    else {
+      return PASSAGE;
+    }
+  }
+
+  // returns the color of the open wall between the two given cells
+  byte passage(BitSet path, BitSet visited, int name, int other) {
+    if (path != null && path.get(name) && path.get(other)) {
+      return PATH;
+    }
+    else if (visited != null && visited.get(name) && visited.get(other)) {
+      return VISITED;
+    }
+    else {
+      return PASSAGE;
+    }
+  }
+
+  // EFFECT: writes the given maze to the given stream as a PNG, with the
+  // cells set in path, which may be null, drawn as the solution
+  void write(MazeGrid grid, BitSet path, OutputStream out) throws IOException {
+    this.write(grid, path, null, out);
+  }
+
+  // EFFECT: writes the given maze to the given stream as a PNG, with the
+  // cells set in path drawn as the solution and the other cells set in
+  // visited drawn as visited; either may be null
+  void write(MazeGrid grid, BitSet path, BitSet visited, OutputStream out) throws IOException {
+    int width = this.width(grid);
+    byte[] wall = new byte[width];
+    byte[] cells = new byte[width];
+    PngWriter png = new PngWriter(out, width, this.height(grid), PALETTE);
+
+    for (int row = 0; row < grid.height; row = row + 1) {
+      this.wallRow(grid, path, visited, row, wall);
+      this.cellRow(grid, path, visited, row, cells);
+      png.writeRow(wall);
+      for (int y = 1; y < this.cellSize; y = y + 1) {
+        png.writeRow(cells);
+      }
+    }
+    this.wallRow(grid, path, visited, grid.height, wall);
+    png.writeRow(wall);
+    png.finish();
+  }
+
+  // returns the image of the given maze, with the cells set in path,
+  // which may be null, drawn as the solution; for mazes that fit in memory
+  BufferedImage toImage(MazeGrid grid, BitSet path) {
+    return this.toImage(grid, path, null);
+  }
+
+  // returns the image of the given maze, with the cells set in path drawn
+  // as the solution and the other cells set in visited drawn as visited;
+  // either may be null
+  BufferedImage toImage(MazeGrid grid, BitSet path, BitSet visited) {
+    int width = this.width(grid);
+    BufferedImage image = new BufferedImage(width, this.height(grid),
+        BufferedImage.TYPE_BYTE_INDEXED, this.colors());
+    byte[] wall = new byte[width];
+    byte[] cells = new byte[width];
+
+    for (int row = 0; row <= grid.height; row = row + 1) {
+      this.wallRow(grid, path, visited, row, wall);
+      image.getRaster().setDataElements(0, row * this.cellSize, width, 1, wall);
+      if (row < grid.height) {
+        this.cellRow(grid, path, visited, row, cells);
+        for (int y = 1; y < this.cellSize; y = y + 1) {
+          image.getRaster().setDataElements(0, row * this.cellSize + y, width, 1, cells);
+        }
+      }
+    }
+    return image;
+  }
+
+  // returns the palette as a color model
+  IndexColorModel colors() {
+    return new IndexColorModel(8, PALETTE.length, PALETTE, 0, false, -1,
+        DataBuffer.TYPE_BYTE);
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2 && args.length != 3) {
+      System.err.println("usage: java MazePng <mazeFile> <pngFile> [cellSize]");
+      System.exit(2);
+    }
+    int cellSize = 4;
+    if (args.length == 3) {
+      cellSize = Integer.parseInt(args[2]);
+    }
+    MazeGrid grid = new MazeFile().read(new File(args[0]));
+    long start = System.nanoTime();
+
+    try (OutputStream out = new BufferedOutputStream(new FileOutputStream(args[1]), 1 << 16)) {
+      new MazePng(cellSize).write(grid, null, out);
+    }
+    System.out.println(String.format("%d x %d cells in %.3f s", grid.length, grid.height,
+        (System.nanoTime() - start) / 1e9));
+  }
+
+}
@@ -0,0 +1,227 @@
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+// sums up a board of cells at every zoom level, for drawing mazes whose cells
+// are too small to draw one by one
+//
+// level L cuts the board into tiles of 2^L x 2^L cells and keeps, for every
+// tile, how many closed walls, visited cells and solution cells it has. Level
+// 1 is counted from the cells, and every level above from the four tiles
+// below it, until one tile covers the whole board; level 0 is the cells
+// themselves. The levels take a third of an int per cell for each count, and a
+// tile is drawn as one color mixed from its three counts, which needs no
+// more work for a tile of a million cells than for one of a single cell
+//
+// walls never change, but a search colors cells as it goes, so update moves a
+// cell from one count to another at every level, a few dozen array writes
+class MazePyramid {
+  static final int UNVISITED = 0;
+  static final int VISITED = 1;
+  static final int SOLUTION = 2;
+  static final int SHADES = 32; // how many steps each count is drawn with
+  static final Color VISITED_COLOR = Color.pink;
+  static final Color SOLUTION_COLOR = Color.green;
+
+  ArrayList<Cell> board;
+  int length;
+  int height;
+  byte[] kinds; // which count each cell is in
+  int[] across; // how many tiles wide each level is
+  int[] down; // how many tiles tall each level is
+  int[][] walls; // walls[L][t] is how many closed walls tile t of level L has
+  int[][] visited;
+  int[][] solution;
+  Color[] palette; // the colors of tiles, made as they are first needed
+
+  // constructor: sums up the given length x height board as it is now
+  MazePyramid(ArrayList<Cell> board, int length, int height) {
+    this.board = board;
+    this.length = length;
+    this.height = height;
+    this.kinds = new byte[board.size()];
+    this.palette = new Color[SHADES * SHADES * SHADES];
+
+    int levels = 1;
+    while ((length - 1) >> (levels - 1) > 0 || (height - 1) >> (levels - 1) > 0) {
+      levels = levels + 1;
+    }
+    this.across = new int[levels];
+    this.down = new int[levels];
+    this.walls = new int[levels][];
+    this.visited = new int[levels][];
+    this.solution = new int[levels][];
+    for (int level = 0; level < levels; level = level + 1) {
+      this.across[level] = ((length - 1) >> level) + 1;
+      this.down[level] = ((height - 1) >> level) + 1;
+      if (level > 0) {
+        this.walls[level] = new int[this.across[level] * this.down[level]];
+        this.visited[level] = new int[this.walls[level].length];
+        this.solution[level] = new int[this.walls[level].length];
+      }
+    }
+
+    for (Cell c : board) {
+      int tile = this.tileOf(1, c.name);
+      if (tile != -1) {
+        this.walls[1][tile] = this.walls[1][tile] + this.wallsOf(c);
+      }
+    }
+    this.sumUp(this.walls);
+    this.recolor();
+  }
+
+  // returns how many levels this pyramid has, counting the cells as level 0
+  int levels() {
+    return this.across.length;
+  }
+
+  // returns the index of the tile of the given level, above 0, that the cell
+  // with the given name is in, or -1 if this pyramid has no such level
+  int tileOf(int level, int name) {
+    if (level >= this.levels()) {
+      return -1;
+    }
+    return (name / this.length >> level) * this.across[level] + (name % this.length >> level);
+  }
+
+  // returns how many of the given cell's right and bottom walls are closed,
+  // not counting the outside walls of the board
+  int wallsOf(Cell c) {
+    int walls = 0;
+    if (!c.rightEdge && c.name % this.length < this.length - 1) {
+      walls = walls + 1;
+    }
+    if (!c.bottomEdge && c.name / this.length < this.height - 1) {
+      walls = walls + 1;
+    }
+    return walls;
+  }
+
+  // returns which count a cell of the given color is in
+  int kindOf(Color color) {
+    if (SOLUTION_COLOR.equals(color)) {
+      return SOLUTION;
+    }
+    else if (Color.gray.equals(color)) {
+      return UNVISITED;
+    }
+    else {
+      return VISITED;
+    }
+  }
+
+  // EFFECT: fills in every level of the given counts above 1 from the
+  // level below it
+  void sumUp(int[][] counts) {
+    for (int level = 2; level < this.levels(); level = level + 1) {
+      int below = this.across[level - 1];
+      for (int i = 0; i < this.down[level - 1]; i = i + 1) {
+        for (int j = 0; j < below; j = j + 1) {
+          int tile = (i >> 1) * this.across[level] + (j >> 1);
+          counts[level][tile] = counts[level][tile] + counts[level - 1][i * below + j];
+        }
+      }
+    }
+  }
+
+  // EFFECT: counts the visited and solution cells again, from the colors
+  // of the cells, after the whole board was colored at once
+  void recolor() {
+    for (int level = 1; level < this.levels(); level = level + 1) {
+      Arrays.fill(this.visited[level], 0);
+      Arrays.fill(this.solution[level], 0);
+    }
+    for (Cell c : this.board) {
+      int kind = this.kindOf(c.color);
+      this.kinds[c.name] = (byte) kind;
+      int tile = this.tileOf(1, c.name);
+      if (tile != -1 && kind == VISITED) {
+        this.visited[1][tile] = this.visited[1][tile] + 1;
+      }
+      else if (tile != -1 && kind == SOLUTION) {
+        this.solution[1][tile] = this.solution[1][tile] + 1;
+      }
+    }
+    this.sumUp(this.visited);
+    this.sumUp(this.solution);
+  }
+
+  // EFFECT: moves the given cell to the count its color is in now, at every level
+  void update(Cell c) {
+    int was = this.kinds[c.name];
+    int kind = this.kindOf(c.color);
+
+    if (kind != was) {
+      this.kinds[c.name] = (byte) kind;
+      for (int level = 1; level < this.levels(); level = level + 1) {
+        int tile = this.tileOf(level, c.name);
+        if (was == VISITED) {
+          this.visited[level][tile] = this.visited[level][tile] - 1;
+        }
+        else if (was == SOLUTION) {
+          this.solution[level][tile] = this.solution[level][tile] - 1;
+        }
+        if (kind == VISITED) {
+          this.visited[level][tile] = this.visited[level][tile] + 1;
+        }
+        else if (kind == SOLUTION) {
+          this.solution[level][tile] = this.solution[level][tile] + 1;
+        }
+      }
+    }
+  }
+
+  // returns how many cells are in the tile in column tx and row ty of
+  // tiles of the given level, which are fewer along the right and bottom
+  long cellsIn(int level, int tx, int ty) {
+    long wide = Math.min(1 << level, this.length - ((long) tx << level));
+    long tall = Math.min(1 << level, this.height - ((long) ty << level));
+    return wide * tall;
+  }
+
+  // returns the color to draw the tile in column tx and row ty of tiles of
+  // the given level: gray, darker the more of its walls are closed, mixed
+  // with the visited color and the solution color as much as its cells are
+  Color colorOf(int level, int tx, int ty) {
+    long cells = this.cellsIn(level, tx, ty);
+    long walls;
+    long visited;
+    long solution;
+
+    if (level == 0) {
+      int name = ty * this.length + tx;
+      walls = this.wallsOf(this.board.get(name));
+      visited = this.kinds[name] & VISITED;
+      solution = this.kinds[name] >> 1;
+    }
+    else {
+      int tile = ty * this.across[level] + tx;
+      walls = this.walls[level][tile];
+      visited = this.visited[level][tile];
+      solution = this.solution[level][tile];
+    }
+
+    int w = (int) (walls * (SHADES - 1) / (2 * cells));
+    int v = (int) (visited * (SHADES - 1) / cells);
+    int s = (int) (solution * (SHADES - 1) / cells);
+    int index = (w * SHADES + v) * SHADES + s;
+    if (this.palette[index] == null) {
+      this.palette[index] = this.mix(w, v, s);
+    }
+    return this.palette[index];
+  }
+
+  // returns the color of a tile with the given shares, out of SHADES - 1,
+  // of closed walls, visited cells and solution cells
+  Color mix(int w, int v, int s) {
+    int top = SHADES - 1;
+    int gray = 160 - 130 * w / top;
+    int rest = top - v - s;
+    return new Color(
+        (gray * rest + VISITED_COLOR.getRed() * v + SOLUTION_COLOR.getRed() * s) / top,
+        (gray * rest + VISITED_COLOR.getGreen() * v + SOLUTION_COLOR.getGreen() * s) / top,
+        (gray * rest + VISITED_COLOR.getBlue() * v + SOLUTION_COLOR.getBlue() * s) / top);
+  }
+
+}
@@ -0,0 +1,125 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+// writes an 8-bit palette PNG one row of pixels at a time
+//
+// rows are compressed as they arrive and written out in IDAT chunks of at
+// most CHUNK_BYTES, so the memory used does not depend on the size of the
+// image, only on the width of one row
+class PngWriter {
+  static final byte[] SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+  static final int CHUNK_BYTES = 1 << 16;
+  static final byte[] FILTER_NONE = { 0 };
+
+  OutputStream out;
+  int width;
+  Deflater deflater;
+  byte[] chunk;
+  int filled; // bytes of compressed data waiting in chunk
+  CRC32 crc;
+
+  // constructor: writes the signature, header and palette of a width x height
+  // image whose colors are the given packed 0xRRGGBB values
+  PngWriter(OutputStream out, int width, int height, int[] palette) throws IOException {
+    if (width < 1 || height < 1) {
+      throw new IllegalArgumentException("An image needs at least one pixel, given " + width
+          + " x " + height);
+    }
+    this.out = out;
+    this.width = width;
+    this.deflater = new Deflater(Deflater.BEST_SPEED);
+    this.chunk = new byte[CHUNK_BYTES];
+    this.crc = new CRC32();
+
+    out.write(SIGNATURE);
+
+    byte[] header = new byte[13];
+    this.putInt(header, 0, width);
+    this.putInt(header, 4, height);
+    header[8] = 8; // bits per pixel
+    header[9] = 3; // color type: palette
+    // compression, filter and interlace methods are all 0
+    this.writeChunk("IHDR", header, header.length);
+
+    byte[] colors = new byte[3 * palette.length];
+    for (int k = 0; k < palette.length; k = k + 1) {
+      colors[3 * k] = (byte) (palette[k] >>> 16);
+      colors[3 * k + 1] = (byte) (palette[k] >>> 8);
+      colors[3 * k + 2] = (byte) palette[k];
+    }
+    this.writeChunk("PLTE", colors, colors.length);
+  }
+
+  // EFFECT: writes the next row of the image, one palette index per pixel
+  void writeRow(byte[] pixels) throws IOException {
+    this.compress(FILTER_NONE, 1);
+    this.compress(pixels, this.width);
+  }
+
+  // EFFECT: compresses the first count bytes of the given array,
+  // writing out each chunk of compressed data as it fills up
+  void compress(byte[] bytes, int count) throws IOException {
+    this.deflater.setInput(bytes, 0, count);
+    while (!this.deflater.needsInput()) {
+      this.deflateIntoChunk();
+    }
+  }
+
+  // EFFECT: moves compressed data into the chunk, and writes the chunk
+  // out as an IDAT chunk once it is full
+  void deflateIntoChunk() throws IOException {
+    this.filled = this.filled
+        + this.deflater.deflate(this.chunk, this.filled, this.chunk.length - this.filled);
+    if (this.filled == this.chunk.length) {
+      this.writeChunk("IDAT", this.chunk, this.filled);
+      this.filled = 0;
+    }
+  }
+
+  // EFFECT: writes out the rest of the compressed data and the end of the
+  // image; nothing can be written after this
+  void finish() throws IOException {
+    this.deflater.finish();
+    while (!this.deflater.finished()) {
+      this.deflateIntoChunk();
+    }
+    if (this.filled > 0) {
+      this.writeChunk("IDAT", this.chunk, this.filled);
+      this.filled = 0;
+    }
+    this.deflater.end();
+    this.writeChunk("IEND", new byte[0], 0);
+    this.out.flush();
+  }
+
+  // EFFECT: writes a chunk of the given type holding the first
+  // length bytes of the given data
+  void writeChunk(String type, byte[] data, int length) throws IOException {
+    byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+    byte[] number = new byte[4];
+
+    this.putInt(number, 0, length);
+    this.out.write(number);
+    this.out.write(typeBytes);
+    this.out.write(data, 0, length);
+
+    this.crc.reset();
+    this.crc.update(typeBytes);
+    this.crc.update(data, 0, length);
+    this.putInt(number, 0, (int) this.crc.getValue());
+    this.out.write(number);
+  }
+
+  // EFFECT: stores the given int in the given array at the given index,
+  // most significant byte first
+  void putInt(byte[] into, int index, int value) {
+    into[index] = (byte) (value >>> 24);
+    into[index + 1] = (byte) (value >>> 16);
+    into[index + 2] = (byte) (value >>> 8);
+    into[index + 3] = (byte) value;
+  }
+
+}
@@ -0,0 +1,78 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// generates mazes with a randomized version of Prim's algorithm: the maze
+// grows from one cell, and every step joins a random cell of its frontier,
+// the cells next to the maze but not yet in it, to a random neighbor in it
+//
+// the frontier is an int array that grows as needed, and a cell is taken out
+// of it by moving the last cell into its place. A cell is in the maze when it
+// is open to a neighbor, which the grid already records, and a bitset keeps
+// cells from being added to the frontier twice
+class PrimGenerator implements IGenerator {
+
+  // returns the MazeFile id of Prim's algorithm
+  public int algorithm() {
+    return MazeFile.PRIM;
+  }
+
+  // EFFECT: opens the edges of a random spanning tree of the given grid
+  public void generate(MazeGrid grid, long seed) {
+    GenerationEvent event = new GenerationEvent();
+    event.begin();
+    SplittableRandom random = new SplittableRandom(seed);
+    int[] ways = new int[4];
+    int start = random.nextInt(grid.size());
+    int[] frontier = new int[64];
+    int count = 0; // how many cells are in the frontier
+    long[] added = new long[(grid.size() + 63) >>> 6]; // cells ever in the frontier
+    int cell = start;
+    PrimGenerator.markAdded(added, start);
+
+    while (true) {
+      // the neighbors of the cell just joined that were never in the
+      // frontier go in it
+      for (int way = 0; way < 4; way = way + 1) {
+        int next = grid.toward(cell, way);
+        if (next != -1 && !PrimGenerator.isAdded(added, next)) {
+          PrimGenerator.markAdded(added, next);
+          if (count == frontier.length) {
+            frontier = Arrays.copyOf(frontier, count * 2);
+          }
+          frontier[count] = next;
+          count = count + 1;
+        }
+      }
+      if (count == 0) {
+        event.record(this.algorithm(), grid.length, grid.height, seed, 0);
+        return;
+      }
+
+      int k = random.nextInt(count);
+      cell = frontier[k];
+      count = count - 1;
+      frontier[k] = frontier[count];
+
+      int inMaze = 0;
+      for (int way = 0; way < 4; way = way + 1) {
+        int next = grid.toward(cell, way);
+        if (next != -1 && (next == start || grid.isJoined(next))) {
+          ways[inMaze] = way;
+          inMaze = inMaze + 1;
+        }
+      }
+      grid.openToward(cell, ways[random.nextInt(inMaze)]);
+    }
+  }
+
+  // has the given cell ever been in the frontier, by the given bitset?
+  static boolean isAdded(long[] added, int name) {
+    return (added[name >>> 6] & (1L << name)) != 0;
+  }
+
+  // EFFECT: marks the given cell in the given bitset as having been in the frontier
+  static void markAdded(long[] added, int name) {
+    added[name >>> 6] = added[name >>> 6] | (1L << name);
+  }
+
+}
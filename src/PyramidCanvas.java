@@ -0,0 +1,123 @@
+import java.awt.Color;
+import java.util.Arrays;
+import javalib.worldimages.ComputedPixelImage;
+
+// draws the tiles of a MazePyramid a Camera shows into one raster image, a
+// square of cellSize pixels per tile, and keeps it up to date the same way
+// MazeCanvas does: a cell that changes marks its tile dirty, and flush
+// repaints just the dirty tiles, or every tile after the camera moves
+class PyramidCanvas {
+  MazePyramid pyramid;
+  Camera camera;
+  int column; // where the camera was when the image was last painted
+  int row;
+  int cellSize;
+  int level;
+  ComputedPixelImage image;
+  boolean[] dirty; // by place in the window, row by row
+  int[] dirtyPlaces; // the places of the dirty tiles, in the order marked
+  int dirtyCount;
+
+  // constructor: paints the tiles of the given pyramid the given camera shows
+  PyramidCanvas(MazePyramid pyramid, Camera camera) {
+    this.pyramid = pyramid;
+    this.camera = camera;
+    this.look();
+    this.flush();
+  }
+
+  // has the camera stayed where it was when the image was last painted?
+  boolean isCurrent() {
+    return this.column == this.camera.column && this.row == this.camera.row
+        && this.cellSize == this.camera.cellSize && this.level == this.camera.level;
+  }
+
+  // returns how many tiles wide the window is
+  int across() {
+    return ((this.camera.columns() - 1) >> this.camera.level) + 1;
+  }
+
+  // returns how many tiles tall the window is
+  int down() {
+    return ((this.camera.rows() - 1) >> this.camera.level) + 1;
+  }
+
+  // EFFECT: catches up with where the camera is, with an image the size of
+  // its window, and marks every tile it shows to be painted
+  void look() {
+    int across = this.across();
+    int down = this.down();
+
+    if (this.image == null || this.image.width != across * this.camera.cellSize
+        || this.image.height != down * this.camera.cellSize) {
+      this.image = new ComputedPixelImage(across * this.camera.cellSize,
+          down * this.camera.cellSize);
+    }
+    if (this.dirty == null || this.dirty.length != across * down) {
+      this.dirty = new boolean[across * down];
+      this.dirtyPlaces = new int[across * down];
+    }
+    this.column = this.camera.column;
+    this.row = this.camera.row;
+    this.cellSize = this.camera.cellSize;
+    this.level = this.camera.level;
+    Arrays.fill(this.dirty, false);
+    this.dirtyCount = 0;
+    for (int place = 0; place < across * down; place = place + 1) {
+      this.markPlace(place);
+    }
+  }
+
+  // EFFECT: marks the tile at the given place in the window to be repainted
+  void markPlace(int place) {
+    if (!this.dirty[place]) {
+      this.dirty[place] = true;
+      this.dirtyPlaces[this.dirtyCount] = place;
+      this.dirtyCount = this.dirtyCount + 1;
+    }
+  }
+
+  // EFFECT: marks the tile of the given cell to be repainted in the next
+  // frame, if it is shown; after the camera moves every tile is repainted anyway
+  void markDirty(Cell c) {
+    if (this.isCurrent() && this.camera.shows(c.name)) {
+      int i = (c.name / this.camera.length - this.row) >> this.level;
+      int j = (c.name % this.camera.length - this.column) >> this.level;
+      this.markPlace(i * this.across() + j);
+    }
+  }
+
+  // EFFECT: marks every tile shown to be repainted in the next frame
+  void markAll() {
+    if (this.isCurrent()) {
+      for (int place = 0; place < this.dirty.length; place = place + 1) {
+        this.markPlace(place);
+      }
+    }
+  }
+
+  // returns how many tiles were repainted
+  // EFFECT: catches up with the camera, repaints the dirty tiles and marks
+  // them clean
+  int flush() {
+    if (!this.isCurrent()) {
+      this.look();
+    }
+    int repainted = this.dirtyCount;
+    int across = this.across();
+
+    for (int k = 0; k < this.dirtyCount; k = k + 1) {
+      int place = this.dirtyPlaces[k];
+      int i = place / across;
+      int j = place % across;
+      Color color = this.pyramid.colorOf(this.level, (this.column >> this.level) + j,
+          (this.row >> this.level) + i);
+      this.image.setPixels(j * this.cellSize, i * this.cellSize, this.cellSize, this.cellSize,
+          color);
+      this.dirty[place] = false;
+    }
+    this.dirtyCount = 0;
+    return repainted;
+  }
+
+}
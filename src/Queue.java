@@ -0,0 +1,52 @@
+import java.util.NoSuchElementException;
+
+//represents a queue, first in first out, of at most capacity names,
+//kept in a ring buffer
+class Queue implements ICollection {
+  int[] contents;
+  int head; // index of the first name
+  int size;
+
+  Queue(int capacity) {
+    this.contents = new int[capacity];
+  }
+
+  // is this queue empty?
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  // returns how many names are in the queue
+  public int size() {
+    return this.size;
+  }
+
+  // Returns the first name of the queue
+  // EFFECT: removes that first name
+  public int remove() {
+    if (this.size == 0) {
+      throw new NoSuchElementException("The queue is empty");
+    }
+    int name = this.contents[this.head];
+    this.head = this.head + 1;
+    if (this.head == this.contents.length) {
+      this.head = 0;
+    }
+    this.size = this.size - 1;
+    return name;
+  }
+
+  // EFFECT: adds the name to the queue
+  public void add(int name) {
+    if (this.size == this.contents.length) {
+      throw new IllegalStateException("The queue is full");
+    }
+    int tail = this.head + this.size;
+    if (tail >= this.contents.length) {
+      tail = tail - this.contents.length;
+    }
+    this.contents[tail] = name; // NOTE: Different from Stack!
+    this.size = this.size + 1;
+  }
+
+}
@@ -0,0 +1,10 @@
+// Represents when our maze game is at rest
+class Rest extends AState {
+  Rest() {
+  }
+
+  // is this rest state at rest?
+  public boolean isRest() {
+    return true;
+  }
+}
@@ -0,0 +1,166 @@
+// represents a breadth or depth first search through a MazeGrid, from one
+// cell to another, taken one step at a time; the worklist decides which
+//
+// a cell is marked as seen when it is added to the worklist, not when it is
+// taken off, so no cell is ever added twice: the worklist never holds more
+// than every cell at once, and every step takes a cell that has not been
+// taken before. The seen marks are a bitset and cameFrom is an int per cell,
+// both made up front, and neighbors are read into the same small array every
+// step, so once a search is made, running it allocates nothing
+//
+// a search records a SolveEvent from when it is made until it is over
+class Search {
+  MazeGrid grid;
+  ICollection worklist;
+  long[] seen;
+  int[] cameFrom; // the cell each seen cell was reached from
+  int start;
+  int target;
+  boolean found;
+  int expanded; // how many steps have been taken
+  int maxFrontier; // the most cells on the worklist after any step
+  int[] neighbors;
+  SolveEvent event; // until the search is over
+
+  // constructor: a search of the given grid from start to target, that takes
+  // cells to look at next from the given worklist
+  Search(MazeGrid grid, ICollection worklist, int start, int target) {
+    this.grid = grid;
+    this.worklist = worklist;
+    this.seen = new long[(grid.size() + 63) >>> 6];
+    this.cameFrom = new int[grid.size()];
+    this.start = start;
+    this.target = target;
+    this.neighbors = new int[4];
+    this.event = new SolveEvent();
+    this.event.begin();
+
+    this.see(start, start);
+    this.worklist.add(start);
+    this.maxFrontier = 1;
+  }
+
+  // returns the name of the kind of search this is
+  String algorithm() {
+    if (this.worklist instanceof Stack) {
+      return "depth first";
+    }
+    else {
+      return "breadth first";
+    }
+  }
+
+  // returns how many cells are waiting to be looked at
+  int frontier() {
+    return this.worklist.size();
+  }
+
+  // returns how many cells are on the solution, or 0 if it has not been found
+  int pathLength() {
+    if (this.found) {
+      return this.countTo(this.target, this.start);
+    }
+    else {
+      return 0;
+    }
+  }
+
+  // EFFECT: notes the size of the worklist after a step, and commits the
+  // event of this search the first time it is over
+  void afterStep() {
+    this.maxFrontier = Math.max(this.maxFrontier, this.frontier());
+    if (this.event != null && this.isDone()) {
+      if (this.event.shouldCommit()) {
+        this.event.algorithm = this.algorithm();
+        this.event.cells = this.grid.size();
+        this.event.expanded = this.expanded;
+        this.event.maxFrontier = this.maxFrontier;
+        this.event.pathLength = this.pathLength();
+        this.event.commit();
+      }
+      this.event = null;
+    }
+  }
+
+  // has the given cell been seen?
+  boolean isSeen(int name) {
+    return (this.seen[name >>> 6] & (1L << name)) != 0;
+  }
+
+  // EFFECT: marks the given cell as seen, reached from the cell from
+  void see(int name, int from) {
+    this.seen[name >>> 6] = this.seen[name >>> 6] | (1L << name);
+    this.cameFrom[name] = from;
+  }
+
+  // is this search over, because it found the target or ran out of cells?
+  boolean isDone() {
+    return this.found || this.worklist.isEmpty();
+  }
+
+  // returns the cell looked at in this step
+  // EFFECT: takes that cell off the worklist and, unless it is the target,
+  // adds every neighbor of it not yet seen
+  int step() {
+    int name = this.worklist.remove();
+    this.expanded = this.expanded + 1;
+
+    if (name == this.target) {
+      this.found = true;
+    }
+    else {
+      int count = this.grid.neighbors(name, this.neighbors);
+      for (int k = 0; k < count; k = k + 1) {
+        int next = this.neighbors[k];
+        if (!this.isSeen(next)) {
+          this.see(next, name);
+          this.worklist.add(next);
+        }
+      }
+    }
+    this.afterStep();
+    return name;
+  }
+
+  // returns whether the target can be reached from the start
+  // EFFECT: takes steps until this search is over
+  boolean solve() {
+    while (!this.isDone()) {
+      this.step();
+    }
+    return this.found;
+  }
+
+  // returns how many cells there are on the way from the given cell back to
+  // the given root, counting both, following cameFrom
+  int countTo(int name, int root) {
+    int length = 1;
+    for (int c = name; c != root; c = this.cameFrom[c]) {
+      length = length + 1;
+    }
+    return length;
+  }
+
+  // returns the names of the cells on the way from the start to the given
+  // seen cell, start first, found by following cameFrom back from that cell
+  // twice: once to count them and once to write them into the one array
+  int[] pathTo(int name) {
+    if (!this.isSeen(name)) {
+      throw new IllegalArgumentException("Cell " + name + " has not been reached");
+    }
+    int length = this.countTo(name, this.start);
+    int[] path = new int[length];
+    int c = name;
+    for (int k = length - 1; k >= 0; k = k - 1) {
+      path[k] = c;
+      c = this.cameFrom[c];
+    }
+    return path;
+  }
+
+  // returns the names of the cells on the solution, from start to target
+  int[] path() {
+    return this.pathTo(this.target);
+  }
+
+}
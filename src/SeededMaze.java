@@ -0,0 +1,11 @@
+// represents a maze together with the seed it was generated from
+class SeededMaze {
+  long seed;
+  MazeGrid grid;
+
+  // constructor
+  SeededMaze(long seed, MazeGrid grid) {
+    this.seed = seed;
+    this.grid = grid;
+  }
+}
@@ -0,0 +1,65 @@
+import java.util.SplittableRandom;
+
+// generates mazes with the sidewinder algorithm: each row but the last is
+// cut into runs of cells by opening right edges at random, and every run
+// opens the bottom edge of one of its cells, chosen at random, into the row
+// below. The last row is one corridor, which every run leads down to
+//
+// as in BinaryTreeGenerator, one random long opens the right edges of 32
+// cells at once. A run ends at every cell whose right edge stays closed, so
+// the ends of runs are found a long at a time from those bits, and the only
+// work done per cell is choosing which cell of each run opens down, with a
+// hash of the cell that ends it
+class SidewinderGenerator implements IGenerator {
+
+  // returns the MazeFile id of the sidewinder algorithm
+  public int algorithm() {
+    return MazeFile.SIDEWINDER;
+  }
+
+  // EFFECT: opens the edges of a random spanning tree of the given grid
+  public void generate(MazeGrid grid, long seed) {
+    GenerationEvent event = new GenerationEvent();
+    event.begin();
+    long key = new SplittableRandom(seed).nextLong();
+    int words = MazeGrid.words(grid.length, grid.height);
+
+    for (int w = 0; w < words; w = w + 1) {
+      grid.setWord(w, BinaryTreeGenerator.bits(key, w) & MazeGrid.RIGHTS);
+    }
+    grid.clearPast();
+
+    int last = grid.size() - 1;
+    for (int name = grid.length - 1; name < last; name = name + grid.length) {
+      grid.setEdges(name, 0);
+    }
+    for (int name = last - grid.length + 1; name < last; name = name + 1) {
+      grid.setEdges(name, 1 << KruskalGenerator.RIGHT);
+    }
+    grid.setEdges(last, 0);
+
+    this.openRuns(grid, key);
+    event.record(this.algorithm(), grid.length, grid.height, seed, 0);
+  }
+
+  // EFFECT: opens the bottom edge of one random cell of every run of the
+  // given grid above its last row
+  void openRuns(MazeGrid grid, long key) {
+    int above = grid.size() - grid.length; // the cells above the last row
+    int start = 0; // the first cell of the run being looked at
+
+    for (int w = 0; start < above; w = w + 1) {
+      long ends = ~grid.word(w) & MazeGrid.RIGHTS;
+
+      while (ends != 0 && start < above) {
+        int end = (w << 5) + (Long.numberOfTrailingZeros(ends) >>> 1);
+        long random = BinaryTreeGenerator.bits(key, ~(long) end) >>> 32;
+        int down = start + (int) ((random * (end - start + 1)) >>> 32);
+        grid.open((down << 1) | KruskalGenerator.DOWN);
+        start = end + 1;
+        ends = ends & (ends - 1);
+      }
+    }
+  }
+
+}
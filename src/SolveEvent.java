@@ -0,0 +1,29 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// records one search from its start until it found the target or ran out of cells
+@Name("maze.Solve")
+@Label("Maze Solve")
+@Category("Maze")
+@Description("One search through a maze, from when it was made until it was over")
+class SolveEvent extends Event {
+  @Label("Algorithm")
+  String algorithm;
+
+  @Label("Cells")
+  int cells;
+
+  @Label("Nodes Expanded")
+  int expanded;
+
+  @Label("Max Frontier")
+  @Description("The most cells waiting on the worklist at once")
+  int maxFrontier;
+
+  @Label("Path Length")
+  @Description("Cells on the solution, or 0 if the target was never reached")
+  int pathLength;
+}
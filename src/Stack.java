@@ -0,0 +1,41 @@
+import java.util.NoSuchElementException;
+
+// represents a stack, first in last out, of at most capacity names
+class Stack implements ICollection {
+  int[] contents; // bottom first
+  int size;
+
+  Stack(int capacity) {
+    this.contents = new int[capacity];
+  }
+
+  // is this stack empty?
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  // returns how many names are in the stack
+  public int size() {
+    return this.size;
+  }
+
+  // Returns the first name of the stack
+  // EFFECT: removes that first name
+  public int remove() {
+    if (this.size == 0) {
+      throw new NoSuchElementException("The stack is empty");
+    }
+    this.size = this.size - 1;
+    return this.contents[this.size];
+  }
+
+  // EFFECT: adds the name to the stack
+  public void add(int name) {
+    if (this.size == this.contents.length) {
+      throw new IllegalStateException("The stack is full");
+    }
+    this.contents[this.size] = name;
+    this.size = this.size + 1;
+  }
+
+}
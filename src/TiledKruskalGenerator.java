@@ -0,0 +1,162 @@
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// generates one large maze on several threads
+//
+// the grid is cut into tiles of tileSize x tileSize cells. Every tile gets
+// its own random spanning tree from KruskalGenerator, all tiles at once, and
+// then the tiles are joined into one spanning tree by running Kruskal's
+// algorithm over the edges that cross from one tile into another
+//
+// each tile uses its own union-find over its own cells and the join uses one
+// over the tiles, so no two threads ever share a set. Each tile shuffles with
+// a stream seeded from the seed and its position, so the maze only depends on
+// the seed and the tile size, never on the number of threads
+class TiledKruskalGenerator implements IGenerator {
+  int tileSize;
+  int threads;
+
+  // constructor
+  TiledKruskalGenerator(int tileSize, int threads) {
+    if (tileSize < 1 || threads < 1) {
+      throw new IllegalArgumentException("Tile size and thread count must be positive, given "
+          + tileSize + " and " + threads);
+    }
+    this.tileSize = tileSize;
+    this.threads = threads;
+  }
+
+  // returns the MazeFile id of generating in tiles
+  public int algorithm() {
+    return MazeFile.TILED_KRUSKAL;
+  }
+
+  // EFFECT: opens the edges of a random spanning tree of the given grid
+  public void generate(MazeGrid grid, long seed) {
+    GenerationEvent event = new GenerationEvent();
+    event.begin();
+    int tilesAcross = (grid.length + this.tileSize - 1) / this.tileSize;
+    int tilesDown = (grid.height + this.tileSize - 1) / this.tileSize;
+    ExecutorService pool = Executors.newFixedThreadPool(this.threads);
+
+    try {
+      ArrayList<Future<Void>> tiles = new ArrayList<Future<Void>>();
+      for (int tile = 0; tile < tilesAcross * tilesDown; tile = tile + 1) {
+        int tx = tile % tilesAcross;
+        int ty = tile / tilesAcross;
+        long tileSeed = this.tileSeed(seed, tile);
+        tiles.add(pool.submit(new Callable<Void>() {
+          public Void call() {
+            TiledKruskalGenerator.this.generateTile(grid, tx, ty, tileSeed);
+            return null;
+          }
+        }));
+      }
+      for (Future<Void> tile : tiles) {
+        this.await(tile);
+      }
+    }
+    finally {
+      pool.shutdownNow();
+    }
+
+    this.joinTiles(grid, tilesAcross, tilesDown, seed);
+    event.record(this.algorithm(), grid.length, grid.height, seed, 0);
+  }
+
+  // returns the seed for the tile with the given index, spread out so that
+  // neighboring tiles get unrelated streams
+  long tileSeed(long seed, int tile) {
+    return new SplittableRandom(seed ^ (0x9E3779B97F4A7C15L * (tile + 1L))).nextLong();
+  }
+
+  // EFFECT: opens the edges of a random spanning tree of the tile in
+  // column tx and row ty of tiles, leaving every other edge alone
+  void generateTile(MazeGrid grid, int tx, int ty, long tileSeed) {
+    int x0 = tx * this.tileSize;
+    int y0 = ty * this.tileSize;
+    int tileLength = Math.min(this.tileSize, grid.length - x0);
+    int tileHeight = Math.min(this.tileSize, grid.height - y0);
+    KruskalGenerator kruskal = new KruskalGenerator();
+
+    // the tile on its own is a tileLength x tileHeight grid
+    int[] edges = kruskal.allEdges(tileLength, tileHeight);
+    kruskal.shuffle(edges, new SplittableRandom(tileSeed));
+    int numEdges = kruskal.chooseEdges(edges, tileLength, tileHeight);
+
+    for (int k = 0; k < numEdges; k = k + 1) {
+      int local = edges[k] >>> 1;
+      int name = (y0 + local / tileLength) * grid.length + x0 + local % tileLength;
+      grid.openAtomically((name << 1) | (edges[k] & 1));
+    }
+  }
+
+  // EFFECT: opens just enough edges between neighboring tiles, chosen at
+  // random, to join all the tiles of the given grid into one spanning tree
+  void joinTiles(MazeGrid grid, int tilesAcross, int tilesDown, long seed) {
+    KruskalGenerator kruskal = new KruskalGenerator();
+    int[] seams = this.seamEdges(grid);
+    kruskal.shuffle(seams, new SplittableRandom(seed));
+
+    UnionFind tiles = new UnionFind(tilesAcross * tilesDown);
+    int numTilesMinus1 = tilesAcross * tilesDown - 1;
+    int joined = 0;
+
+    for (int k = 0; k < seams.length && joined < numTilesMinus1; k = k + 1) {
+      int from = seams[k] >>> 1;
+      int to = kruskal.to(seams[k], grid.length);
+      if (tiles.union(this.tileOf(grid, from, tilesAcross), this.tileOf(grid, to, tilesAcross))) {
+        grid.open(seams[k]);
+        joined = joined + 1;
+      }
+    }
+  }
+
+  // returns every packed edge of the given grid that leads from one tile
+  // into another
+  int[] seamEdges(MazeGrid grid) {
+    int tilesAcross = (grid.length + this.tileSize - 1) / this.tileSize;
+    int tilesDown = (grid.height + this.tileSize - 1) / this.tileSize;
+    int[] seams = new int[(tilesAcross - 1) * grid.height + (tilesDown - 1) * grid.length];
+    int count = 0;
+
+    for (int i = 0; i < grid.height; i = i + 1) {
+      for (int j = this.tileSize - 1; j < grid.length - 1; j = j + this.tileSize) {
+        seams[count] = ((i * grid.length + j) << 1) | KruskalGenerator.RIGHT;
+        count = count + 1;
+      }
+    }
+    for (int i = this.tileSize - 1; i < grid.height - 1; i = i + this.tileSize) {
+      for (int j = 0; j < grid.length; j = j + 1) {
+        seams[count] = ((i * grid.length + j) << 1) | KruskalGenerator.DOWN;
+        count = count + 1;
+      }
+    }
+    return seams;
+  }
+
+  // returns the index of the tile the given cell is in
+  int tileOf(MazeGrid grid, int name, int tilesAcross) {
+    return grid.row(name) / this.tileSize * tilesAcross + grid.column(name) / this.tileSize;
+  }
+
+  // returns once the given task is done
+  void await(Future<Void> task) {
+    try {
+      task.get();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while generating a maze", e);
+    }
+    catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+}
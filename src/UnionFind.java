@@ -0,0 +1,57 @@
+// represents a disjoint-set forest over the cells of a board
+// each cell is represented by its name (its index in the board)
+class UnionFind {
+  int[] parent;
+  // an upper bound on the height of each tree, only meaningful at roots
+  // it never exceeds log2 of the number of cells, so a byte is enough
+  byte[] rank;
+
+  // constructor: every name starts out as its own representative
+  UnionFind(int size) {
+    this.parent = new int[size];
+    this.rank = new byte[size];
+    for (int i = 0; i < size; i = i + 1) {
+      this.parent[i] = i;
+    }
+  }
+
+  // returns the representative of the given name
+  // EFFECT: halves the path from the given name to its representative
+  // by pointing every other node on the way at its grandparent
+  int find(int name) {
+    while (this.parent[name] != name) {
+      this.parent[name] = this.parent[this.parent[name]];
+      name = this.parent[name];
+    }
+    return name;
+  }
+
+  // are the two given names in the same set?
+  boolean connected(int a, int b) {
+    return this.find(a) == this.find(b);
+  }
+
+  // returns true if the two given names were in different sets
+  // EFFECT: joins the sets of the two given names, hanging the
+  // shorter tree under the taller one
+  boolean union(int a, int b) {
+    int aRep = this.find(a);
+    int bRep = this.find(b);
+
+    if (aRep == bRep) {
+      return false;
+    }
+    if (this.rank[aRep] < this.rank[bRep]) {
+      this.parent[aRep] = bRep;
+    }
+    else if (this.rank[aRep] > this.rank[bRep]) {
+      this.parent[bRep] = aRep;
+    }
+    else {
+      this.parent[bRep] = aRep;
+      this.rank[aRep] = (byte) (this.rank[aRep] + 1);
+    }
+    return true;
+  }
+
+}
@@ -0,0 +1,52 @@
+import java.util.SplittableRandom;
+
+// generates mazes with Wilson's algorithm, which picks every spanning tree
+// of the grid with the same probability, unlike Kruskal's or Prim's
+//
+// the tree starts as one random cell. Then from each cell not yet in it, in
+// order, a random walk goes until it hits the tree, remembering only the way
+// it last left each cell, which erases any loop it makes. Following those
+// ways again from where the walk began adds its loop-free path to the tree.
+// The ways take two bits per cell and the tree is a bitset, so besides the
+// grid a walk over any maze needs about 0.4 bytes per cell
+class WilsonGenerator implements IGenerator {
+
+  // returns the MazeFile id of Wilson's algorithm
+  public int algorithm() {
+    return MazeFile.WILSON;
+  }
+
+  // EFFECT: opens the edges of a random spanning tree of the given grid,
+  // picked uniformly from all of them
+  public void generate(MazeGrid grid, long seed) {
+    GenerationEvent event = new GenerationEvent();
+    event.begin();
+    SplittableRandom random = new SplittableRandom(seed);
+    long[] exits = MazeGrid.ways(grid.size());
+    long[] tree = new long[(grid.size() + 63) >>> 6];
+    int root = random.nextInt(grid.size());
+    tree[root >>> 6] = tree[root >>> 6] | (1L << root);
+
+    for (int cell = 0; cell < grid.size(); cell = cell + 1) {
+      int walker = cell;
+      while ((tree[walker >>> 6] & (1L << walker)) == 0) {
+        int way = random.nextInt(4);
+        int next = grid.toward(walker, way);
+        if (next != -1) {
+          MazeGrid.setWay(exits, walker, way);
+          walker = next;
+        }
+      }
+
+      walker = cell;
+      while ((tree[walker >>> 6] & (1L << walker)) == 0) {
+        int way = MazeGrid.wayOf(exits, walker);
+        tree[walker >>> 6] = tree[walker >>> 6] | (1L << walker);
+        grid.openToward(walker, way);
+        walker = grid.toward(walker, way);
+      }
+    }
+    event.record(this.algorithm(), grid.length, grid.height, seed, 0);
+  }
+
+}